@@ -4,14 +4,23 @@ import dev.novov.duckdb.bench.api.AnalyticsEngine;
 import dev.novov.duckdb.bench.api.CaseResult;
 import dev.novov.duckdb.bench.api.DescribeCase;
 import dev.novov.duckdb.bench.api.HeadCase;
+import dev.novov.duckdb.bench.api.LookupCase;
+import dev.novov.duckdb.bench.api.ParquetWriteOptions;
 import dev.novov.duckdb.bench.api.QueryCase;
 import dev.novov.duckdb.bench.api.RunConfig;
+import dev.novov.duckdb.bench.util.Files2;
+import dev.novov.duckdb.bench.util.Paths2;
 import dev.novov.duckdb.bench.util.Stopwatch;
 import dev.novov.duckdb.engines.DuckdbEngine;
+import dev.novov.duckdb.engines.DuckdbStorage;
+import dev.novov.duckdb.engines.parquet.ParquetEngine;
+import dev.novov.duckdb.engines.parquet.kernels.Kernels;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 final class BenchRunner {
@@ -23,6 +32,10 @@ final class BenchRunner {
             runCsvToParquet(options);
             return;
         }
+        if (options.bloomFilterCopy() != null) {
+            runBloomFilterCopy(options);
+            return;
+        }
         if (options.schemaOnly()) {
             ensureDuckdbEngine(options.engineOption());
             runInteractive(options, new DescribeCase("ppd_describe", options.file()));
@@ -38,21 +51,19 @@ final class BenchRunner {
 //            throw new IllegalArgumentException("PPD dataset is currently supported only with --engine duckdb");
 //        }
 
-        if (options.engineOption().includesParquet() && isCsv(options.file())) {
-            System.err.println("Parquet engine cannot read CSV input directly. Run --to-parquet first.");
-            throw new IllegalStateException("CSV input not supported by Parquet engine");
-        }
-
         List<QueryCase> cases = caseSelector.select(options.datasetOption(), options.caseFilter(), options.file());
         if (cases.isEmpty()) {
             throw new IllegalStateException("No cases selected");
         }
-        List<AnalyticsEngine> engines = engineFactory.create(options.engineOption());
+        cases = withLookupKeys(cases, options.threads());
+        List<AnalyticsEngine> engines = engineFactory.create(options.engineOption(), options.duckdbStorage());
         System.out.println("Dataset=" + options.datasetOption());
         System.out.println("Engines: " + engines.stream().map(AnalyticsEngine::name).collect(Collectors.joining(", ")));
-        System.out.printf("Threads=%d warmup=%d runs=%d limitRows=%d explain=%b%n",
-                options.threads(), options.warmups(), options.runs(), options.limitRows(), options.explain());
+        System.out.printf("Threads=%d warmup=%d runs=%d limitRows=%d explain=%b pageCacheMb=%d codegen=%b kernels=%s memoryLimitMb=%d%n",
+                options.threads(), options.warmups(), options.runs(), options.limitRows(), options.explain(),
+                options.pageCacheMb(), options.codegen(), Kernels.implementation(), options.memoryLimitMb());
         cases.forEach(queryCase -> System.out.println("Case " + queryCase.id() + " -> " + CaseDescriptions.describe(queryCase)));
+        loadDuckdbStorage(options, engines);
 
         RunConfig config = new RunConfig(
                 options.warmups(),
@@ -61,7 +72,10 @@ final class BenchRunner {
                 options.limitRows(),
                 options.explain(),
                 options.explainHtml(),
-                false
+                false,
+                options.pageCacheMb() * 1024L * 1024L,
+                options.codegen(),
+                options.memoryLimitMb() * 1024L * 1024L
         );
 
         List<BenchResult> results = new ArrayList<>();
@@ -76,6 +90,27 @@ final class BenchRunner {
         ResultTablePrinter.print(results, options.warmups(), options.runs());
     }
 
+    /** Loads {@code --file} into the {@code --duckdb-db} table up front, so load time is reported apart from queries. */
+    private static void loadDuckdbStorage(RunnerOptions options, List<AnalyticsEngine> engines) throws Exception {
+        DuckdbStorage storage = options.duckdbStorage();
+        DuckdbEngine duckdb = engines.stream()
+                .filter(DuckdbEngine.class::isInstance)
+                .map(DuckdbEngine.class::cast)
+                .findFirst()
+                .orElse(null);
+        if (storage == null || duckdb == null) {
+            return;
+        }
+        DuckdbStorage.Load load = duckdb.load(options.file(), options.threads());
+        if (load.reused()) {
+            System.out.printf("Reusing table %s of %s (%d rows)%n", load.table(), storage.database(), load.rows());
+            return;
+        }
+        System.out.printf("Loaded %d rows of %s into table %s of %s in %d ms (%.1f MB database)%n", load.rows(),
+                options.file(), load.table(), storage.database(), load.nanos() / 1_000_000L,
+                Files.size(storage.database()) / (1024.0 * 1024.0));
+    }
+
     private void runInteractive(RunnerOptions options, QueryCase queryCase) throws Exception {
         System.out.printf("Running %s (%s) with DuckDB...%n", queryCase.id(), CaseDescriptions.describe(queryCase));
         RunConfig config = new RunConfig(
@@ -90,29 +125,87 @@ final class BenchRunner {
         new DuckdbEngine().runInteractive(queryCase, config);
     }
 
+    /**
+     * Converts the CSV {@code --file} with DuckDB's {@code COPY}, the parquet engine's parallel writers, or both.
+     * DuckDB writes {@code --to-parquet} itself; the parquet engine writes it too when it runs alone, and otherwise
+     * a sibling file named after the engine.
+     */
     private void runCsvToParquet(RunnerOptions options) throws Exception {
-        ensureDuckdbEngine(options.engineOption());
         String out = options.toParquet();
         if (out == null || out.isBlank()) {
             throw new IllegalArgumentException("--to-parquet requires an output file path");
         }
-        System.out.printf("Converting %s -> %s ...%n", options.file(), out);
+        EngineOption engine = options.engineOption();
+        ParquetWriteOptions write = options.parquetWrite();
+        if (engine.includesDuckdb()) {
+            DuckdbEngine duckdb = new DuckdbEngine();
+            convert(options, duckdb.name(), out,
+                    () -> duckdb.csvToParquet(options.file(), out, options.threads(), write));
+        }
+        if (engine.includesParquet()) {
+            ParquetEngine parquet = new ParquetEngine();
+            String target = engine.includesDuckdb() ? withSuffix(out, parquet.name()) : out;
+            convert(options, parquet.name(), target,
+                    () -> parquet.csvToParquet(options.file(), target, options.threads(), write));
+        }
+    }
+
+    private static void convert(RunnerOptions options, String engine, String out, Callable<Long> conversion)
+            throws Exception {
+        System.out.printf("Converting %s -> %s with %s ...%n", options.file(), out, engine);
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        long rows = conversion.call();
+        stopwatch.stop();
+        double seconds = Math.max(1L, stopwatch.elapsedNanos()) / 1e9;
+        System.out.printf("Parquet written to %s in %d ms: %d rows, %.0f rows/s", out, stopwatch.elapsedMillis(), rows,
+                rows / seconds);
+        if (!Paths2.isRemote(options.file())) {
+            long csvBytes = Files.size(Files2.resolveLocal(options.file()));
+            System.out.printf(", %.1f MB/s of CSV", csvBytes / seconds / (1024.0 * 1024.0));
+        }
+        System.out.printf(", %.1f MB%n", Files.size(Path.of(out)) / (1024.0 * 1024.0));
+    }
+
+    /** {@code file} with {@code suffix} before its extension. */
+    private static String withSuffix(String file, String suffix) {
+        int dot = file.lastIndexOf('.');
+        int slash = Math.max(file.lastIndexOf('/'), file.lastIndexOf('\\'));
+        return dot > slash ? file.substring(0, dot) + "." + suffix + file.substring(dot) : file + "." + suffix;
+    }
+
+    private void runBloomFilterCopy(RunnerOptions options) throws Exception {
+        if (Paths2.isCsv(options.file())) {
+            throw new IllegalArgumentException("--with-bloom-filters needs a Parquet --file; run --to-parquet first");
+        }
+        String out = options.bloomFilterCopy();
+        System.out.printf("Copying %s -> %s with bloom filters on %s ...%n", options.file(), out,
+                String.join(",", options.bloomColumns()));
         Stopwatch stopwatch = Stopwatch.createStarted();
-        new DuckdbEngine().csvToParquet(options.file(), out, options.threads());
+        new ParquetEngine().writeBloomFilteredCopy(options.file(), out, options.bloomColumns());
         stopwatch.stop();
         System.out.printf("Parquet written to %s in %d ms%n", out, stopwatch.elapsedMillis());
     }
 
+    /** Samples the keys of lookup cases once, so every engine looks up the same values. */
+    private static List<QueryCase> withLookupKeys(List<QueryCase> cases, int threads) throws Exception {
+        List<QueryCase> resolved = new ArrayList<>(cases.size());
+        for (QueryCase queryCase : cases) {
+            if (queryCase instanceof LookupCase lookup && lookup.keys().isEmpty()) {
+                List<String> keys = new DuckdbEngine().sampleKeys(lookup.file(), lookup.column(), lookup.sampleSize(), threads);
+                System.out.printf("Sampled %d keys of %s for %s%n", keys.size(), lookup.column(), lookup.id());
+                queryCase = lookup.withKeys(keys);
+            }
+            resolved.add(queryCase);
+        }
+        return resolved;
+    }
+
     private static void ensureDuckdbEngine(EngineOption engineOption) {
         if (!engineOption.includesDuckdb()) {
             throw new IllegalArgumentException("This command requires --engine duckdb");
         }
     }
 
-    private static boolean isCsv(String file) {
-        return file != null && file.toLowerCase(Locale.ROOT).endsWith(".csv");
-    }
-
     record BenchResult(QueryCase queryCase, String engine, CaseResult result) {
     }
 }
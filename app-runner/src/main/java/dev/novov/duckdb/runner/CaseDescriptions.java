@@ -15,10 +15,15 @@ final class CaseDescriptions {
     static String describe(QueryCase queryCase) {
         return switch (queryCase) {
             case GroupByCase groupBy -> "group=" + groupBy.groupCol() + ", agg=" + groupBy.aggFn()
-                    + "(" + groupBy.aggCol() + ")";
+                    + "(" + groupBy.aggCol() + (groupBy.aggFn().isQuantile() ? ", " + groupBy.quantile() : "") + ")";
             case FilterCase filter -> "filter=" + filter.filterExpr();
+            case ScalarAggCase scalar -> scalar.aggFn() + "(" + (scalar.column() == null ? "*" : scalar.column()) + ")"
+                    + (scalar.hasFilter() ? ", filter=" + scalar.filterExpr() : "");
             case TopKCase topK -> "orderBy=" + topK.orderByCol() + ", k=" + topK.k()
-                    + ", desc=" + topK.desc();
+                    + ", desc=" + topK.desc()
+                    + (topK.projectCols().isEmpty() ? "" : ", project=" + String.join(",", topK.projectCols()));
+            case LookupCase lookup -> lookup.column() + " = ?, keys="
+                    + (lookup.keys().isEmpty() ? lookup.sampleSize() + " sampled" : lookup.keys().size());
             case DescribeCase describe -> "describe " + describe.file();
             case HeadCase head -> "head limit=" + head.limit();
             case GroupByYearCase ignored -> "sales by year (ppd_category='A')";
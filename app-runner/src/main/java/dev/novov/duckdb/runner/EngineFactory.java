@@ -2,16 +2,26 @@ package dev.novov.duckdb.runner;
 
 import dev.novov.duckdb.bench.api.AnalyticsEngine;
 import dev.novov.duckdb.engines.DuckdbEngine;
+import dev.novov.duckdb.engines.DuckdbStorage;
+import dev.novov.duckdb.engines.ResultTransfer;
+import dev.novov.duckdb.engines.parquet.Assembly;
 import dev.novov.duckdb.engines.parquet.ParquetEngine;
+import dev.novov.duckdb.engines.parquet.ParquetIo;
 
 import java.util.List;
 
 final class EngineFactory {
-    List<AnalyticsEngine> create(EngineOption option) {
+    /** {@code storage}, if not {@code null}, has the DuckDB engines query native tables instead of files. */
+    List<AnalyticsEngine> create(EngineOption option, DuckdbStorage storage) {
         return switch (option) {
-            case DUCKDB -> List.of(new DuckdbEngine());
+            case DUCKDB -> List.of(new DuckdbEngine(ResultTransfer.JDBC, storage));
+            case DUCKDB_TRANSFER -> List.of(new DuckdbEngine(ResultTransfer.JDBC, storage),
+                    new DuckdbEngine(ResultTransfer.ARROW, storage));
             case PARQUET -> List.of(new ParquetEngine());
-            case BOTH -> List.of(new DuckdbEngine(), new ParquetEngine());
+            case PARQUET_HADOOP -> List.of(new ParquetEngine(ParquetIo.HADOOP));
+            case PARQUET_RECORDS -> List.of(new ParquetEngine(ParquetIo.MAPPED, Assembly.ROW_SINK),
+                    new ParquetEngine(ParquetIo.MAPPED, Assembly.GROUPS));
+            case BOTH -> List.of(new DuckdbEngine(ResultTransfer.JDBC, storage), new ParquetEngine());
         };
     }
 }
@@ -4,7 +4,13 @@ import java.util.Locale;
 
 enum EngineOption {
     DUCKDB("duckdb"),
+    /** DuckDB reading results once through the JDBC ResultSet, once as Arrow record batches. */
+    DUCKDB_TRANSFER("duckdb-transfer"),
     PARQUET("parquet"),
+    /** Parquet engine reading through Hadoop's FileSystem instead of memory-mapped local files. */
+    PARQUET_HADOOP("parquet-hadoop"),
+    /** Parquet engine assembling records through parquet-mr's record API, once into a row sink, once as Groups. */
+    PARQUET_RECORDS("parquet-records"),
     BOTH("both");
 
     private final String cliName;
@@ -32,10 +38,10 @@ enum EngineOption {
     }
 
     boolean includesDuckdb() {
-        return this == DUCKDB || this == BOTH;
+        return this == DUCKDB || this == DUCKDB_TRANSFER || this == BOTH;
     }
 
     boolean includesParquet() {
-        return this == PARQUET || this == BOTH;
+        return this == PARQUET || this == PARQUET_HADOOP || this == PARQUET_RECORDS || this == BOTH;
     }
 }
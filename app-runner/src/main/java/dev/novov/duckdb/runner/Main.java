@@ -1,7 +1,12 @@
 package dev.novov.duckdb.runner;
 
+import dev.novov.duckdb.bench.api.ParquetWriteOptions;
+import dev.novov.duckdb.engines.DuckdbStorage;
 import picocli.CommandLine;
 
+import java.nio.file.Path;
+import java.util.List;
+
 @CommandLine.Command(
         name = "duckdb-conf",
         mixinStandardHelpOptions = true,
@@ -11,7 +16,7 @@ public final class Main implements Runnable {
     @CommandLine.Spec
     private CommandLine.Model.CommandSpec spec;
 
-    @CommandLine.Option(names = "--engine", description = "Engine to run: duckdb|parquet|both", defaultValue = "both")
+    @CommandLine.Option(names = "--engine", description = "Engine to run: duckdb|duckdb-transfer|parquet|parquet-hadoop|parquet-records|both", defaultValue = "both")
     private String engineOption;
 
     @CommandLine.Option(names = "--dataset", description = "Dataset to run: taxi|ppd", defaultValue = "taxi")
@@ -50,6 +55,39 @@ public final class Main implements Runnable {
     @CommandLine.Option(names = "--to-parquet", description = "Convert CSV to Parquet and exit", paramLabel = "FILE")
     private String toParquet;
 
+    @CommandLine.Option(names = "--parquet-row-group-mb", description = "Row group size of the parquet engine's --to-parquet writer, in MB", defaultValue = "128", paramLabel = "MB")
+    private long parquetRowGroupMb;
+
+    @CommandLine.Option(names = "--parquet-page-kb", description = "Page size of the parquet engine's --to-parquet writer, in KB", defaultValue = "1024", paramLabel = "KB")
+    private int parquetPageKb;
+
+    @CommandLine.Option(names = "--parquet-codec", description = "Compression codec of --to-parquet: uncompressed|snappy|gzip|zstd|lz4_raw", defaultValue = "snappy")
+    private String parquetCodec;
+
+    @CommandLine.Option(names = "--no-parquet-dictionary", description = "Write --to-parquet output of the parquet engine without dictionary encoding")
+    private boolean noParquetDictionary;
+
+    @CommandLine.Option(names = "--with-bloom-filters", description = "Write a copy of the Parquet --file with bloom filters on --bloom-columns and exit", paramLabel = "FILE")
+    private String bloomFilterCopy;
+
+    @CommandLine.Option(names = "--bloom-columns", description = "Columns that get a bloom filter with --with-bloom-filters", defaultValue = "postcode,transaction_id", split = ",")
+    private List<String> bloomColumns;
+
+    @CommandLine.Option(names = "--page-cache-mb", description = "Off-heap cache of decompressed pages for the parquet engine, in MB (0 = off)", defaultValue = "0", paramLabel = "MB")
+    private long pageCacheMb;
+
+    @CommandLine.Option(names = "--codegen", description = "Run parquet engine plans as generated fused classes instead of interpreted operators")
+    private boolean codegen;
+
+    @CommandLine.Option(names = "--memory-limit-mb", description = "Memory cap of both engines' aggregations, in MB; state beyond it spills to temp files (0 = no limit)", defaultValue = "0", paramLabel = "MB")
+    private long memoryLimitMb;
+
+    @CommandLine.Option(names = "--duckdb-db", description = "Run DuckDB against tables of this database file, loading --file into it on first use", paramLabel = "FILE")
+    private Path duckdbDatabase;
+
+    @CommandLine.Option(names = "--duckdb-sort-by", description = "Sort the --duckdb-db table on this column when loading it", paramLabel = "COLUMN")
+    private String duckdbSortBy;
+
     public static void main(String[] args) {
         System.setProperty(
                 "org.slf4j.simpleLogger.log.org.apache.parquet.hadoop.InternalParquetRecordReader", "off"
@@ -81,6 +119,12 @@ public final class Main implements Runnable {
         if (runs < 1) {
             throw new IllegalArgumentException("runs must be >= 1");
         }
+        if (pageCacheMb < 0) {
+            throw new IllegalArgumentException("--page-cache-mb must be >= 0");
+        }
+        if (memoryLimitMb < 0) {
+            throw new IllegalArgumentException("--memory-limit-mb must be >= 0");
+        }
         if (head < 0) {
             throw new IllegalArgumentException("--head must be >= 0");
         }
@@ -91,6 +135,19 @@ public final class Main implements Runnable {
         if (normalizedToParquet != null && (schemaOnly || head > 0)) {
             throw new IllegalArgumentException("--to-parquet cannot be combined with --schema or --head");
         }
+        if (parquetRowGroupMb < 1 || parquetPageKb < 1) {
+            throw new IllegalArgumentException("--parquet-row-group-mb and --parquet-page-kb must be >= 1");
+        }
+        ParquetWriteOptions parquetWrite = new ParquetWriteOptions(parquetRowGroupMb * 1024L * 1024L,
+                Math.multiplyExact(parquetPageKb, 1024), parquetCodec, !noParquetDictionary);
+        String normalizedBloomCopy = (bloomFilterCopy == null || bloomFilterCopy.isBlank()) ? null : bloomFilterCopy;
+        if (normalizedBloomCopy != null && (normalizedToParquet != null || schemaOnly || head > 0)) {
+            throw new IllegalArgumentException("--with-bloom-filters cannot be combined with --to-parquet, --schema or --head");
+        }
+        if (duckdbSortBy != null && duckdbDatabase == null) {
+            throw new IllegalArgumentException("--duckdb-sort-by needs --duckdb-db");
+        }
+        DuckdbStorage duckdbStorage = duckdbDatabase == null ? null : new DuckdbStorage(duckdbDatabase, duckdbSortBy);
         if ((schemaOnly || head > 0) && !dataset.isPpd()) {
             throw new IllegalArgumentException("--schema/head are only supported for the PPD dataset");
         }
@@ -107,7 +164,14 @@ public final class Main implements Runnable {
                 limitRows,
                 schemaOnly,
                 head,
-                normalizedToParquet
+                normalizedToParquet,
+                parquetWrite,
+                normalizedBloomCopy,
+                List.copyOf(bloomColumns),
+                pageCacheMb,
+                codegen,
+                memoryLimitMb,
+                duckdbStorage
         );
     }
 }
@@ -1,12 +1,15 @@
 package dev.novov.duckdb.runner;
 
 import dev.novov.duckdb.bench.api.CaseRun;
+import dev.novov.duckdb.bench.api.LookupCase;
 import dev.novov.duckdb.bench.api.QueryCase;
 import dev.novov.duckdb.bench.util.AsciiTable;
+import dev.novov.duckdb.bench.util.Stats;
 
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.StringJoiner;
 
 final class ResultTablePrinter {
     private ResultTablePrinter() {
@@ -19,7 +22,7 @@ final class ResultTablePrinter {
         }
         results.sort(Comparator.comparing((BenchRunner.BenchResult r) -> r.queryCase().id())
                 .thenComparing(BenchRunner.BenchResult::engine));
-        AsciiTable table = new AsciiTable(List.of("Case", "Engine", "Warmups/Runs", "Median(ms)", "RowsOut", "Rows/s", "MaxMem(MB)"));
+        AsciiTable table = new AsciiTable(List.of("Case", "Engine", "Warmups/Runs", "Median(ms)", "RowsOut", "Rows/s", "MaxMem(MB)", "Metrics"));
         for (BenchRunner.BenchResult result : results) {
             long medianMillis = result.result().medianMillis();
             long rowsOut = rowsOut(result);
@@ -32,10 +35,44 @@ final class ResultTablePrinter {
                     formatMillis(medianMillis),
                     formatNumber(rowsOut),
                     rowsPerSecond,
-                    memMb
+                    memMb,
+                    formatMetrics(result)
             );
         }
         System.out.println(table.render());
+        printLookups(results);
+    }
+
+    /** Latency percentiles of the lookup cases, over every key of every measured run. */
+    private static void printLookups(List<BenchRunner.BenchResult> results) {
+        AsciiTable table = new AsciiTable(List.of("Case", "Engine", "Lookups", "p50(us)", "p95(us)", "p99(us)", "Max(us)", "Rows/lookup"));
+        boolean any = false;
+        for (BenchRunner.BenchResult result : results) {
+            if (!(result.queryCase() instanceof LookupCase)) {
+                continue;
+            }
+            List<CaseRun> runs = result.result().runs();
+            List<Long> nanos = runs.stream().map(CaseRun::nanos).toList();
+            double rows = runs.stream().mapToLong(CaseRun::rowsOut).average().orElse(0d);
+            table.addRow(
+                    result.queryCase().id(),
+                    result.engine(),
+                    Integer.toString(runs.size()),
+                    formatMicros(Stats.median(nanos)),
+                    formatMicros(Stats.p95(nanos)),
+                    formatMicros(Stats.p99(nanos)),
+                    formatMicros(nanos.stream().mapToLong(Long::longValue).max().orElse(0L)),
+                    String.format(Locale.US, "%.2f", rows)
+            );
+            any = true;
+        }
+        if (any) {
+            System.out.println(table.render());
+        }
+    }
+
+    private static String formatMicros(double nanos) {
+        return String.format(Locale.US, "%,.0f", nanos / 1_000d);
     }
 
     private static long rowsOut(BenchRunner.BenchResult result) {
@@ -52,11 +89,22 @@ final class ResultTablePrinter {
                 .orElse(0L);
     }
 
+    /** Engine counters of the last measured run, e.g. {@code rowGroups=120 rowGroupsSkipped=96}. */
+    private static String formatMetrics(BenchRunner.BenchResult result) {
+        List<CaseRun> runs = result.result().runs();
+        if (runs.isEmpty() || runs.get(runs.size() - 1).metrics().isEmpty()) {
+            return "—";
+        }
+        StringJoiner joiner = new StringJoiner(" ");
+        runs.get(runs.size() - 1).metrics().forEach((name, value) -> joiner.add(name + "=" + value));
+        return joiner.toString();
+    }
+
     private static String rowsPerSecond(QueryCase queryCase, long rowsOut, long medianMillis) {
         if (rowsOut <= 0 || medianMillis <= 0) {
             return "—";
         }
-        if (queryCase instanceof dev.novov.duckdb.bench.api.TopKCase) {
+        if (queryCase instanceof dev.novov.duckdb.bench.api.TopKCase || queryCase instanceof LookupCase) {
             return "—";
         }
         double perSecond = rowsOut / (medianMillis / 1000d);
@@ -1,5 +1,10 @@
 package dev.novov.duckdb.runner;
 
+import dev.novov.duckdb.bench.api.ParquetWriteOptions;
+import dev.novov.duckdb.engines.DuckdbStorage;
+
+import java.util.List;
+
 record RunnerOptions(
         EngineOption engineOption,
         DatasetOption datasetOption,
@@ -13,6 +18,13 @@ record RunnerOptions(
         long limitRows,
         boolean schemaOnly,
         int headLimit,
-        String toParquet
+        String toParquet,
+        ParquetWriteOptions parquetWrite,
+        String bloomFilterCopy,
+        List<String> bloomColumns,
+        long pageCacheMb,
+        boolean codegen,
+        long memoryLimitMb,
+        DuckdbStorage duckdbStorage
 ) {
 }
@@ -3,5 +3,18 @@ package dev.novov.duckdb.bench.api;
 public enum AggFn {
     COUNT,
     AVG,
-    SUM
+    SUM,
+    MIN,
+    MAX,
+    /** Exact, interpolated median; same as {@link #QUANTILE} at 0.5. */
+    MEDIAN,
+    /** Exact, interpolated quantile ({@code quantile_cont}); the fraction comes from the case. */
+    QUANTILE,
+    /** Approximate quantile computed with a fixed-size sketch. */
+    APPROX_QUANTILE;
+
+    /** {@code true} for the aggregates that take a quantile fraction. */
+    public boolean isQuantile() {
+        return this == MEDIAN || this == QUANTILE || this == APPROX_QUANTILE;
+    }
 }
@@ -1,9 +1,29 @@
 package dev.novov.duckdb.bench.api;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One measured execution. {@code metrics} carries optional engine-specific counters in insertion order (e.g. row groups
+ * or pages skipped by pruning) and is empty for engines that do not report any.
+ */
 public record CaseRun(
         long nanos,
         long rowsOut,
         long bytesRead,
-        long maxUsedMemBytes
+        long maxUsedMemBytes,
+        Map<String, Long> metrics
 ) {
+    public CaseRun {
+        metrics = Collections.unmodifiableMap(new LinkedHashMap<>(metrics));
+    }
+
+    public CaseRun(long nanos, long rowsOut, long bytesRead, long maxUsedMemBytes) {
+        this(nanos, rowsOut, bytesRead, maxUsedMemBytes, Map.of());
+    }
+
+    public CaseRun withMetrics(Map<String, Long> metrics) {
+        return new CaseRun(nanos, rowsOut, bytesRead, maxUsedMemBytes, metrics);
+    }
 }
@@ -1,10 +1,27 @@
 package dev.novov.duckdb.bench.api;
 
+/**
+ * {@code SELECT groupCol, aggFn(aggCol) FROM file GROUP BY 1}. {@code quantile} is the fraction in {@code [0, 1]}
+ * for {@link AggFn#QUANTILE} and {@link AggFn#APPROX_QUANTILE}; it is 0.5 for {@link AggFn#MEDIAN} and ignored
+ * otherwise.
+ */
 public record GroupByCase(
         String id,
         String file,
         String groupCol,
         String aggCol,
-        AggFn aggFn
+        AggFn aggFn,
+        double quantile
 ) implements QueryCase {
+    public GroupByCase {
+        if (aggFn == AggFn.MEDIAN) {
+            quantile = 0.5d;
+        } else if (aggFn.isQuantile() && !(quantile >= 0d && quantile <= 1d)) {
+            throw new IllegalArgumentException(aggFn + " requires a quantile in [0, 1], got " + quantile);
+        }
+    }
+
+    public GroupByCase(String id, String file, String groupCol, String aggCol, AggFn aggFn) {
+        this(id, file, groupCol, aggCol, aggFn, Double.NaN);
+    }
 }
@@ -0,0 +1,31 @@
+package dev.novov.duckdb.bench.api;
+
+import java.util.List;
+
+/**
+ * {@code SELECT * FROM file WHERE column = ?}, executed once per key. Every lookup is measured on its own, so a run
+ * yields one {@link CaseRun} per key. Built-in cases leave {@code keys} empty and ask for {@code sampleSize} keys
+ * drawn from the file; the runner samples them once so that every engine looks up the same values.
+ */
+public record LookupCase(
+        String id,
+        String file,
+        String column,
+        int sampleSize,
+        List<String> keys
+) implements QueryCase {
+    public LookupCase {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("sampleSize must be >= 1, got " + sampleSize);
+        }
+        keys = keys == null ? List.of() : List.copyOf(keys);
+    }
+
+    public LookupCase(String id, String file, String column, int sampleSize) {
+        this(id, file, column, sampleSize, List.of());
+    }
+
+    public LookupCase withKeys(List<String> keys) {
+        return new LookupCase(id, file, column, sampleSize, keys);
+    }
+}
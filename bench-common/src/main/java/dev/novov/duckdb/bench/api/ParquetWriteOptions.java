@@ -0,0 +1,18 @@
+package dev.novov.duckdb.bench.api;
+
+/**
+ * How a CSV file is converted to Parquet. DuckDB's {@code COPY} takes only the codec; row group size, page size and
+ * dictionary encoding apply to the parquet engine's writer, and their defaults are parquet-mr's.
+ */
+public record ParquetWriteOptions(long rowGroupBytes, int pageBytes, String codec, boolean dictionary) {
+    public static final ParquetWriteOptions DEFAULTS = new ParquetWriteOptions(128L << 20, 1 << 20, "snappy", true);
+
+    public ParquetWriteOptions {
+        if (rowGroupBytes < 1 || pageBytes < 1) {
+            throw new IllegalArgumentException("Invalid Parquet sizes: row group and page must be >= 1 byte");
+        }
+        if (codec == null || codec.isBlank()) {
+            throw new IllegalArgumentException("A Parquet codec is required");
+        }
+    }
+}
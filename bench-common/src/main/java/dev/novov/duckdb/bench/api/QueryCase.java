@@ -2,6 +2,6 @@ package dev.novov.duckdb.bench.api;
 
 public sealed interface QueryCase permits AvgByDistrictCase, DescribeCase, GroupByYearCase,
         HeadCase, MedianByDistrictCase, NewBuildVsOldCase, FilterCase, GroupByCase
-        , TopKCase {
+        , TopKCase, ScalarAggCase, LookupCase {
     String id();
 }
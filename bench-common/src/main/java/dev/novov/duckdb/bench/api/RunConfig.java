@@ -1,5 +1,12 @@
 package dev.novov.duckdb.bench.api;
 
+/**
+ * How a case is run. {@code pageCacheBytes} enables the manual engine's off-heap cache of decompressed pages
+ * for that many bytes ("warm" runs); 0 decompresses every page on every run ("cold" runs). {@code codegen}
+ * runs the manual engine's plans as generated, fused classes instead of interpreted operators.
+ * {@code memoryLimitBytes} caps the memory of blocking operators (DuckDB's {@code memory_limit}); aggregation
+ * state beyond it is spilled to temporary files. 0 means no limit.
+ */
 public record RunConfig(
         int warmupRuns,
         int measuredRuns,
@@ -7,11 +14,30 @@ public record RunConfig(
         long limitRowsOrMinusOne,
         boolean explain,
         boolean explainHtml,
-        boolean coldJVM
+        boolean coldJVM,
+        long pageCacheBytes,
+        boolean codegen,
+        long memoryLimitBytes
 ) {
     public RunConfig {
         if (warmupRuns < 0 || measuredRuns < 1) {
             throw new IllegalArgumentException("Invalid run counts: warmups must be >= 0 and measured >= 1");
         }
+        if (pageCacheBytes < 0) {
+            throw new IllegalArgumentException("Invalid page cache size: must be >= 0");
+        }
+        if (memoryLimitBytes < 0) {
+            throw new IllegalArgumentException("Invalid memory limit: must be >= 0");
+        }
+    }
+
+    public RunConfig(int warmupRuns,
+                     int measuredRuns,
+                     int threads,
+                     long limitRowsOrMinusOne,
+                     boolean explain,
+                     boolean explainHtml,
+                     boolean coldJVM) {
+        this(warmupRuns, measuredRuns, threads, limitRowsOrMinusOne, explain, explainHtml, coldJVM, 0L, false, 0L);
     }
 }
@@ -0,0 +1,26 @@
+package dev.novov.duckdb.bench.api;
+
+/**
+ * {@code SELECT aggFn(column) FROM file [WHERE filterExpr]} without grouping. {@code column} may be {@code null}
+ * for {@code COUNT(*)} and {@code filterExpr} may be {@code null} or blank for no filter.
+ */
+public record ScalarAggCase(
+        String id,
+        String file,
+        AggFn aggFn,
+        String column,
+        String filterExpr
+) implements QueryCase {
+    public ScalarAggCase {
+        if (column == null && aggFn != AggFn.COUNT) {
+            throw new IllegalArgumentException(aggFn + " requires a column");
+        }
+        if (aggFn.isQuantile()) {
+            throw new IllegalArgumentException(aggFn + " is only supported as a grouped aggregate");
+        }
+    }
+
+    public boolean hasFilter() {
+        return filterExpr != null && !filterExpr.isBlank();
+    }
+}
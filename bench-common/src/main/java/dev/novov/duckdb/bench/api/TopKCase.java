@@ -1,10 +1,24 @@
 package dev.novov.duckdb.bench.api;
 
+import java.util.List;
+
+/**
+ * {@code SELECT orderByCol[, projectCols...] FROM file ORDER BY orderByCol [DESC] LIMIT k}. With no
+ * {@code projectCols} only the order-by value is returned.
+ */
 public record TopKCase(
         String id,
         String file,
         String orderByCol,
         int k,
-        boolean desc
+        boolean desc,
+        List<String> projectCols
 ) implements QueryCase {
+    public TopKCase {
+        projectCols = projectCols == null ? List.of() : List.copyOf(projectCols);
+    }
+
+    public TopKCase(String id, String file, String orderByCol, int k, boolean desc) {
+        this(id, file, orderByCol, k, desc, List.of());
+    }
 }
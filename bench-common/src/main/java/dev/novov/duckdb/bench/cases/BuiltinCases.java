@@ -4,6 +4,7 @@ import dev.novov.duckdb.bench.api.AggFn;
 import dev.novov.duckdb.bench.api.FilterCase;
 import dev.novov.duckdb.bench.api.GroupByCase;
 import dev.novov.duckdb.bench.api.QueryCase;
+import dev.novov.duckdb.bench.api.ScalarAggCase;
 import dev.novov.duckdb.bench.api.TopKCase;
 
 import java.util.List;
@@ -35,6 +36,22 @@ public final class BuiltinCases {
                         columns.aggregateColumn(),
                         AggFn.AVG
                 ),
+                new GroupByCase(
+                        "taxi_p90_fare_by_passenger",
+                        parquetPath,
+                        columns.passengerCountColumn(),
+                        columns.fareColumn(),
+                        AggFn.QUANTILE,
+                        0.9d
+                ),
+                new GroupByCase(
+                        "taxi_approx_p90_fare_by_passenger",
+                        parquetPath,
+                        columns.passengerCountColumn(),
+                        columns.fareColumn(),
+                        AggFn.APPROX_QUANTILE,
+                        0.9d
+                ),
                 new FilterCase(
                         "taxi_filter_ts",
                         parquetPath,
@@ -46,6 +63,28 @@ public final class BuiltinCases {
                         columns.fareColumn(),
                         20,
                         true
+                ),
+                new TopKCase(
+                        "taxi_topk_fare_rows",
+                        parquetPath,
+                        columns.fareColumn(),
+                        20,
+                        true,
+                        List.of(columns.timestampColumn(), columns.passengerCountColumn())
+                ),
+                new ScalarAggCase(
+                        "taxi_max_ts",
+                        parquetPath,
+                        AggFn.MAX,
+                        columns.timestampColumn(),
+                        null
+                ),
+                new ScalarAggCase(
+                        "taxi_min_fare_filtered",
+                        parquetPath,
+                        AggFn.MIN,
+                        columns.fareColumn(),
+                        filterExpr
                 )
         );
     }
@@ -17,7 +17,10 @@ public final class BuiltinCasesPPD {
                 new GroupByYearCase("ppd_sales_by_year", file),
                 new AvgByDistrictCase("ppd_avg_by_district", file, 1_000),
                 new NewBuildVsOldCase("ppd_new_vs_old", file),
-                new MedianByDistrictCase("ppd_median_by_district", file, 1_000, 20)
+                new MedianByDistrictCase("ppd_median_by_district", file, 1_000, 20),
+                new GroupByCase("ppd_avg_price_by_postcode", file, "postcode", "price", AggFn.AVG),
+                new LookupCase("ppd_lookup_postcode", file, "postcode", 200),
+                new LookupCase("ppd_lookup_transaction", file, "transaction_id", 200)
         );
     }
 }
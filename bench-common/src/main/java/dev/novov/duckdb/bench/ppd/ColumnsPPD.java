@@ -1,30 +1,42 @@
 package dev.novov.duckdb.bench.ppd;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 public final class ColumnsPPD {
     private ColumnsPPD() {
     }
 
+    /** Column of pp-complete.csv with its DuckDB type. */
+    public record Column(String name, String sqlType) {
+    }
+
+    /**
+     * Columns of headerless pp-complete.csv in file order.
+     */
+    public static final List<Column> COLUMNS = List.of(
+            new Column("transaction_id", "VARCHAR"),
+            new Column("price", "BIGINT"),
+            new Column("transfer_date", "DATE"),
+            new Column("postcode", "VARCHAR"),
+            new Column("property_type", "VARCHAR"),
+            new Column("new_build", "VARCHAR"),
+            new Column("duration", "VARCHAR"),
+            new Column("paon", "VARCHAR"),
+            new Column("saon", "VARCHAR"),
+            new Column("street", "VARCHAR"),
+            new Column("locality", "VARCHAR"),
+            new Column("town_city", "VARCHAR"),
+            new Column("district", "VARCHAR"),
+            new Column("county", "VARCHAR"),
+            new Column("ppd_category", "VARCHAR"),
+            new Column("record_status", "VARCHAR")
+    );
+
     /**
      * Explicit schema for headerless pp-complete.csv.
      */
-    public static final String COLUMNS_SQL_MAP = """
-            columns={
-              'transaction_id':'VARCHAR',
-              'price':'BIGINT',
-              'transfer_date':'DATE',
-              'postcode':'VARCHAR',
-              'property_type':'VARCHAR',
-              'new_build':'VARCHAR',
-              'duration':'VARCHAR',
-              'paon':'VARCHAR',
-              'saon':'VARCHAR',
-              'street':'VARCHAR',
-              'locality':'VARCHAR',
-              'town_city':'VARCHAR',
-              'district':'VARCHAR',
-              'county':'VARCHAR',
-              'ppd_category':'VARCHAR',
-              'record_status':'VARCHAR'
-            }
-            """;
+    public static final String COLUMNS_SQL_MAP = COLUMNS.stream()
+            .map(column -> "  '" + column.name() + "':'" + column.sqlType() + "'")
+            .collect(Collectors.joining(",\n", "columns={\n", "\n}\n"));
 }
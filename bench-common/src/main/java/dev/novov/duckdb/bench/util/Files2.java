@@ -6,8 +6,11 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
 
 public final class Files2 {
     private static final Logger LOGGER = LoggerFactory.getLogger(Files2.class);
@@ -33,6 +36,29 @@ public final class Files2 {
         return path;
     }
 
+    /** Total size of the files directly in {@code dir}; files deleted while listing count as empty. */
+    public static long directorySize(Path dir) throws IOException {
+        long total = 0L;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                try {
+                    total += Files.size(file);
+                } catch (IOException e) {
+                    // removed between listing and stat
+                }
+            }
+        }
+        return total;
+    }
+
+    public static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
     public static boolean exists(String location) {
         if (isHttp(location)) {
             return probeHttp(location);
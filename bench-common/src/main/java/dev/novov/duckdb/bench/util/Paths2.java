@@ -7,6 +7,17 @@ public final class Paths2 {
     private Paths2() {
     }
 
+    /** {@code true} for http(s) URLs, which DuckDB can only read through the httpfs extension. */
+    public static boolean isRemote(String raw) {
+        String lower = raw.toLowerCase(Locale.ROOT);
+        return lower.startsWith("http://") || lower.startsWith("https://");
+    }
+
+    /** {@code true} for uncompressed CSV files, which are read as headerless pp-complete.csv. */
+    public static boolean isCsv(String raw) {
+        return raw != null && raw.toLowerCase(Locale.ROOT).endsWith(".csv");
+    }
+
     /** Normalize local paths to forward slashes; keep URLs intact. */
     public static String normalizePathOrUrl(String raw) {
         if (raw == null) {
@@ -16,6 +16,10 @@ public final class Stats {
         return percentile(values, 0.95d);
     }
 
+    public static double p99(List<Long> values) {
+        return percentile(values, 0.99d);
+    }
+
     private static double percentile(List<Long> values, double percentile) {
         if (values == null || values.isEmpty()) {
             return 0d;
@@ -0,0 +1,103 @@
+package dev.novov.duckdb.engines;
+
+import org.duckdb.DuckDBResultSet;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Reads a DuckDB result as Arrow record batches. Like the DuckDB driver itself, this binds to Arrow reflectively, so
+ * Arrow is only needed on the classpath when {@link ResultTransfer#ARROW} is used.
+ */
+final class ArrowResults {
+    /** Rows per exported batch; DuckDB's default vector size times the batches it hands out per fetch. */
+    private static final long BATCH_ROWS = 122_880L;
+
+    private ArrowResults() {
+    }
+
+    /** Rows of a result and a checksum of its values, folded column by column. */
+    record Totals(long rows, long checksum) {
+    }
+
+    static Totals consume(ResultSet rs) throws SQLException {
+        Api api = Api.get();
+        DuckDBResultSet duckResult = rs.unwrap(DuckDBResultSet.class);
+        try (AutoCloseable allocator = api.newAllocator();
+             AutoCloseable reader = (AutoCloseable) duckResult.arrowExportStream(allocator, BATCH_ROWS)) {
+            long rows = 0L;
+            long checksum = 0L;
+            while ((boolean) api.loadNextBatch.invokeExact((Object) reader)) {
+                Object root = api.vectorSchemaRoot.invokeExact((Object) reader);
+                int count = (int) api.rowCount.invokeExact(root);
+                List<?> vectors = (List<?>) api.fieldVectors.invokeExact(root);
+                for (int c = 0; c < vectors.size(); c++) {
+                    Object vector = vectors.get(c);
+                    long column = 0L;
+                    for (int row = 0; row < count; row++) {
+                        column += (int) api.valueHash.invokeExact(vector, row);
+                    }
+                    checksum += column * (31L * c + 1);
+                }
+                rows += count;
+            }
+            return new Totals(rows, checksum);
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new SQLException("Failed to read the result as Arrow batches", t);
+        }
+    }
+
+    /** Handles of the Arrow methods used, resolved once. */
+    private record Api(MethodHandle allocator,
+                       MethodHandle loadNextBatch,
+                       MethodHandle vectorSchemaRoot,
+                       MethodHandle rowCount,
+                       MethodHandle fieldVectors,
+                       MethodHandle valueHash) {
+        private static Api instance;
+
+        static synchronized Api get() {
+            if (instance == null) {
+                instance = resolve();
+            }
+            return instance;
+        }
+
+        private static Api resolve() {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            try {
+                Class<?> rootAllocator = Class.forName("org.apache.arrow.memory.RootAllocator");
+                Class<?> reader = Class.forName("org.apache.arrow.vector.ipc.ArrowReader");
+                Class<?> root = Class.forName("org.apache.arrow.vector.VectorSchemaRoot");
+                Class<?> valueVector = Class.forName("org.apache.arrow.vector.ValueVector");
+                Class.forName("org.apache.arrow.c.ArrowArrayStream");
+                return new Api(
+                        lookup.findConstructor(rootAllocator, MethodType.methodType(void.class))
+                                .asType(MethodType.methodType(AutoCloseable.class)),
+                        lookup.findVirtual(reader, "loadNextBatch", MethodType.methodType(boolean.class))
+                                .asType(MethodType.methodType(boolean.class, Object.class)),
+                        lookup.findVirtual(reader, "getVectorSchemaRoot", MethodType.methodType(root))
+                                .asType(MethodType.methodType(Object.class, Object.class)),
+                        lookup.findVirtual(root, "getRowCount", MethodType.methodType(int.class))
+                                .asType(MethodType.methodType(int.class, Object.class)),
+                        lookup.findVirtual(root, "getFieldVectors", MethodType.methodType(List.class))
+                                .asType(MethodType.methodType(List.class, Object.class)),
+                        lookup.findVirtual(valueVector, "hashCode", MethodType.methodType(int.class, int.class))
+                                .asType(MethodType.methodType(int.class, Object.class, int.class)));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Arrow result transfer needs arrow-c-data and arrow-memory on the "
+                        + "classpath; build with -Parrow", e);
+            }
+        }
+
+        AutoCloseable newAllocator() throws Throwable {
+            return (AutoCloseable) allocator.invokeExact();
+        }
+    }
+}
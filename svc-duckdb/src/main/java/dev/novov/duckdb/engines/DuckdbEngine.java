@@ -4,9 +4,12 @@ import dev.novov.duckdb.bench.DuckDBMemoryMeter;
 import dev.novov.duckdb.bench.api.AnalyticsEngine;
 import dev.novov.duckdb.bench.api.CaseResult;
 import dev.novov.duckdb.bench.api.CaseRun;
+import dev.novov.duckdb.bench.api.LookupCase;
+import dev.novov.duckdb.bench.api.ParquetWriteOptions;
 import dev.novov.duckdb.bench.api.QueryCase;
 import dev.novov.duckdb.bench.api.RunConfig;
 import dev.novov.duckdb.bench.util.AsciiTable;
+import dev.novov.duckdb.bench.util.Files2;
 import dev.novov.duckdb.bench.util.GC;
 import dev.novov.duckdb.bench.util.MemoryUtil;
 import dev.novov.duckdb.bench.util.Paths2;
@@ -15,15 +18,24 @@ import dev.novov.duckdb.engines.duck.DuckSqlPPD;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static dev.novov.duckdb.bench.DuckDBMemoryMeter.measurePeakDuring;
@@ -32,20 +44,45 @@ public final class DuckdbEngine implements AnalyticsEngine {
     private static final Logger LOGGER = LoggerFactory.getLogger(DuckdbEngine.class);
     private static final Duration GC_PAUSE = Duration.ofMillis(200);
 
+    private final ResultTransfer transfer;
+    /** Native tables the cases run against, or {@code null} to read the case files directly. */
+    private final DuckdbStorage storage;
+
+    public DuckdbEngine() {
+        this(ResultTransfer.JDBC);
+    }
+
+    public DuckdbEngine(ResultTransfer transfer) {
+        this(transfer, null);
+    }
+
+    public DuckdbEngine(ResultTransfer transfer, DuckdbStorage storage) {
+        this.transfer = transfer;
+        this.storage = storage;
+    }
+
     @Override
     public String name() {
-        return "duckdb";
+        return "duckdb" + (storage == null ? "" : "-native") + (transfer == ResultTransfer.JDBC ? "" : "-arrow");
     }
 
     @Override
     public CaseResult run(QueryCase queryCase, RunConfig config) throws Exception {
-        try (Connection connection = DriverManager.getConnection("jdbc:duckdb:")) {
+        Path spillDirectory = null;
+        try (Connection connection = connect()) {
             configureConnection(connection, config);
-            String sql = DuckdbSql.build(queryCase, config);
+            String table = storage == null ? null : load(connection, DuckdbSql.file(queryCase)).table();
+            if (queryCase instanceof LookupCase lookup) {
+                return runLookups(connection, lookup, table, config);
+            }
+            if (config.memoryLimitBytes() > 0) {
+                spillDirectory = spillDirectory(connection);
+            }
+            String sql = DuckdbSql.build(queryCase, config, table);
             LOGGER.info("[duckdb] Case {} SQL:{}{}", queryCase.id(), System.lineSeparator(), sql);
 
             for (int i = 0; i < config.warmupRuns(); i++) {
-                executeOnce(connection, sql, config.explain(), queryCase.id());
+                executeOnce(connection, sql, config.explain(), queryCase.id(), spillDirectory);
             }
 
             List<CaseRun> runs = new ArrayList<>(config.measuredRuns());
@@ -53,10 +90,137 @@ public final class DuckdbEngine implements AnalyticsEngine {
                 if (config.coldJVM()) {
                     GC.requestGc(GC_PAUSE);
                 }
-                runs.add(executeOnce(connection, sql, config.explain(), queryCase.id()));
+                runs.add(executeOnce(connection, sql, config.explain(), queryCase.id(), spillDirectory));
             }
 
             return new CaseResult(queryCase, name(), runs);
+        } finally {
+            if (spillDirectory != null) {
+                Files2.deleteRecursively(spillDirectory);
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(storage == null ? "jdbc:duckdb:" : storage.url());
+    }
+
+    /**
+     * Loads {@code file} into its table of the {@link DuckdbStorage} database unless an earlier run already did, so
+     * that the load is timed apart from the cases that query it.
+     */
+    public DuckdbStorage.Load load(String file, int threads) throws SQLException {
+        if (storage == null) {
+            throw new IllegalStateException("DuckDB engine " + name() + " reads files directly");
+        }
+        try (Connection connection = connect()) {
+            configureConnection(connection, new RunConfig(0, 1, threads, -1, false, false, false));
+            return load(connection, file);
+        }
+    }
+
+    /**
+     * The table is tagged with the path it was loaded from and reloaded when that differs, e.g. after {@code --file}
+     * moved to another copy of the data.
+     */
+    private DuckdbStorage.Load load(Connection connection, String file) throws SQLException {
+        String table = storage.table(file);
+        String source = Paths2.normalizePathOrUrl(file);
+        try (PreparedStatement statement = connection.prepareStatement("SELECT comment, estimated_size "
+                + "FROM duckdb_tables() WHERE schema_name = 'main' AND table_name = ?")) {
+            statement.setString(1, table);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next() && source.equals(rs.getString(1))) {
+                    return new DuckdbStorage.Load(table, rs.getLong(2), 0L, true);
+                }
+            }
+        }
+        String sql = "CREATE OR REPLACE TABLE " + DuckdbSql.ident(table)
+                + " AS SELECT * FROM " + DuckSqlPPD.from(source)
+                + (storage.sortColumn() == null ? "" : " ORDER BY " + DuckdbSql.ident(storage.sortColumn()));
+        LOGGER.info("[duckdb] Loading {} into {}:{}{}", file, storage.database(), System.lineSeparator(), sql);
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        long rows;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+            statement.execute("COMMENT ON TABLE " + DuckdbSql.ident(table) + " IS '" + escape(source) + "'");
+            statement.execute("CHECKPOINT");
+            stopwatch.stop();
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + DuckdbSql.ident(table))) {
+                rs.next();
+                rows = rs.getLong(1);
+            }
+        }
+        return new DuckdbStorage.Load(table, rows, stopwatch.elapsedNanos(), false);
+    }
+
+    /**
+     * Points DuckDB's temporary files at a directory of their own, so the size of what it spilled under
+     * {@link RunConfig#memoryLimitBytes()} can be sampled next to the parquet engine's spill counters.
+     */
+    private static Path spillDirectory(Connection connection) throws IOException, SQLException {
+        Path directory = Files.createTempDirectory("duckdb-spill");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET temp_directory='" + escape(directory.toString()) + "'");
+        }
+        return directory;
+    }
+
+    /** Runs every key of {@code lookup} as its own execution of one prepared statement, one {@link CaseRun} per key. */
+    private CaseResult runLookups(Connection connection, LookupCase lookup, String table, RunConfig config)
+            throws SQLException {
+        if (lookup.keys().isEmpty()) {
+            throw new IllegalArgumentException("Lookup case " + lookup.id() + " has no keys");
+        }
+        String sql = DuckdbSql.lookup(lookup, table);
+        LOGGER.info("[duckdb] Case {} SQL ({} keys):{}{}", lookup.id(), lookup.keys().size(), System.lineSeparator(), sql);
+        List<CaseRun> runs = new ArrayList<>(config.measuredRuns() * lookup.keys().size());
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < config.warmupRuns(); i++) {
+                for (String key : lookup.keys()) {
+                    lookupOnce(statement, key);
+                }
+            }
+            for (int i = 0; i < config.measuredRuns(); i++) {
+                if (config.coldJVM()) {
+                    GC.requestGc(GC_PAUSE);
+                }
+                for (String key : lookup.keys()) {
+                    runs.add(lookupOnce(statement, key));
+                }
+            }
+        }
+        return new CaseResult(lookup, name(), runs);
+    }
+
+    private static CaseRun lookupOnce(PreparedStatement statement, String key) throws SQLException {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        statement.setString(1, key);
+        long rows;
+        try (ResultSet rs = statement.executeQuery()) {
+            rows = consumeResultSet(rs, null);
+        }
+        stopwatch.stop();
+        return new CaseRun(stopwatch.elapsedNanos(), rows, -1L, 0L);
+    }
+
+    /**
+     * Up to {@code count} distinct non-null values of {@code column} from a repeatable sample of {@code file}, used
+     * as the keys of a {@link LookupCase}.
+     */
+    public List<String> sampleKeys(String file, String column, int count, int threads) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:duckdb:")) {
+            if (Paths2.isRemote(file)) {
+                configureConnection(connection, new RunConfig(0, 1, threads, -1, false, false, false));
+            }
+            List<String> keys = new ArrayList<>(count);
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(DuckdbSql.sampleKeys(file, column, count))) {
+                while (rs.next()) {
+                    keys.add(rs.getString(1));
+                }
+            }
+            return keys;
         }
     }
 
@@ -77,21 +241,24 @@ public final class DuckdbEngine implements AnalyticsEngine {
         }
     }
 
-    public void csvToParquet(String csvFileOrUrl, String outParquet, int threads) throws SQLException {
+    /** Converts {@code csvFileOrUrl} to {@code outParquet} with {@code COPY} and returns the rows written. */
+    public long csvToParquet(String csvFileOrUrl, String outParquet, int threads, ParquetWriteOptions options)
+            throws SQLException {
         RunConfig config = new RunConfig(0, 1, threads, -1, false,false, false);
         try (Connection connection = DriverManager.getConnection("jdbc:duckdb:")) {
             configureConnection(connection, config);
-            csvToParquet(connection, csvFileOrUrl, outParquet);
+            return csvToParquet(connection, csvFileOrUrl, outParquet, options);
         }
     }
 
-    public void csvToParquet(Connection conn, String csvFileOrUrl, String outParquet) throws SQLException {
+    public long csvToParquet(Connection conn, String csvFileOrUrl, String outParquet, ParquetWriteOptions options)
+            throws SQLException {
         String in = Paths2.normalizePathOrUrl(csvFileOrUrl);
         String out = Paths2.normalizePathOrUrl(outParquet);
         String sql = "COPY (SELECT * FROM " + DuckSqlPPD.fromCsv(in) + ") "
-                + "TO '" + escape(out) + "' (FORMAT PARQUET)";
+                + "TO '" + escape(out) + "' (FORMAT PARQUET, COMPRESSION '" + escape(options.codec()) + "')";
         try (Statement s = conn.createStatement()) {
-            s.execute(sql);
+            return s.executeUpdate(sql);
         }
     }
 
@@ -106,6 +273,9 @@ public final class DuckdbEngine implements AnalyticsEngine {
             if (config.threads() > 0) {
                 statement.execute("PRAGMA threads=" + config.threads());
             }
+            if (config.memoryLimitBytes() > 0) {
+                statement.execute("SET memory_limit='" + config.memoryLimitBytes() + " bytes'");
+            }
             if (config.explain()) {
                 statement.execute("PRAGMA enable_profiling = 'json'");
                 statement.execute("PRAGMA profiling_mode = 'detailed'");
@@ -114,10 +284,20 @@ public final class DuckdbEngine implements AnalyticsEngine {
         }
     }
 
-    private CaseRun executeOnce(Connection connection, String sql, boolean capturePlan, String caseId) throws SQLException {
+    /**
+     * {@code spillDirectory}, if not {@code null}, is sampled for the peak size of the temporary files, reported as
+     * {@code spillBytes}; DuckDB does not expose how long it spent spilling. Results are read as {@link #transfer}
+     * says, except that plans being captured are always read as text through JDBC; Arrow reads report the
+     * {@code checksum} of the values.
+     */
+    private CaseRun executeOnce(Connection connection, String sql, boolean capturePlan, String caseId,
+                                Path spillDirectory) throws SQLException {
+        SpillSampler spill = spillDirectory == null ? null : new SpillSampler(spillDirectory, Duration.ofMillis(50));
         Stopwatch stopwatch = Stopwatch.createStarted();
         DuckDBMemoryMeter.Result resMemo ;
         AtomicLong rows = new AtomicLong(0L);
+        AtomicLong checksum = new AtomicLong(0L);
+        boolean arrow = transfer == ResultTransfer.ARROW && !capturePlan;
         try {
             resMemo = measurePeakDuring(() -> {
                 try {
@@ -129,7 +309,13 @@ public final class DuckdbEngine implements AnalyticsEngine {
                         boolean hasResult = statement.execute(sql);
                         while (hasResult) {
                             try (ResultSet rs = statement.getResultSet()) {
-                                rows.addAndGet(consumeResultSet(rs, explainOutput));
+                                if (arrow) {
+                                    ArrowResults.Totals totals = ArrowResults.consume(rs);
+                                    rows.addAndGet(totals.rows());
+                                    checksum.addAndGet(totals.checksum());
+                                } else {
+                                    rows.addAndGet(consumeResultSet(rs, explainOutput));
+                                }
                             }
                             hasResult = statement.getMoreResults();
                         }
@@ -146,10 +332,50 @@ public final class DuckdbEngine implements AnalyticsEngine {
             }, Duration.ofMillis(50));
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            if (spill != null) {
+                spill.close();
+            }
         }
 
         long deltaMem2 = MemoryUtil.sampleUsedBytesV2();
-        return new CaseRun(stopwatch.elapsedNanos(), rows.get(), -1L, resMemo.peakRss());
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        if (arrow) {
+            metrics.put("checksum", checksum.get());
+        }
+        if (spill != null) {
+            metrics.put("spillBytes", spill.peakBytes());
+        }
+        return new CaseRun(stopwatch.elapsedNanos(), rows.get(), -1L, resMemo.peakRss(), metrics);
+    }
+
+    /** Peak size of the files in DuckDB's temp directory while a query runs. */
+    private static final class SpillSampler implements AutoCloseable {
+        private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "duckdb-spill-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private final AtomicLong peak = new AtomicLong();
+
+        SpillSampler(Path directory, Duration period) {
+            timer.scheduleAtFixedRate(() -> {
+                try {
+                    peak.accumulateAndGet(Files2.directorySize(directory), Math::max);
+                } catch (IOException e) {
+                    LOGGER.debug("[duckdb] Cannot sample {}: {}", directory, e.toString());
+                }
+            }, 0L, period.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        long peakBytes() {
+            return peak.get();
+        }
+
+        @Override
+        public void close() {
+            timer.shutdownNow();
+        }
     }
 
     private static long consumeResultSet(ResultSet rs, StringBuilder explainOutput) throws SQLException {
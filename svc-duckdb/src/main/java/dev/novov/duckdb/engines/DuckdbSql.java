@@ -12,7 +12,12 @@ final class DuckdbSql {
     }
 
     static String build(QueryCase queryCase, RunConfig config) {
-        String core = buildCore(queryCase);
+        return build(queryCase, config, null);
+    }
+
+    /** Like {@link #build(QueryCase, RunConfig)}, but reads the table {@code table} instead of the case's file. */
+    static String build(QueryCase queryCase, RunConfig config, String table) {
+        String core = buildCore(queryCase, table);
         if (config.limitRowsOrMinusOne() > 0) {
             core = "SELECT * FROM (" + core + ") AS duck_query LIMIT " + config.limitRowsOrMinusOne();
         }
@@ -25,18 +30,37 @@ final class DuckdbSql {
         return core;
     }
 
-    private static String buildCore(QueryCase queryCase) {
+    /** {@code SELECT *} of the rows of a {@link LookupCase} whose column equals the key bound to parameter 1. */
+    static String lookup(LookupCase lookup, String table) {
+        return "SELECT * FROM " + relation(lookup.file(), table) + " WHERE " + ident(lookup.column()) + " = ?";
+    }
+
+    /** Distinct non-null values of {@code column} among a repeatable sample of {@code count} rows of {@code file}. */
+    static String sampleKeys(String file, String column, int count) {
+        return "SELECT DISTINCT CAST(" + ident(column) + " AS VARCHAR) AS key FROM ("
+                + "SELECT " + ident(column) + " FROM " + fileLiteral(file)
+                + " USING SAMPLE reservoir(" + count + " ROWS) REPEATABLE (42)"
+                + ") WHERE " + ident(column) + " IS NOT NULL";
+    }
+
+    private static String buildCore(QueryCase queryCase, String table) {
         if (isPpdCase(queryCase)) {
-            return buildPpd(queryCase);
+            return buildPpd(queryCase, table);
         }
         if (queryCase instanceof GroupByCase groupByCase) {
-            return groupBy(groupByCase);
+            return groupBy(groupByCase, relation(groupByCase.file(), table));
         }
         if (queryCase instanceof FilterCase filterCase) {
-            return filter(filterCase);
+            return filter(filterCase, relation(filterCase.file(), table));
         }
         if (queryCase instanceof TopKCase topKCase) {
-            return topK(topKCase);
+            return topK(topKCase, relation(topKCase.file(), table));
+        }
+        if (queryCase instanceof ScalarAggCase scalarAggCase) {
+            return scalarAgg(scalarAggCase, relation(scalarAggCase.file(), table));
+        }
+        if (queryCase instanceof LookupCase) {
+            throw new IllegalArgumentException("Lookups run as a prepared statement, see DuckdbSql.lookup");
         }
         throw new IllegalArgumentException("Unsupported QueryCase: " + queryCase.getClass().getName());
     }
@@ -50,9 +74,9 @@ final class DuckdbSql {
                 || queryCase instanceof MedianByDistrictCase;
     }
 
-    private static String buildPpd(QueryCase queryCase) {
-        String file = Paths2.normalizePathOrUrl(ppdFile(queryCase));
-        String from = " FROM " + DuckSqlPPD.fromParquet(file) + " ";
+    private static String buildPpd(QueryCase queryCase, String table) {
+        String source = table != null ? ident(table) : DuckSqlPPD.from(Paths2.normalizePathOrUrl(ppdFile(queryCase)));
+        String from = " FROM " + source + " ";
         if (queryCase instanceof DescribeCase) {
             return "DESCRIBE SELECT * " + from + " LIMIT 0";
         }
@@ -111,6 +135,18 @@ final class DuckdbSql {
         throw new IllegalArgumentException("Unsupported PPD case: " + queryCase.getClass().getName());
     }
 
+    /** File {@code queryCase} reads. */
+    static String file(QueryCase queryCase) {
+        return switch (queryCase) {
+            case GroupByCase groupBy -> groupBy.file();
+            case FilterCase filter -> filter.file();
+            case TopKCase topK -> topK.file();
+            case ScalarAggCase scalarAgg -> scalarAgg.file();
+            case LookupCase lookup -> lookup.file();
+            default -> ppdFile(queryCase);
+        };
+    }
+
     private static String ppdFile(QueryCase queryCase) {
         if (queryCase instanceof DescribeCase describeCase) {
             return describeCase.file();
@@ -133,32 +169,64 @@ final class DuckdbSql {
         throw new IllegalArgumentException("Unsupported PPD case: " + queryCase.getClass().getName());
     }
 
-    private static String groupBy(GroupByCase groupBy) {
+    private static String groupBy(GroupByCase groupBy, String relation) {
+        String column = ident(groupBy.aggCol());
         String agg = switch (groupBy.aggFn()) {
+            case MEDIAN -> "median(" + column + ")";
+            case QUANTILE -> "quantile_cont(" + column + ", " + groupBy.quantile() + ")";
+            case APPROX_QUANTILE -> "approx_quantile(" + column + ", " + groupBy.quantile() + ")";
+            default -> aggregate(groupBy.aggFn()) + "(" + column + ")";
+        };
+        return "SELECT " + ident(groupBy.groupCol()) + ", " + agg + " AS metric "
+                + "FROM " + relation + " GROUP BY 1";
+    }
+
+    private static String scalarAgg(ScalarAggCase scalarAgg, String relation) {
+        String argument = scalarAgg.column() == null ? "*" : ident(scalarAgg.column());
+        String sql = "SELECT " + aggregate(scalarAgg.aggFn()) + "(" + argument + ") AS metric FROM " + relation;
+        return scalarAgg.hasFilter() ? sql + " WHERE " + scalarAgg.filterExpr() : sql;
+    }
+
+    private static String aggregate(AggFn aggFn) {
+        return switch (aggFn) {
             case COUNT -> "COUNT";
             case AVG -> "AVG";
             case SUM -> "SUM";
+            case MIN -> "MIN";
+            case MAX -> "MAX";
+            case MEDIAN, QUANTILE, APPROX_QUANTILE ->
+                    throw new IllegalArgumentException(aggFn + " needs a quantile fraction");
         };
-        return "SELECT " + ident(groupBy.groupCol()) + ", " + agg + "(" + ident(groupBy.aggCol()) + ") AS metric "
-                + "FROM " + fileLiteral(groupBy.file()) + " GROUP BY 1";
     }
 
-    private static String filter(FilterCase filter) {
-        return "SELECT COUNT(*) AS cnt FROM " + fileLiteral(filter.file())
-                + " WHERE " + filter.filterExpr();
+    private static String filter(FilterCase filter, String relation) {
+        return "SELECT COUNT(*) AS cnt FROM " + relation + " WHERE " + filter.filterExpr();
     }
 
-    private static String topK(TopKCase topK) {
-        return "SELECT " + ident(topK.orderByCol()) + " FROM " + fileLiteral(topK.file())
+    private static String topK(TopKCase topK, String relation) {
+        StringBuilder select = new StringBuilder(ident(topK.orderByCol()));
+        for (String column : topK.projectCols()) {
+            select.append(", ").append(ident(column));
+        }
+        return "SELECT " + select + " FROM " + relation
                 + " ORDER BY " + ident(topK.orderByCol()) + (topK.desc() ? " DESC" : " ASC")
                 + " LIMIT " + topK.k();
     }
 
-    private static String ident(String candidate) {
+    /** The table {@code table} if the case runs against native storage, otherwise {@code file}. */
+    private static String relation(String file, String table) {
+        return table != null ? ident(table) : fileLiteral(file);
+    }
+
+    static String ident(String candidate) {
         return "\"" + candidate.replace("\"", "\"\"") + "\"";
     }
 
+    /** {@code file} as a table; CSV files are read as headerless pp-complete.csv. */
     private static String fileLiteral(String file) {
+        if (Paths2.isCsv(file)) {
+            return DuckSqlPPD.fromCsv(file);
+        }
         return "'" + file.replace("'", "''") + "'";
     }
 }
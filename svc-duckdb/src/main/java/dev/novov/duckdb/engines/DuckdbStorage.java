@@ -0,0 +1,45 @@
+package dev.novov.duckdb.engines;
+
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Native storage for {@link DuckdbEngine}: cases run against tables of the database file {@code database} instead
+ * of reading their Parquet or CSV file. Each file is loaded once into a table named after it, optionally sorted on
+ * {@code sortColumn} (or {@code null}) so DuckDB's zone maps can prune on it, and reused by later runs.
+ */
+public record DuckdbStorage(Path database, String sortColumn) {
+    public DuckdbStorage {
+        Objects.requireNonNull(database, "database");
+        if (sortColumn != null && sortColumn.isBlank()) {
+            sortColumn = null;
+        }
+    }
+
+    /** Table that {@code file} is loaded into: its name without directory and extension, and the sort column. */
+    public String table(String file) {
+        String name = file.replace('\\', '/');
+        name = name.substring(name.lastIndexOf('/') + 1);
+        int query = name.indexOf('?');
+        if (query >= 0) {
+            name = name.substring(0, query);
+        }
+        int dot = name.indexOf('.');
+        if (dot > 0) {
+            name = name.substring(0, dot);
+        }
+        if (sortColumn != null) {
+            name += "_by_" + sortColumn;
+        }
+        return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]", "_");
+    }
+
+    String url() {
+        return "jdbc:duckdb:" + database.toAbsolutePath();
+    }
+
+    /** A table as {@link DuckdbEngine#load} left it; {@code reused} tables were loaded by an earlier run. */
+    public record Load(String table, long rows, long nanos, boolean reused) {
+    }
+}
@@ -0,0 +1,15 @@
+package dev.novov.duckdb.engines;
+
+/**
+ * How {@link DuckdbEngine} pulls the result rows of a case out of DuckDB. Lookups, whose results are a few rows per
+ * key, are always read through JDBC.
+ */
+public enum ResultTransfer {
+    /** {@code ResultSet.next()} row by row, as JDBC clients read. */
+    JDBC,
+    /**
+     * Arrow record batches from {@code DuckDBResultSet.arrowExportStream}, counted and checksummed column by column.
+     * Needs Arrow's C data interface and a memory implementation at runtime (the {@code arrow} build profile).
+     */
+    ARROW
+}
@@ -1,11 +1,17 @@
 package dev.novov.duckdb.engines.duck;
 
 import dev.novov.duckdb.bench.ppd.ColumnsPPD;
+import dev.novov.duckdb.bench.util.Paths2;
 
 public final class DuckSqlPPD {
     private DuckSqlPPD() {
     }
 
+    /** Table function reading {@code fileOrUrl}: headerless pp-complete.csv for CSV files, Parquet otherwise. */
+    public static String from(String fileOrUrl) {
+        return Paths2.isCsv(fileOrUrl) ? fromCsv(fileOrUrl) : fromParquet(fileOrUrl);
+    }
+
     public static String fromCsv(String fileOrUrl) {
         return "read_csv_auto('" + escape(fileOrUrl) + "', HEADER=false, " + ColumnsPPD.COLUMNS_SQL_MAP + ")";
     }
@@ -0,0 +1,129 @@
+package dev.novov.duckdb.engines.parquet.kernels;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar against vector form of each kernel on one batch of the scan ({@code RowBatch.DEFAULT_CAPACITY} rows, a
+ * few nulls) at the given share of matching rows. Scores are nanoseconds per batch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class KernelBenchmark {
+    private static final int ROWS = 4096;
+
+    @Param({"scalar", "vector"})
+    public String kernels;
+
+    @Param({"0.01", "0.5"})
+    public double selectivity;
+
+    private ScalarKernels impl;
+    private final long[] longs = new long[ROWS];
+    private final int[] ints = new int[ROWS];
+    private final double[] doubles = new double[ROWS];
+    private final boolean[] nulls = new boolean[ROWS];
+    private final boolean[] mask = new boolean[ROWS];
+    private final boolean[] other = new boolean[ROWS];
+    private final boolean[] out = new boolean[ROWS];
+    private final int[] selection = new int[ROWS];
+    private long upper;
+
+    @Setup
+    public void setup() {
+        impl = kernels.equals("vector") ? new VectorKernels() : new ScalarKernels();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < ROWS; i++) {
+            longs[i] = random.nextLong(1_000_000L);
+            ints[i] = random.nextInt(64);
+            doubles[i] = random.nextDouble() * 1_000d;
+            nulls[i] = random.nextInt(100) == 0;
+            mask[i] = random.nextDouble() < selectivity;
+            other[i] = random.nextDouble() < selectivity;
+        }
+        upper = (long) (selectivity * 1_000_000L);
+    }
+
+    @Benchmark
+    public long sumLong() {
+        return impl.sum(longs, ROWS);
+    }
+
+    @Benchmark
+    public double sumDouble() {
+        return impl.sum(doubles, ROWS);
+    }
+
+    @Benchmark
+    public long maskedSumLong() {
+        return impl.sum(longs, mask, ROWS);
+    }
+
+    @Benchmark
+    public long maskedSumInt() {
+        return impl.sum(ints, mask, ROWS);
+    }
+
+    @Benchmark
+    public double maskedSumDouble() {
+        return impl.sum(doubles, mask, ROWS);
+    }
+
+    @Benchmark
+    public int count() {
+        return impl.count(mask, ROWS);
+    }
+
+    @Benchmark
+    public void minMaxLong(Blackhole blackhole) {
+        blackhole.consume(impl.min(longs, mask, ROWS));
+        blackhole.consume(impl.max(longs, mask, ROWS));
+    }
+
+    @Benchmark
+    public void minMaxDouble(Blackhole blackhole) {
+        blackhole.consume(impl.min(doubles, mask, ROWS));
+        blackhole.consume(impl.max(doubles, mask, ROWS));
+    }
+
+    @Benchmark
+    public boolean[] rangeLong() {
+        impl.range(longs, nulls, 0L, upper, out, ROWS);
+        return out;
+    }
+
+    @Benchmark
+    public boolean[] equalDictionaryId() {
+        impl.equal(ints, nulls, 7, out, ROWS);
+        return out;
+    }
+
+    @Benchmark
+    public boolean[] and() {
+        System.arraycopy(mask, 0, out, 0, ROWS);
+        impl.and(out, other, ROWS);
+        return out;
+    }
+
+    @Benchmark
+    public int select() {
+        return impl.select(mask, ROWS, selection);
+    }
+}
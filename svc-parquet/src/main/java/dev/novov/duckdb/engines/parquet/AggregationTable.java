@@ -0,0 +1,526 @@
+package dev.novov.duckdb.engines.parquet;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Open-addressing group-by table that keeps everything per group off-heap, so high-cardinality group-bys do not
+ * grow the Java heap by several objects per key. Groups get dense ids; for each id the table stores a fixed-width
+ * slot of {@code count(*), count(value), sum, min, max} and a reference into an append-only key arena, and the hash table holds
+ * {@code id + 1} next to the precomputed hash so probing and growing never rehash key bytes.
+ * <p>
+ * Keys are looked up the same way whether they are numeric (their 8-byte bit pattern), plain bytes or ids into
+ * the current page dictionary, which are remapped to group ids once per dictionary. Null keys share one group;
+ * floating point keys are normalised first so {@code -0.0} groups with {@code 0.0} and every NaN with one another,
+ * as in DuckDB.
+ * <p>
+ * Not thread-safe: every scan worker owns a table and tables are combined with {@link #merge}, or, once a worker
+ * holds many groups, {@link #split} into {@link RadixPartitions}.
+ * <p>
+ * Under a memory limit, groups are written to a {@link SpillFile} as records of the key ({@code kind} byte, hash,
+ * length, bytes) followed by the slot, and folded back with {@link #absorbRecords}.
+ */
+final class AggregationTable implements GroupTable {
+    static final int NULL_GROUP = -1;
+
+    private static final int SLOT_BYTES = 5 * Long.BYTES;
+    private static final int COUNT = 0;
+    private static final int VALUES = 8;
+    private static final int SUM = 16;
+    private static final int MIN = 24;
+    private static final int MAX = 32;
+    /** Per group: arena offset (long), key length (int) and hash (int). */
+    private static final int REF_BYTES = 2 * Long.BYTES;
+    private static final byte NULL_KEY = 0;
+    private static final byte NUMERIC_KEY = 1;
+    private static final byte BINARY_KEY = 2;
+    private static final byte FLOATING_KEY = 3;
+    private static final int KEY_HEADER_BYTES = 1 + 2 * Integer.BYTES;
+    private static final int INITIAL_GROUPS = 64;
+    private static final int INITIAL_ARENA_BYTES = 1024;
+    /** {@link #memoryBytes()} of a new, empty table. */
+    static final long EMPTY_BYTES = (long) INITIAL_GROUPS * (SLOT_BYTES + REF_BYTES) + INITIAL_ARENA_BYTES
+            + 2L * INITIAL_GROUPS * Integer.BYTES;
+
+    private ByteBuffer slots;
+    private ByteBuffer refs;
+    private ByteBuffer arena;
+    private long arenaUsed;
+    private int size;
+    private int nullGroup = NULL_GROUP;
+    /** Set once a numeric key was added; a column never mixes numeric and binary keys. */
+    private boolean numericKeys;
+    /** Set once a floating point key was added; its bits are then read back as a {@code double}. */
+    private boolean floatingKeys;
+
+    /** {@code id + 1} per bucket, zero meaning empty; sized to a power of two at most half full. */
+    private int[] table;
+
+    private byte[][] remapSource;
+    private int[] remap;
+
+    AggregationTable() {
+        this.slots = allocate((long) INITIAL_GROUPS * SLOT_BYTES);
+        this.refs = allocate((long) INITIAL_GROUPS * REF_BYTES);
+        this.arena = allocate(INITIAL_ARENA_BYTES);
+        this.table = new int[2 * INITIAL_GROUPS];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Off-heap buffers and hash table, what a {@link MemoryBudget} is charged for. */
+    long memoryBytes() {
+        return (long) slots.capacity() + refs.capacity() + arena.capacity() + (long) table.length * Integer.BYTES;
+    }
+
+    @Override
+    public int group(ColumnVector vector, int row) {
+        if (vector.nulls[row]) {
+            return nullGroup();
+        }
+        return switch (vector.type) {
+            case INT64 -> group(vector.longs[row]);
+            case INT32, BOOLEAN -> group(vector.ints[row]);
+            case DOUBLE, FLOAT -> group(vector.doubles[row]);
+            default -> binaryGroup(vector, row);
+        };
+    }
+
+    private int binaryGroup(ColumnVector vector, int row) {
+        int dictId = vector.dictIds[row];
+        if (dictId < 0) {
+            return group(vector.bytes, vector.offsets[row], vector.lengths[row]);
+        }
+        if (vector.dictionary != remapSource) {
+            remapSource = vector.dictionary;
+            remap = new int[remapSource.length];
+            Arrays.fill(remap, NULL_GROUP);
+        }
+        int group = remap[dictId];
+        if (group == NULL_GROUP) {
+            byte[] value = remapSource[dictId];
+            group = group(value, 0, value.length);
+            remap[dictId] = group;
+        }
+        return group;
+    }
+
+    @Override
+    public int group(long key) {
+        return group(key, mix(key), false);
+    }
+
+    @Override
+    public int group(double key) {
+        long bits = floatingKey(key);
+        return group(bits, mix(bits), true);
+    }
+
+    /**
+     * {@link #group(long)} with the key's {@link #mix} already computed; {@code floating} marks {@code key} as the
+     * {@link #floatingKey} of a {@code double}.
+     */
+    int group(long key, int hash, boolean floating) {
+        int mask = table.length - 1;
+        for (int bucket = hash & mask; ; bucket = (bucket + 1) & mask) {
+            int entry = table[bucket];
+            if (entry == 0) {
+                numericKeys = true;
+                floatingKeys |= floating;
+                long offset = append(Long.BYTES);
+                arena.putLong((int) offset, key);
+                return insert(bucket, offset, Long.BYTES, hash);
+            }
+            int group = entry - 1;
+            if (hash(group) == hash && length(group) == Long.BYTES && arena.getLong((int) offset(group)) == key) {
+                return group;
+            }
+        }
+    }
+
+    int group(byte[] source, int offset, int length) {
+        return group(source, offset, length, hash(source, offset, length));
+    }
+
+    /** {@link #group(byte[], int, int)} with the key's {@link #hash(byte[], int, int)} already computed. */
+    int group(byte[] source, int offset, int length, int hash) {
+        int mask = table.length - 1;
+        for (int bucket = hash & mask; ; bucket = (bucket + 1) & mask) {
+            int entry = table[bucket];
+            if (entry == 0) {
+                long at = append(length);
+                arena.put((int) at, source, offset, length);
+                return insert(bucket, at, length, hash);
+            }
+            int group = entry - 1;
+            if (hash(group) == hash && length(group) == length && keyEquals(group, source, offset, length)) {
+                return group;
+            }
+        }
+    }
+
+    @Override
+    public int nullGroup() {
+        if (nullGroup == NULL_GROUP) {
+            nullGroup = newGroup(-1L, 0, 0);
+        }
+        return nullGroup;
+    }
+
+    @Override
+    public void accumulate(int group, double value) {
+        int slot = group * SLOT_BYTES;
+        slots.putLong(slot + COUNT, slots.getLong(slot + COUNT) + 1);
+        slots.putLong(slot + VALUES, slots.getLong(slot + VALUES) + 1);
+        slots.putDouble(slot + SUM, slots.getDouble(slot + SUM) + value);
+        slots.putDouble(slot + MIN, min(slots.getDouble(slot + MIN), value));
+        slots.putDouble(slot + MAX, max(slots.getDouble(slot + MAX), value));
+    }
+
+    @Override
+    public void accumulateRow(int group) {
+        int slot = group * SLOT_BYTES;
+        slots.putLong(slot + COUNT, slots.getLong(slot + COUNT) + 1);
+    }
+
+    /** Rows of {@code group}, like {@code count(*)}. */
+    long count(int group) {
+        return slots.getLong(group * SLOT_BYTES + COUNT);
+    }
+
+    /** Non-null values of {@code group}. */
+    long valueCount(int group) {
+        return slots.getLong(group * SLOT_BYTES + VALUES);
+    }
+
+    double sum(int group) {
+        return slots.getDouble(group * SLOT_BYTES + SUM);
+    }
+
+    /** Smallest non-null value of {@code group}, NaN if there is none; see {@link #min(double, double)}. */
+    double min(int group) {
+        return slots.getDouble(group * SLOT_BYTES + MIN);
+    }
+
+    /** Largest non-null value of {@code group}, negative infinity if there is none. */
+    double max(int group) {
+        return slots.getDouble(group * SLOT_BYTES + MAX);
+    }
+
+    /** Key of {@code group} as text; numeric keys are rendered as their value. */
+    String key(int group) {
+        if (group == nullGroup) {
+            return "NULL";
+        }
+        if (floatingKeys) {
+            return Double.toString(Double.longBitsToDouble(arena.getLong((int) offset(group))));
+        }
+        if (numericKeys) {
+            return Long.toString(arena.getLong((int) offset(group)));
+        }
+        byte[] bytes = new byte[length(group)];
+        arena.get((int) offset(group), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Orders groups by key: numerically for numeric keys, with NaN above every other {@code double}, and by unsigned
+     * bytes otherwise; the null group sorts last.
+     */
+    int compareKeys(int a, int b) {
+        return compareKeys(this, a, this, b);
+    }
+
+    /** {@link #compareKeys(int, int)} across two tables of the same key column, e.g. two radix partitions. */
+    static int compareKeys(AggregationTable left, int a, AggregationTable right, int b) {
+        boolean aNull = a == left.nullGroup;
+        boolean bNull = b == right.nullGroup;
+        if (aNull || bNull) {
+            return Boolean.compare(aNull, bNull);
+        }
+        if (left.floatingKeys || right.floatingKeys) {
+            return Double.compare(Double.longBitsToDouble(left.arena.getLong((int) left.offset(a))),
+                    Double.longBitsToDouble(right.arena.getLong((int) right.offset(b))));
+        }
+        if (left.numericKeys || right.numericKeys) {
+            return Long.compare(left.arena.getLong((int) left.offset(a)), right.arena.getLong((int) right.offset(b)));
+        }
+        return compareBytes(left.arena.slice((int) left.offset(a), left.length(a)),
+                right.arena.slice((int) right.offset(b), right.length(b)));
+    }
+
+    private static int compareBytes(ByteBuffer left, ByteBuffer right) {
+        int at = left.mismatch(right);
+        if (at < 0) {
+            return 0;
+        }
+        if (at < left.limit() && at < right.limit()) {
+            return Byte.compareUnsigned(left.get(at), right.get(at));
+        }
+        return Integer.compare(left.limit(), right.limit());
+    }
+
+    boolean isNull(int group) {
+        return group == nullGroup;
+    }
+
+    /**
+     * Folds every group of {@code other} into this table and returns the translation from its group ids to ids of
+     * this table, for callers keeping extra per-group state.
+     */
+    int[] merge(AggregationTable other) {
+        int[] translation = new int[other.size];
+        for (int group = 0; group < other.size; group++) {
+            translation[group] = absorb(other, group);
+        }
+        return translation;
+    }
+
+    /**
+     * Splits the groups into {@code 1 << bits} new tables by the top {@code bits} bits of their key hash, the
+     * routing of {@link RadixPartitions}; the null group goes to partition 0.
+     */
+    AggregationTable[] split(int bits) {
+        AggregationTable[] partitions = new AggregationTable[1 << bits];
+        for (int p = 0; p < partitions.length; p++) {
+            partitions[p] = new AggregationTable();
+        }
+        for (int group = 0; group < size; group++) {
+            partitions[partition(group, bits)].absorb(this, group);
+        }
+        return partitions;
+    }
+
+    /** Radix partition of {@code group} among {@code 1 << bits}, as routed by {@link #split}. */
+    int partition(int group, int bits) {
+        return group == nullGroup ? 0 : hash(group) >>> (Integer.SIZE - bits);
+    }
+
+    /** Appends a record of every group to {@code out} and returns it, grown if needed. */
+    ByteBuffer writeRecords(ByteBuffer out) {
+        for (int group = 0; group < size; group++) {
+            out = writeKey(group, SpillFile.ensureRemaining(out, KEY_HEADER_BYTES + length(group) + SLOT_BYTES));
+            out.put(slots.slice(group * SLOT_BYTES, SLOT_BYTES));
+        }
+        return out;
+    }
+
+    /** Folds the records of {@link #writeRecords} in {@code in} into this table. */
+    void absorbRecords(ByteBuffer in) {
+        while (in.hasRemaining()) {
+            int target = readKey(in, true);
+            int to = target * SLOT_BYTES;
+            // slots are written in native order, the key header in the buffer's own
+            ByteBuffer slot = in.slice(in.position(), SLOT_BYTES).order(slots.order());
+            in.position(in.position() + SLOT_BYTES);
+            slots.putLong(to + COUNT, slots.getLong(to + COUNT) + slot.getLong(COUNT));
+            slots.putLong(to + VALUES, slots.getLong(to + VALUES) + slot.getLong(VALUES));
+            slots.putDouble(to + SUM, slots.getDouble(to + SUM) + slot.getDouble(SUM));
+            slots.putDouble(to + MIN, min(slots.getDouble(to + MIN), slot.getDouble(MIN)));
+            slots.putDouble(to + MAX, max(slots.getDouble(to + MAX), slot.getDouble(MAX)));
+        }
+    }
+
+    /** Appends the key of {@code group} to {@code out} and returns it, grown if needed. */
+    ByteBuffer writeKey(int group, ByteBuffer out) {
+        int length = group == nullGroup ? 0 : length(group);
+        out = SpillFile.ensureRemaining(out, KEY_HEADER_BYTES + length);
+        out.put(group == nullGroup ? NULL_KEY : floatingKeys ? FLOATING_KEY : numericKeys ? NUMERIC_KEY : BINARY_KEY);
+        out.putInt(group == nullGroup ? 0 : hash(group));
+        out.putInt(length);
+        if (length > 0) {
+            out.put(arena.slice((int) offset(group), length));
+        }
+        return out;
+    }
+
+    /**
+     * Reads a key of {@link #writeKey} from {@code in} and returns its group. With {@code insert} unset the key
+     * must already be in the table, and the lookup does not modify it, so several threads may look up keys at once.
+     */
+    int readKey(ByteBuffer in, boolean insert) {
+        byte kind = in.get();
+        int hash = in.getInt();
+        byte[] key = new byte[in.getInt()];
+        in.get(key);
+        if (kind == NULL_KEY) {
+            if (insert) {
+                return nullGroup();
+            }
+            return require(nullGroup);
+        }
+        if (insert) {
+            numericKeys |= kind == NUMERIC_KEY || kind == FLOATING_KEY;
+            floatingKeys |= kind == FLOATING_KEY;
+            return group(key, 0, key.length, hash);
+        }
+        int mask = table.length - 1;
+        for (int bucket = hash & mask; table[bucket] != 0; bucket = (bucket + 1) & mask) {
+            int group = table[bucket] - 1;
+            if (hash(group) == hash && length(group) == key.length && keyEquals(group, key, 0, key.length)) {
+                return group;
+            }
+        }
+        return require(NULL_GROUP);
+    }
+
+    private static int require(int group) {
+        if (group == NULL_GROUP) {
+            throw new IllegalStateException("Spilled key is not in the aggregation table");
+        }
+        return group;
+    }
+
+    /** Adds {@code group} of {@code other} to the group of the same key here and returns the latter. */
+    private int absorb(AggregationTable other, int group) {
+        int target;
+        if (group == other.nullGroup) {
+            target = nullGroup();
+        } else {
+            int length = other.length(group);
+            byte[] key = new byte[length];
+            other.arena.get((int) other.offset(group), key);
+            target = group(key, 0, length, other.hash(group));
+        }
+        numericKeys |= other.numericKeys;
+        floatingKeys |= other.floatingKeys;
+        int from = group * SLOT_BYTES;
+        int to = target * SLOT_BYTES;
+        slots.putLong(to + COUNT, slots.getLong(to + COUNT) + other.slots.getLong(from + COUNT));
+        slots.putLong(to + VALUES, slots.getLong(to + VALUES) + other.slots.getLong(from + VALUES));
+        slots.putDouble(to + SUM, slots.getDouble(to + SUM) + other.slots.getDouble(from + SUM));
+        slots.putDouble(to + MIN, min(slots.getDouble(to + MIN), other.slots.getDouble(from + MIN)));
+        slots.putDouble(to + MAX, max(slots.getDouble(to + MAX), other.slots.getDouble(from + MAX)));
+        return target;
+    }
+
+    private int insert(int bucket, long offset, int length, int hash) {
+        int group = newGroup(offset, length, hash);
+        table[bucket] = group + 1;
+        if (size * 2 > table.length) {
+            grow();
+        }
+        return group;
+    }
+
+    private int newGroup(long offset, int length, int hash) {
+        int group = size;
+        if ((long) (group + 1) * SLOT_BYTES > slots.capacity()) {
+            slots = resize(slots, (long) slots.capacity() * 2);
+            refs = resize(refs, (long) refs.capacity() * 2);
+        }
+        int slot = group * SLOT_BYTES;
+        slots.putLong(slot + COUNT, 0L);
+        slots.putLong(slot + VALUES, 0L);
+        slots.putDouble(slot + SUM, 0d);
+        slots.putDouble(slot + MIN, Double.NaN);
+        slots.putDouble(slot + MAX, Double.NEGATIVE_INFINITY);
+        int ref = group * REF_BYTES;
+        refs.putLong(ref, offset);
+        refs.putInt(ref + Long.BYTES, length);
+        refs.putInt(ref + Long.BYTES + Integer.BYTES, hash);
+        size++;
+        return group;
+    }
+
+    private void grow() {
+        int[] grown = new int[table.length * 2];
+        int mask = grown.length - 1;
+        for (int group = 0; group < size; group++) {
+            if (group == nullGroup) {
+                continue;
+            }
+            int bucket = hash(group) & mask;
+            while (grown[bucket] != 0) {
+                bucket = (bucket + 1) & mask;
+            }
+            grown[bucket] = group + 1;
+        }
+        table = grown;
+    }
+
+    private long append(int length) {
+        long offset = arenaUsed;
+        if (offset + length > arena.capacity()) {
+            arena = resize(arena, Math.max((long) arena.capacity() * 2, offset + length));
+        }
+        arenaUsed += length;
+        return offset;
+    }
+
+    private long offset(int group) {
+        return refs.getLong(group * REF_BYTES);
+    }
+
+    private int length(int group) {
+        return refs.getInt(group * REF_BYTES + Long.BYTES);
+    }
+
+    private int hash(int group) {
+        return refs.getInt(group * REF_BYTES + Long.BYTES + Integer.BYTES);
+    }
+
+    private boolean keyEquals(int group, byte[] source, int offset, int length) {
+        int at = (int) offset(group);
+        for (int i = 0; i < length; i++) {
+            if (arena.get(at + i) != source[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ByteBuffer allocate(long capacity) {
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Aggregation table exceeds 2 GB: " + capacity + " bytes");
+        }
+        return ByteBuffer.allocateDirect((int) capacity).order(ByteOrder.nativeOrder());
+    }
+
+    private static ByteBuffer resize(ByteBuffer buffer, long capacity) {
+        ByteBuffer grown = allocate(capacity);
+        grown.put(0, buffer, 0, buffer.capacity());
+        return grown;
+    }
+
+    /**
+     * Smaller of two values in DuckDB's order, where NaN is above every other value: unlike {@link Math#min}, a NaN
+     * only wins over another NaN. The empty MIN slot holds NaN, so a group of NaNs keeps it.
+     */
+    private static double min(double a, double b) {
+        return Double.compare(a, b) <= 0 ? a : b;
+    }
+
+    /** Larger of two values in DuckDB's order, so a NaN wins. */
+    private static double max(double a, double b) {
+        return Double.compare(a, b) >= 0 ? a : b;
+    }
+
+    /** Key bits of a {@code double}: {@code -0.0} becomes {@code 0.0} and every NaN the canonical one. */
+    static long floatingKey(double value) {
+        return Double.doubleToLongBits(value == 0d ? 0d : value);
+    }
+
+    /** Murmur3 finalizer, so consecutive numeric keys spread over the table. */
+    static int mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    static int hash(byte[] source, int offset, int length) {
+        int h = 1;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            h = 31 * h + source[i];
+        }
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,15 @@
+package dev.novov.duckdb.engines.parquet;
+
+/**
+ * How the scan turns the pages of a row group into the rows of its batches. {@link #COLUMNAR} decodes each column
+ * straight into its vector. The other two assemble records through parquet-mr's {@code RecordReader}, the path of
+ * readers without a columnar rewrite: {@link #ROW_SINK} with a {@link RowSinkMaterializer} whose converters write
+ * each field into the batch as it arrives, {@link #GROUPS} with the {@code GroupRecordConverter} behind
+ * {@code GroupReadSupport}, one {@code Group} per row that is then copied into the batch. Everything after the scan
+ * is the same, so the engines differ only in record assembly.
+ */
+public enum Assembly {
+    COLUMNAR,
+    ROW_SINK,
+    GROUPS
+}
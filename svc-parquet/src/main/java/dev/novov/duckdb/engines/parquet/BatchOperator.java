@@ -0,0 +1,14 @@
+package dev.novov.duckdb.engines.parquet;
+
+import java.io.IOException;
+
+/**
+ * Push-based physical operator of a {@link PhysicalPlan} pipeline. Scan workers push every batch together with a
+ * mask of the rows that are still alive; operators narrow the mask and pass the batch on until it reaches the
+ * pipeline's {@link Sink}. Instances belong to one scan worker, so they may keep scratch buffers.
+ */
+interface BatchOperator {
+
+    /** Consumes the rows of {@code batch} whose {@code alive} flag is set; may clear flags for downstream use. */
+    void push(RowBatch batch, boolean[] alive) throws IOException;
+}
@@ -0,0 +1,223 @@
+package dev.novov.duckdb.engines.parquet;
+
+import dev.novov.duckdb.engines.parquet.kernels.Kernels;
+import it.unimi.dsi.fastutil.doubles.DoubleOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import java.util.Arrays;
+
+/**
+ * Vectorized filter kernel: evaluates a bound predicate over a whole {@link RowBatch} into a {@code boolean[]}
+ * match mask. SQL semantics apply, so a null value never matches a comparison.
+ * <p>
+ * Kernels keep scratch buffers and per-dictionary caches and are therefore created per scan worker
+ * (see {@link BoundFilter#kernel}).
+ */
+interface BatchPredicate {
+
+    /** Writes the match flag of every row of {@code batch} into {@code out[0..batch.size())}. */
+    void evaluate(RowBatch batch, boolean[] out);
+
+    final class AllOf implements BatchPredicate {
+        final BatchPredicate[] terms;
+        private boolean[] scratch = new boolean[0];
+
+        AllOf(BatchPredicate[] terms) {
+            this.terms = terms;
+        }
+
+        @Override
+        public void evaluate(RowBatch batch, boolean[] out) {
+            int n = batch.size();
+            terms[0].evaluate(batch, out);
+            if (scratch.length < n) {
+                scratch = new boolean[batch.capacity()];
+            }
+            for (int t = 1; t < terms.length; t++) {
+                terms[t].evaluate(batch, scratch);
+                Kernels.and(out, scratch, n);
+            }
+        }
+    }
+
+    final class AnyOf implements BatchPredicate {
+        final BatchPredicate[] terms;
+        private boolean[] scratch = new boolean[0];
+
+        AnyOf(BatchPredicate[] terms) {
+            this.terms = terms;
+        }
+
+        @Override
+        public void evaluate(RowBatch batch, boolean[] out) {
+            int n = batch.size();
+            terms[0].evaluate(batch, out);
+            if (scratch.length < n) {
+                scratch = new boolean[batch.capacity()];
+            }
+            for (int t = 1; t < terms.length; t++) {
+                terms[t].evaluate(batch, scratch);
+                Kernels.or(out, scratch, n);
+            }
+        }
+    }
+
+    record Constant(boolean value) implements BatchPredicate {
+        @Override
+        public void evaluate(RowBatch batch, boolean[] out) {
+            Arrays.fill(out, 0, batch.size(), value);
+        }
+    }
+
+    record NullTest(int column, boolean negated) implements BatchPredicate {
+        @Override
+        public void evaluate(RowBatch batch, boolean[] out) {
+            boolean[] nulls = batch.column(column).nulls;
+            for (int i = 0, n = batch.size(); i < n; i++) {
+                out[i] = nulls[i] != negated;
+            }
+        }
+    }
+
+    /** {@code lower <= value <= upper} on an INT64 column, both bounds inclusive. */
+    record LongRange(int column, long lower, long upper) implements BatchPredicate {
+        @Override
+        public void evaluate(RowBatch batch, boolean[] out) {
+            ColumnVector vector = batch.column(column);
+            Kernels.range(vector.longs, vector.nulls, lower, upper, out, batch.size());
+        }
+    }
+
+    /** {@code lower <= value <= upper} on an INT32/BOOLEAN column, both bounds inclusive. */
+    record IntRange(int column, int lower, int upper) implements BatchPredicate {
+        @Override
+        public void evaluate(RowBatch batch, boolean[] out) {
+            ColumnVector vector = batch.column(column);
+            Kernels.range(vector.ints, vector.nulls, lower, upper, out, batch.size());
+        }
+    }
+
+    /** {@code lower <= value <= upper} on a DOUBLE/FLOAT column; exclusive bounds are pre-shifted by one ulp. */
+    record DoubleRange(int column, double lower, double upper) implements BatchPredicate {
+        @Override
+        public void evaluate(RowBatch batch, boolean[] out) {
+            ColumnVector vector = batch.column(column);
+            Kernels.range(vector.doubles, vector.nulls, lower, upper, out, batch.size());
+        }
+    }
+
+    /** Set membership on an INT64 column; {@code negated} gives {@code NOT IN} and {@code <>}. */
+    record LongSet(int column, LongOpenHashSet values, boolean negated) implements BatchPredicate {
+        @Override
+        public void evaluate(RowBatch batch, boolean[] out) {
+            ColumnVector vector = batch.column(column);
+            for (int i = 0, n = batch.size(); i < n; i++) {
+                out[i] = !vector.nulls[i] && values.contains(vector.longs[i]) != negated;
+            }
+        }
+    }
+
+    record IntSet(int column, IntOpenHashSet values, boolean negated) implements BatchPredicate {
+        @Override
+        public void evaluate(RowBatch batch, boolean[] out) {
+            ColumnVector vector = batch.column(column);
+            for (int i = 0, n = batch.size(); i < n; i++) {
+                out[i] = !vector.nulls[i] && values.contains(vector.ints[i]) != negated;
+            }
+        }
+    }
+
+    record DoubleSet(int column, DoubleOpenHashSet values, boolean negated) implements BatchPredicate {
+        @Override
+        public void evaluate(RowBatch batch, boolean[] out) {
+            ColumnVector vector = batch.column(column);
+            for (int i = 0, n = batch.size(); i < n; i++) {
+                out[i] = !vector.nulls[i] && values.contains(vector.doubles[i]) != negated;
+            }
+        }
+    }
+
+    /** Byte-level test of one binary value, {@code bytes[from, to)}. */
+    @FunctionalInterface
+    interface BytesMatcher {
+        boolean matches(byte[] bytes, int from, int to);
+    }
+
+    /**
+     * Binary column test. Dictionary-encoded rows are answered from a match flag per dictionary entry computed once
+     * per row group dictionary; plain-encoded rows compare the arena bytes directly.
+     */
+    final class BinaryTest implements BatchPredicate {
+        private static final int MANY = -2;
+
+        private final int column;
+        private final BytesMatcher matcher;
+        private byte[][] cachedDictionary;
+        private boolean[] dictionaryMatches;
+        /** The one matching dictionary id, {@code -1} when no entry matches, {@link #MANY} otherwise. */
+        private int onlyMatch = MANY;
+
+        BinaryTest(int column, BytesMatcher matcher) {
+            this.column = column;
+            this.matcher = matcher;
+        }
+
+        int column() {
+            return column;
+        }
+
+        @Override
+        public void evaluate(RowBatch batch, boolean[] out) {
+            ColumnVector vector = batch.column(column);
+            refresh(vector);
+            int n = batch.size();
+            if (vector.plainValues == 0 && onlyMatch != MANY) {
+                // equality on a dictionary-encoded batch: compare the ids against the single matching one
+                Kernels.equal(vector.dictIds, vector.nulls, onlyMatch, out, n);
+                return;
+            }
+            for (int i = 0; i < n; i++) {
+                if (vector.nulls[i]) {
+                    out[i] = false;
+                    continue;
+                }
+                int id = vector.dictIds[i];
+                if (id >= 0) {
+                    out[i] = dictionaryMatches[id];
+                } else {
+                    int from = vector.offsets[i];
+                    out[i] = matcher.matches(vector.bytes, from, from + vector.lengths[i]);
+                }
+            }
+        }
+
+        /** Row-at-a-time form of {@link #evaluate}, for generated code that fuses the test into its own loop. */
+        boolean test(ColumnVector vector, int row) {
+            if (vector.nulls[row]) {
+                return false;
+            }
+            int id = vector.dictIds[row];
+            if (id >= 0) {
+                refresh(vector);
+                return dictionaryMatches[id];
+            }
+            int from = vector.offsets[row];
+            return matcher.matches(vector.bytes, from, from + vector.lengths[row]);
+        }
+
+        private void refresh(ColumnVector vector) {
+            if (vector.dictionary != null && vector.dictionary != cachedDictionary) {
+                cachedDictionary = vector.dictionary;
+                dictionaryMatches = new boolean[cachedDictionary.length];
+                onlyMatch = -1;
+                for (int id = 0; id < cachedDictionary.length; id++) {
+                    dictionaryMatches[id] = matcher.matches(cachedDictionary[id], 0, cachedDictionary[id].length);
+                    if (dictionaryMatches[id]) {
+                        onlyMatch = onlyMatch == -1 ? id : MANY;
+                    }
+                }
+            }
+        }
+    }
+}
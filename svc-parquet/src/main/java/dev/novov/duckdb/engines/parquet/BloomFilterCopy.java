@@ -0,0 +1,69 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.MessageType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Rewrites a Parquet file with a split-block bloom filter on chosen columns. Row groups keep roughly their original
+ * size, and every filter is sized for the largest row group, so point lookups can skip the row groups whose filter
+ * rules the key out even when statistics and dictionaries cannot.
+ */
+final class BloomFilterCopy {
+    private BloomFilterCopy() {
+    }
+
+    static void write(ParquetIo io, String source, String target, List<String> columns) throws IOException {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("At least one bloom filter column is required");
+        }
+        FooterCache.CachedFile cached = FooterCache.shared().open(io, source);
+        ParquetMetadata footer = cached.footer();
+        MessageType schema = footer.getFileMetaData().getSchema();
+        List<BlockMetaData> blocks = footer.getBlocks();
+        long maxRows = blocks.stream().mapToLong(BlockMetaData::getRowCount).max().orElse(1L);
+        long maxBytes = blocks.stream().mapToLong(BlockMetaData::getTotalByteSize).max()
+                .orElse(ParquetWriter.DEFAULT_BLOCK_SIZE);
+
+        ExampleParquetWriter.Builder builder = ExampleParquetWriter.builder(new LocalOutputFile(Path.of(target)))
+                .withType(schema)
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withRowGroupSize(maxBytes);
+        if (!blocks.isEmpty()) {
+            builder.withCompressionCodec(blocks.get(0).getColumns().get(0).getCodec());
+        }
+        for (String column : columns) {
+            String physical = ParquetScanner.resolveColumn(schema, column).getName();
+            builder.withBloomFilterEnabled(physical, true).withBloomFilterNDV(physical, maxRows);
+        }
+
+        MessageColumnIO columnIo = new ColumnIOFactory().getColumnIO(schema);
+        try (ParquetFileReader reader = io.reader(cached.input(), footer, io.options(cached.input()).build());
+             ParquetWriter<Group> writer = builder.build()) {
+            PageReadStore rowGroup;
+            while ((rowGroup = reader.readNextRowGroup()) != null) {
+                try (PageReadStore pages = rowGroup) {
+                    RecordReader<Group> records = columnIo.getRecordReader(pages, new GroupRecordConverter(schema));
+                    for (long row = 0; row < pages.getRowCount(); row++) {
+                        writer.write(records.read());
+                    }
+                }
+            }
+        }
+    }
+}
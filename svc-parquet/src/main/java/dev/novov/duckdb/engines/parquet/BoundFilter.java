@@ -0,0 +1,307 @@
+package dev.novov.duckdb.engines.parquet;
+
+import it.unimi.dsi.fastutil.doubles.DoubleOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * {@link FilterExpr} bound to the physical Parquet schema by {@link FilterBinder}. Literals are already converted to
+ * the column representation ({@code Long} for INT64 including timestamps, {@code Integer} for INT32 including dates,
+ * {@code Double}/{@code Float}, {@code Boolean} or {@code Binary}), so every node can be compiled both to a
+ * parquet-mr {@link FilterPredicate} for pruning and to a {@link BatchPredicate} kernel.
+ */
+sealed interface BoundFilter {
+
+    /** Pushdown form of this node, or {@code null} when parquet-mr cannot express it (pruning is then skipped). */
+    FilterPredicate predicate();
+
+    /** Fresh kernel; {@code columnIndex} maps a logical column to its position in the scanned {@link RowBatch}. */
+    BatchPredicate kernel(ToIntFunction<String> columnIndex);
+
+    void collectColumns(Set<String> out);
+
+    default List<String> columns() {
+        Set<String> out = new LinkedHashSet<>();
+        collectColumns(out);
+        return List.copyOf(out);
+    }
+
+    /** Logical name used by the scanner plus the resolved physical column. */
+    record Column(String logical, PrimitiveType type) {
+        String physical() {
+            return type.getName();
+        }
+
+        PrimitiveType.PrimitiveTypeName physicalType() {
+            return type.getPrimitiveTypeName();
+        }
+    }
+
+    record And(List<BoundFilter> terms) implements BoundFilter {
+        @Override
+        public FilterPredicate predicate() {
+            // Dropping a conjunct that cannot be pushed down only makes pruning less selective.
+            FilterPredicate out = null;
+            for (BoundFilter term : terms) {
+                FilterPredicate predicate = term.predicate();
+                if (predicate != null) {
+                    out = out == null ? predicate : FilterApi.and(out, predicate);
+                }
+            }
+            return out;
+        }
+
+        @Override
+        public BatchPredicate kernel(ToIntFunction<String> columnIndex) {
+            return new BatchPredicate.AllOf(terms.stream().map(t -> t.kernel(columnIndex)).toArray(BatchPredicate[]::new));
+        }
+
+        @Override
+        public void collectColumns(Set<String> out) {
+            terms.forEach(t -> t.collectColumns(out));
+        }
+    }
+
+    record Or(List<BoundFilter> terms) implements BoundFilter {
+        @Override
+        public FilterPredicate predicate() {
+            FilterPredicate out = null;
+            for (BoundFilter term : terms) {
+                FilterPredicate predicate = term.predicate();
+                if (predicate == null) {
+                    return null;
+                }
+                out = out == null ? predicate : FilterApi.or(out, predicate);
+            }
+            return out;
+        }
+
+        @Override
+        public BatchPredicate kernel(ToIntFunction<String> columnIndex) {
+            return new BatchPredicate.AnyOf(terms.stream().map(t -> t.kernel(columnIndex)).toArray(BatchPredicate[]::new));
+        }
+
+        @Override
+        public void collectColumns(Set<String> out) {
+            terms.forEach(t -> t.collectColumns(out));
+        }
+    }
+
+    record IsNull(Column column, boolean negated) implements BoundFilter {
+        @Override
+        public FilterPredicate predicate() {
+            String name = column.physical();
+            return switch (column.physicalType()) {
+                case INT64 -> nullCheck(FilterApi.longColumn(name), negated);
+                case INT32 -> nullCheck(FilterApi.intColumn(name), negated);
+                case DOUBLE -> nullCheck(FilterApi.doubleColumn(name), negated);
+                case FLOAT -> nullCheck(FilterApi.floatColumn(name), negated);
+                case BOOLEAN -> nullCheck(FilterApi.booleanColumn(name), negated);
+                case BINARY, FIXED_LEN_BYTE_ARRAY -> nullCheck(FilterApi.binaryColumn(name), negated);
+                default -> null;
+            };
+        }
+
+        @Override
+        public BatchPredicate kernel(ToIntFunction<String> columnIndex) {
+            return new BatchPredicate.NullTest(columnIndex.applyAsInt(column.logical()), negated);
+        }
+
+        @Override
+        public void collectColumns(Set<String> out) {
+            out.add(column.logical());
+        }
+
+        private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsEqNotEq>
+        FilterPredicate nullCheck(C column, boolean negated) {
+            return negated ? FilterApi.notEq(column, null) : FilterApi.eq(column, null);
+        }
+    }
+
+    /**
+     * {@code lower <(=) column <(=) upper}; a {@code null} bound is unbounded. Covers {@code =}, {@code <},
+     * {@code <=}, {@code >}, {@code >=} and {@code BETWEEN}.
+     */
+    record Range(Column column,
+                 Comparable<?> lower,
+                 boolean lowerInclusive,
+                 Comparable<?> upper,
+                 boolean upperInclusive) implements BoundFilter {
+
+        @Override
+        public FilterPredicate predicate() {
+            String name = column.physical();
+            return switch (column.physicalType()) {
+                case INT64 -> range(FilterApi.longColumn(name), (Long) lower, lowerInclusive, (Long) upper, upperInclusive);
+                case INT32 -> range(FilterApi.intColumn(name), (Integer) lower, lowerInclusive, (Integer) upper, upperInclusive);
+                case DOUBLE -> range(FilterApi.doubleColumn(name), (Double) lower, lowerInclusive, (Double) upper, upperInclusive);
+                case FLOAT -> range(FilterApi.floatColumn(name), (Float) lower, lowerInclusive, (Float) upper, upperInclusive);
+                case BINARY, FIXED_LEN_BYTE_ARRAY ->
+                        range(FilterApi.binaryColumn(name), (Binary) lower, lowerInclusive, (Binary) upper, upperInclusive);
+                case BOOLEAN -> lower != null && lower.equals(upper)
+                        ? FilterApi.eq(FilterApi.booleanColumn(name), (Boolean) lower) : null;
+                default -> null;
+            };
+        }
+
+        private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt>
+        FilterPredicate range(C column, T lower, boolean lowerInclusive, T upper, boolean upperInclusive) {
+            if (lower != null && lower.equals(upper) && lowerInclusive && upperInclusive) {
+                return FilterApi.eq(column, lower);
+            }
+            FilterPredicate low = lower == null ? null
+                    : lowerInclusive ? FilterApi.gtEq(column, lower) : FilterApi.gt(column, lower);
+            FilterPredicate high = upper == null ? null
+                    : upperInclusive ? FilterApi.ltEq(column, upper) : FilterApi.lt(column, upper);
+            if (low == null) {
+                return high;
+            }
+            return high == null ? low : FilterApi.and(low, high);
+        }
+
+        @Override
+        public BatchPredicate kernel(ToIntFunction<String> columnIndex) {
+            int index = columnIndex.applyAsInt(column.logical());
+            return switch (column.physicalType()) {
+                case INT64 -> {
+                    long lo = lower == null ? Long.MIN_VALUE : (Long) lower;
+                    long hi = upper == null ? Long.MAX_VALUE : (Long) upper;
+                    if ((lower != null && !lowerInclusive && lo == Long.MAX_VALUE)
+                            || (upper != null && !upperInclusive && hi == Long.MIN_VALUE)) {
+                        yield new BatchPredicate.Constant(false);
+                    }
+                    yield new BatchPredicate.LongRange(index,
+                            lower != null && !lowerInclusive ? lo + 1 : lo,
+                            upper != null && !upperInclusive ? hi - 1 : hi);
+                }
+                case INT32, BOOLEAN -> {
+                    long lo = lower == null ? Integer.MIN_VALUE : intValue(lower);
+                    long hi = upper == null ? Integer.MAX_VALUE : intValue(upper);
+                    lo = lower != null && !lowerInclusive ? lo + 1 : lo;
+                    hi = upper != null && !upperInclusive ? hi - 1 : hi;
+                    if (lo > Integer.MAX_VALUE || hi < Integer.MIN_VALUE) {
+                        yield new BatchPredicate.Constant(false);
+                    }
+                    yield new BatchPredicate.IntRange(index, (int) lo, (int) hi);
+                }
+                case DOUBLE, FLOAT -> {
+                    double lo = lower == null ? Double.NEGATIVE_INFINITY : ((Number) lower).doubleValue();
+                    double hi = upper == null ? Double.POSITIVE_INFINITY : ((Number) upper).doubleValue();
+                    yield new BatchPredicate.DoubleRange(index,
+                            lower != null && !lowerInclusive ? Math.nextUp(lo) : lo,
+                            upper != null && !upperInclusive ? Math.nextDown(hi) : hi);
+                }
+                default -> {
+                    byte[] lo = lower == null ? null : ((Binary) lower).getBytes();
+                    byte[] hi = upper == null ? null : ((Binary) upper).getBytes();
+                    boolean loInclusive = lowerInclusive;
+                    boolean hiInclusive = upperInclusive;
+                    yield new BatchPredicate.BinaryTest(index, (bytes, from, to) -> {
+                        if (lo != null) {
+                            int c = Arrays.compareUnsigned(bytes, from, to, lo, 0, lo.length);
+                            if (c < 0 || (c == 0 && !loInclusive)) {
+                                return false;
+                            }
+                        }
+                        if (hi != null) {
+                            int c = Arrays.compareUnsigned(bytes, from, to, hi, 0, hi.length);
+                            return c < 0 || (c == 0 && hiInclusive);
+                        }
+                        return true;
+                    });
+                }
+            };
+        }
+
+        private static int intValue(Comparable<?> value) {
+            return value instanceof Boolean b ? (b ? 1 : 0) : (Integer) value;
+        }
+
+        @Override
+        public void collectColumns(Set<String> out) {
+            out.add(column.logical());
+        }
+    }
+
+    /** {@code IN (...)}; {@code negated} covers {@code NOT IN} and single-value {@code <>}. */
+    record In(Column column, List<Comparable<?>> values, boolean negated) implements BoundFilter {
+        @Override
+        public FilterPredicate predicate() {
+            String name = column.physical();
+            return switch (column.physicalType()) {
+                case INT64 -> in(FilterApi.longColumn(name), values, Long.class, negated);
+                case INT32 -> in(FilterApi.intColumn(name), values, Integer.class, negated);
+                case DOUBLE -> in(FilterApi.doubleColumn(name), values, Double.class, negated);
+                case FLOAT -> in(FilterApi.floatColumn(name), values, Float.class, negated);
+                case BOOLEAN -> in(FilterApi.booleanColumn(name), values, Boolean.class, negated);
+                case BINARY, FIXED_LEN_BYTE_ARRAY -> in(FilterApi.binaryColumn(name), values, Binary.class, negated);
+                default -> null;
+            };
+        }
+
+        private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsEqNotEq>
+        FilterPredicate in(C column, List<Comparable<?>> values, Class<T> type, boolean negated) {
+            Set<T> set = new HashSet<>();
+            for (Comparable<?> value : values) {
+                set.add(type.cast(value));
+            }
+            if (set.size() == 1) {
+                T single = set.iterator().next();
+                return negated ? FilterApi.notEq(column, single) : FilterApi.eq(column, single);
+            }
+            return negated ? FilterApi.notIn(column, set) : FilterApi.in(column, set);
+        }
+
+        @Override
+        public BatchPredicate kernel(ToIntFunction<String> columnIndex) {
+            int index = columnIndex.applyAsInt(column.logical());
+            return switch (column.physicalType()) {
+                case INT64 -> {
+                    LongOpenHashSet set = new LongOpenHashSet();
+                    values.forEach(v -> set.add((long) (Long) v));
+                    yield new BatchPredicate.LongSet(index, set, negated);
+                }
+                case INT32, BOOLEAN -> {
+                    IntOpenHashSet set = new IntOpenHashSet();
+                    values.forEach(v -> set.add(Range.intValue(v)));
+                    yield new BatchPredicate.IntSet(index, set, negated);
+                }
+                case DOUBLE, FLOAT -> {
+                    DoubleOpenHashSet set = new DoubleOpenHashSet();
+                    values.forEach(v -> set.add(((Number) v).doubleValue()));
+                    yield new BatchPredicate.DoubleSet(index, set, negated);
+                }
+                default -> {
+                    List<byte[]> candidates = new ArrayList<>(values.size());
+                    values.forEach(v -> candidates.add(((Binary) v).getBytes()));
+                    yield new BatchPredicate.BinaryTest(index, (bytes, from, to) -> {
+                        for (byte[] candidate : candidates) {
+                            if (Arrays.equals(bytes, from, to, candidate, 0, candidate.length)) {
+                                return !negated;
+                            }
+                        }
+                        return negated;
+                    });
+                }
+            };
+        }
+
+        @Override
+        public void collectColumns(Set<String> out) {
+            out.add(column.logical());
+        }
+    }
+}
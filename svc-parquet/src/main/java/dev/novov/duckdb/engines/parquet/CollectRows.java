@@ -0,0 +1,62 @@
+package dev.novov.duckdb.engines.parquet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * {@code SELECT columns ... WHERE filter}: keeps every matching row, with values as strings like the rows of
+ * {@link TopN}. Meant for selective filters such as point lookups, where the result is small.
+ */
+final class CollectRows implements SinkFactory<CollectRows.State> {
+    private final List<String> columns;
+
+    CollectRows(List<String> columns) {
+        this.columns = List.copyOf(columns);
+    }
+
+    @Override
+    public List<String> columns() {
+        return columns;
+    }
+
+    @Override
+    public State newSink(ToIntFunction<String> columnIndex) {
+        return new State(columns.stream().mapToInt(columnIndex).toArray());
+    }
+
+    @Override
+    public long finish(State result, ExecutionContext context) {
+        return result.rows.size();
+    }
+
+    static final class State implements Sink<State> {
+        private final int[] indexes;
+        private final List<String[]> rows = new ArrayList<>();
+
+        private State(int[] indexes) {
+            this.indexes = indexes;
+        }
+
+        @Override
+        public void push(RowBatch batch, boolean[] alive) {
+            int n = batch.size();
+            for (int row = 0; row < n; row++) {
+                if (!alive[row]) {
+                    continue;
+                }
+                String[] values = new String[indexes.length];
+                for (int c = 0; c < indexes.length; c++) {
+                    values[c] = batch.column(indexes[c]).getString(row);
+                }
+                rows.add(values);
+            }
+        }
+
+        @Override
+        public State merge(State other) {
+            rows.addAll(other.rows);
+            return this;
+        }
+    }
+}
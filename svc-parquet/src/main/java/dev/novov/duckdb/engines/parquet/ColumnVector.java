@@ -0,0 +1,177 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reusable primitive buffer for one projected column of a {@link RowBatch}.
+ * <p>
+ * Only the array matching the physical type is allocated: {@code longs} for INT64, {@code ints} for INT32/BOOLEAN,
+ * {@code doubles} for DOUBLE/FLOAT and, for binary-like columns, {@code dictIds} into the current row group
+ * dictionary with a byte arena fallback for plain-encoded pages. Fields are package-private so hot loops can
+ * index the arrays directly.
+ */
+final class ColumnVector {
+    final String name;
+    final PrimitiveType.PrimitiveTypeName type;
+    final LogicalTypeAnnotation logicalType;
+
+    final boolean[] nulls;
+    final long[] longs;
+    final int[] ints;
+    final double[] doubles;
+
+    /** Dictionary id per row for binary columns, or {@code -1} when the value lives in the byte arena. */
+    final int[] dictIds;
+    final int[] offsets;
+    final int[] lengths;
+    byte[] bytes;
+    int bytesUsed;
+    /** Rows of the batch whose value went to the byte arena; 0 when every non-null value is a dictionary id. */
+    int plainValues;
+
+    /** Binary dictionary of the current row group, {@code null} until a dictionary-encoded chunk is read. */
+    byte[][] dictionary;
+    /** Incremented every time {@link #dictionary} is replaced, so callers can cache per-dictionary work. */
+    int dictionaryVersion;
+
+    boolean hasNulls;
+
+    ColumnVector(String name, PrimitiveType primitiveType, int capacity) {
+        this.name = name;
+        this.type = primitiveType.getPrimitiveTypeName();
+        this.logicalType = primitiveType.getLogicalTypeAnnotation();
+        this.nulls = new boolean[capacity];
+        this.longs = type == PrimitiveType.PrimitiveTypeName.INT64 ? new long[capacity] : null;
+        this.ints = type == PrimitiveType.PrimitiveTypeName.INT32 || type == PrimitiveType.PrimitiveTypeName.BOOLEAN
+                ? new int[capacity] : null;
+        this.doubles = type == PrimitiveType.PrimitiveTypeName.DOUBLE || type == PrimitiveType.PrimitiveTypeName.FLOAT
+                ? new double[capacity] : null;
+        boolean binary = isBinary();
+        this.dictIds = binary ? new int[capacity] : null;
+        this.offsets = binary ? new int[capacity] : null;
+        this.lengths = binary ? new int[capacity] : null;
+        this.bytes = binary ? new byte[capacity * 16] : null;
+    }
+
+    boolean isBinary() {
+        return type == PrimitiveType.PrimitiveTypeName.BINARY
+                || type == PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY
+                || type == PrimitiveType.PrimitiveTypeName.INT96;
+    }
+
+    void reset() {
+        hasNulls = false;
+        bytesUsed = 0;
+        plainValues = 0;
+    }
+
+    void setNull(int row) {
+        nulls[row] = true;
+        hasNulls = true;
+    }
+
+    void setDictionary(Dictionary source) {
+        byte[][] values = new byte[source.getMaxId() + 1][];
+        for (int id = 0; id < values.length; id++) {
+            values[id] = source.decodeToBinary(id).getBytes();
+        }
+        dictionary = values;
+        dictionaryVersion++;
+    }
+
+    void appendBytes(int row, Binary value) {
+        appendBytes(row, value.getBytesUnsafe(), 0, value.length());
+    }
+
+    void appendBytes(int row, byte[] source, int offset, int length) {
+        ensureBytes(length);
+        System.arraycopy(source, offset, bytes, bytesUsed, length);
+        appended(row, length);
+    }
+
+    /** Copies {@code length} bytes at absolute {@code offset} of {@code source}, without moving its position. */
+    void appendBytes(int row, ByteBuffer source, int offset, int length) {
+        ensureBytes(length);
+        source.get(offset, bytes, bytesUsed, length);
+        appended(row, length);
+    }
+
+    private void appended(int row, int length) {
+        dictIds[row] = -1;
+        offsets[row] = bytesUsed;
+        lengths[row] = length;
+        bytesUsed += length;
+        plainValues++;
+    }
+
+    private void ensureBytes(int extra) {
+        if (bytesUsed + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, bytesUsed + extra));
+        }
+    }
+
+    boolean isNull(int row) {
+        return nulls[row];
+    }
+
+    /**
+     * Numeric view of the value; {@code NaN} for nulls, like the old {@code ParquetScanner.getDouble}. A NaN can
+     * also be a stored value, so aggregates check {@link #nulls} rather than the result.
+     */
+    double getDouble(int row) {
+        if (nulls[row]) {
+            return Double.NaN;
+        }
+        return switch (type) {
+            case DOUBLE, FLOAT -> doubles[row];
+            case INT64 -> longs[row];
+            case INT32, BOOLEAN -> ints[row];
+            default -> Double.parseDouble(getString(row));
+        };
+    }
+
+    /** UTF-8 view of the value; {@code null} for nulls. */
+    String getString(int row) {
+        if (nulls[row]) {
+            return null;
+        }
+        return switch (type) {
+            case INT64 -> Long.toString(longs[row]);
+            case INT32 -> Integer.toString(ints[row]);
+            case BOOLEAN -> Boolean.toString(ints[row] != 0);
+            case DOUBLE, FLOAT -> Double.toString(doubles[row]);
+            default -> {
+                int id = dictIds[row];
+                if (id >= 0) {
+                    yield new String(dictionary[id], StandardCharsets.UTF_8);
+                }
+                yield new String(bytes, offsets[row], lengths[row], StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    /** Group key rendering compatible with {@code Group.getValueToString}: nulls become {@code "NULL"}. */
+    String getKey(int row) {
+        String value = getString(row);
+        return value == null ? "NULL" : value;
+    }
+
+    /** Byte-wise comparison of a binary value against {@code expected} without materializing a String. */
+    boolean bytesEqual(int row, byte[] expected) {
+        if (nulls[row]) {
+            return false;
+        }
+        int id = dictIds[row];
+        if (id >= 0) {
+            return Arrays.equals(dictionary[id], expected);
+        }
+        return Arrays.equals(bytes, offsets[row], offsets[row] + lengths[row], expected, 0, expected.length);
+    }
+}
@@ -0,0 +1,68 @@
+package dev.novov.duckdb.engines.parquet;
+
+import dev.novov.duckdb.engines.parquet.kernels.Kernels;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+/**
+ * {@code SELECT count(*) ... WHERE filter}. Row groups the filter covers entirely or not at all are counted from
+ * footer statistics, see {@link StatisticsEvaluator}.
+ */
+final class CountRows implements SinkFactory<CountRows.State> {
+    private final BoundFilter where;
+
+    /** {@code where} is the plan's filter; ungrouped {@code COUNT(*)} without one is an {@link UngroupedAggregate}. */
+    CountRows(BoundFilter where) {
+        this.where = Objects.requireNonNull(where, "where");
+    }
+
+    @Override
+    public List<String> columns() {
+        return List.of();
+    }
+
+    @Override
+    public State newSink(ToIntFunction<String> columnIndex) {
+        return new State(where);
+    }
+
+    @Override
+    public boolean answerable(BlockMetaData block) {
+        return StatisticsEvaluator.evaluate(where, block) != StatisticsEvaluator.Coverage.SOME;
+    }
+
+    @Override
+    public long finish(State result, ExecutionContext context) {
+        return result.matched;
+    }
+
+    static final class State implements Sink<State> {
+        private final BoundFilter where;
+        long matched;
+
+        private State(BoundFilter where) {
+            this.where = where;
+        }
+
+        @Override
+        public void push(RowBatch batch, boolean[] alive) {
+            matched += Kernels.count(alive, batch.size());
+        }
+
+        @Override
+        public void absorb(BlockMetaData block) {
+            if (StatisticsEvaluator.evaluate(where, block) == StatisticsEvaluator.Coverage.ALL) {
+                matched += block.getRowCount();
+            }
+        }
+
+        @Override
+        public State merge(State other) {
+            matched += other.matched;
+            return this;
+        }
+    }
+}
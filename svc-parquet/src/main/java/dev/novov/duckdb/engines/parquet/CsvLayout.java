@@ -0,0 +1,103 @@
+package dev.novov.duckdb.engines.parquet;
+
+import dev.novov.duckdb.bench.ppd.ColumnsPPD;
+import dev.novov.duckdb.bench.util.Paths2;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The CSV files the parquet engine reads and writes: headerless pp-complete.csv, whose {@link ColumnsPPD#COLUMNS}
+ * are described by {@link #SCHEMA} as DuckDB's {@code COPY} writes them to Parquet (BIGINT as INT64, DATE as INT32
+ * with the DATE annotation, VARCHAR as STRING binary). Plans bind to a CSV file exactly as to its Parquet copy.
+ */
+final class CsvLayout {
+    static final MessageType SCHEMA = schema();
+
+    private CsvLayout() {
+    }
+
+    /** A run of whole lines, {@code start} inclusive and {@code end} exclusive. */
+    record Range(long start, long end) {
+    }
+
+    static boolean isCsv(String file) {
+        return Paths2.isCsv(file);
+    }
+
+    /** Local path of {@code file}, which has to be mapped. */
+    static Path localPath(String file) {
+        Path path = ParquetIo.MAPPED.mappablePath(file);
+        if (path == null) {
+            throw new IllegalArgumentException("CSV files are read from local disk only: " + file);
+        }
+        return path;
+    }
+
+    /**
+     * Splits the file of {@code channel} at line starts into about {@code count} ranges of similar size, more if
+     * needed so that no range exceeds a {@value MappedInputFile#CHUNK_SIZE}-byte mapping.
+     */
+    static List<Range> split(FileChannel channel, int count) throws IOException {
+        long size = channel.size();
+        int ranges = (int) Math.max(count, (size + MappedInputFile.CHUNK_SIZE - 1) / MappedInputFile.CHUNK_SIZE);
+        List<Range> result = new ArrayList<>(ranges);
+        long start = 0L;
+        for (int i = 1; i <= ranges && start < size; i++) {
+            long end = i == ranges ? size : nextLine(channel, Math.max(start, size / ranges * i), size);
+            if (end > start) {
+                result.add(new Range(start, end));
+            }
+            start = end;
+        }
+        return result;
+    }
+
+    static ByteBuffer map(FileChannel channel, Range range) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, range.start(), range.end() - range.start());
+    }
+
+    /** Offset just past the first line break at or after {@code offset}, or {@code size} if there is none. */
+    private static long nextLine(FileChannel channel, long offset, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long position = offset;
+        while (position < size) {
+            int read = channel.read(buffer.clear(), position);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static MessageType schema() {
+        Types.MessageTypeBuilder builder = Types.buildMessage();
+        for (ColumnsPPD.Column column : ColumnsPPD.COLUMNS) {
+            switch (column.sqlType()) {
+                case "BIGINT" -> builder.optional(PrimitiveTypeName.INT64)
+                        .as(LogicalTypeAnnotation.intType(64, true)).named(column.name());
+                case "DATE" -> builder.optional(PrimitiveTypeName.INT32)
+                        .as(LogicalTypeAnnotation.dateType()).named(column.name());
+                case "VARCHAR" -> builder.optional(PrimitiveTypeName.BINARY)
+                        .as(LogicalTypeAnnotation.stringType()).named(column.name());
+                default -> throw new IllegalArgumentException("Unsupported CSV column type " + column.sqlType()
+                        + " of " + column.name());
+            }
+        }
+        return builder.named("ppd");
+    }
+}
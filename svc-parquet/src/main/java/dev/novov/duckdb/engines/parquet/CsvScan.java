@@ -0,0 +1,122 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Range-parallel scan of a {@link CsvLayout} file: the file is split at line starts into byte ranges and each worker
+ * of the {@link ExecutionContext} pool pulls ranges from a shared queue, mapping and scanning them with its own
+ * {@link CsvScanner}. There are no statistics to prune with, so every line is tokenized; late materialization still
+ * saves decoding the non-filter columns of rows the filter drops.
+ */
+final class CsvScan implements TableScan {
+    /** Ranges per worker, as for {@link ParallelScan}. */
+    private static final int RANGES_PER_WORKER = 4;
+
+    private final Path file;
+    private final List<String> columns;
+    private final ExecutionContext context;
+    private final CsvScanner probe;
+    private BoundFilter lateFilter;
+
+    private CsvScan(Path file, List<String> columns, ExecutionContext context, CsvScanner probe) {
+        this.file = file;
+        this.columns = columns;
+        this.context = context;
+        this.probe = probe;
+    }
+
+    static CsvScan plan(String file, List<String> columns, ExecutionContext context) {
+        Path path = CsvLayout.localPath(file);
+        return new CsvScan(path, columns, context, new CsvScanner(path, columns));
+    }
+
+    @Override
+    public List<BlockMetaData> rowGroups() {
+        return List.of();
+    }
+
+    @Override
+    public int columnIndex(String logicalColumn) {
+        return probe.columnIndex(logicalColumn);
+    }
+
+    @Override
+    public PrimitiveType.PrimitiveTypeName columnType(int index) {
+        return probe.columnType(index);
+    }
+
+    @Override
+    public CsvScan materializeLate(BoundFilter filter) {
+        this.lateFilter = filter;
+        return this;
+    }
+
+    /** Runs on the calling thread, in file order, when the pool has one worker or a row limit is set. */
+    @Override
+    public <S> S run(Supplier<S> newState, BatchAccumulator<S> accumulator, BinaryOperator<S> merge)
+            throws IOException {
+        long limit = context.config().limitRowsOrMinusOne();
+        boolean sequential = context.parallelism() <= 1 || limit > 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<CsvLayout.Range> ranges = CsvLayout.split(channel,
+                    sequential ? 1 : context.parallelism() * RANGES_PER_WORKER);
+            if (sequential || ranges.size() <= 1) {
+                CsvScanner scanner = prepare(probe);
+                S state = newState.get();
+                long remaining = limit > 0 ? limit : Long.MAX_VALUE;
+                long rows = 0L;
+                for (int r = 0; r < ranges.size() && rows < remaining; r++) {
+                    CsvLayout.Range range = ranges.get(r);
+                    rows += scanner.scan(CsvLayout.map(channel, range), range.start(),
+                            batch -> accumulator.accept(state, batch), remaining - rows);
+                }
+                context.metrics().rows(rows, 0L);
+                return state;
+            }
+
+            ConcurrentLinkedQueue<CsvLayout.Range> queue = new ConcurrentLinkedQueue<>(ranges);
+            int workers = Math.min(context.parallelism(), ranges.size());
+            List<Future<S>> futures = new ArrayList<>(workers);
+            for (int w = 0; w < workers; w++) {
+                futures.add(context.workers().submit(() -> {
+                    S state = newState.get();
+                    CsvScanner scanner = prepare(new CsvScanner(file, columns));
+                    long rows = 0L;
+                    CsvLayout.Range range;
+                    while ((range = queue.poll()) != null) {
+                        rows += scanner.scan(CsvLayout.map(channel, range), range.start(),
+                                batch -> accumulator.accept(state, batch), Long.MAX_VALUE);
+                    }
+                    context.metrics().rows(rows, 0L);
+                    return state;
+                }));
+            }
+
+            S result = null;
+            for (Future<S> future : futures) {
+                S state = ParallelScan.await(future);
+                result = result == null ? state : merge.apply(result, state);
+            }
+            return result;
+        }
+    }
+
+    private CsvScanner prepare(CsvScanner scanner) {
+        if (lateFilter != null) {
+            scanner.filterFirst(lateFilter.kernel(scanner::columnIndex), lateFilter.columns());
+        }
+        return scanner;
+    }
+}
@@ -0,0 +1,146 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar reader of {@link CsvLayout} files: lines of a mapped range are tokenized a batch at a time, and only the
+ * projected fields are decoded into reusable {@link ColumnVector}s, so batches look exactly like those of a
+ * {@link ParquetScanner} over the file's Parquet copy. With {@link #filterFirst} the filter columns are decoded
+ * first and the other columns only at the rows the filter selects. Not thread-safe; one instance per worker.
+ */
+final class CsvScanner {
+    private final Map<String, Integer> columnIndexes = new LinkedHashMap<>();
+    private final CsvTokenizer tokenizer;
+    private final RowBatch batch;
+    private final boolean[] selection = new boolean[RowBatch.DEFAULT_CAPACITY];
+    private BatchPredicate filter;
+    /** Per projected column: decoded before the filter is evaluated. */
+    private boolean[] filterColumn;
+
+    CsvScanner(Path file, List<String> columns) {
+        MessageType schema = CsvLayout.SCHEMA;
+        int[] slots = new int[schema.getFieldCount()];
+        Arrays.fill(slots, -1);
+        List<ColumnVector> vectors = new ArrayList<>();
+        for (String logical : columns) {
+            PrimitiveType type = ParquetScanner.resolveColumn(schema, logical);
+            int field = schema.getFieldIndex(type.getName());
+            if (slots[field] < 0) {
+                slots[field] = vectors.size();
+                vectors.add(new ColumnVector(type.getName(), type, RowBatch.DEFAULT_CAPACITY));
+            }
+            columnIndexes.put(logical, slots[field]);
+        }
+        this.tokenizer = new CsvTokenizer(file, slots, RowBatch.DEFAULT_CAPACITY);
+        this.batch = new RowBatch(vectors.toArray(ColumnVector[]::new), RowBatch.DEFAULT_CAPACITY);
+    }
+
+    /** Position of the vector holding {@code logicalColumn} in every {@link RowBatch} produced by this scanner. */
+    int columnIndex(String logicalColumn) {
+        Integer index = columnIndexes.get(logicalColumn);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown column mapping for " + logicalColumn);
+        }
+        return index;
+    }
+
+    PrimitiveType.PrimitiveTypeName columnType(int index) {
+        return batch.column(index).type;
+    }
+
+    /** Same contract as {@link ParquetScanner#filterFirst}. */
+    void filterFirst(BatchPredicate filter, Collection<String> filterColumns) {
+        boolean[] eager = new boolean[batch.columnCount()];
+        for (String column : filterColumns) {
+            eager[columnIndex(column)] = true;
+        }
+        this.filter = filter;
+        this.filterColumn = eager;
+    }
+
+    /**
+     * Scans the lines of {@code in}, which starts at byte {@code base} of the file, stopping after {@code limit}
+     * rows; returns the number of rows read.
+     */
+    long scan(ByteBuffer in, long base, ParquetScanner.BatchConsumer consumer, long limit) throws IOException {
+        tokenizer.reset(in, base);
+        int position = 0;
+        long rows = 0L;
+        while (position < in.limit() && rows < limit) {
+            int capacity = (int) Math.min(batch.capacity(), limit - rows);
+            int n = 0;
+            while (n < capacity && position < in.limit()) {
+                position = tokenizer.line(position, n);
+                if (!tokenizer.blank()) {
+                    n++;
+                }
+            }
+            if (n > 0) {
+                decode(consumer, n);
+                rows += n;
+            }
+        }
+        return rows;
+    }
+
+    private void decode(ParquetScanner.BatchConsumer consumer, int n) throws IOException {
+        batch.size = n;
+        if (filter == null) {
+            for (int c = 0; c < batch.columnCount(); c++) {
+                fill(c, n, null);
+            }
+            batch.selection = null;
+            consumer.accept(batch);
+            return;
+        }
+        for (int c = 0; c < batch.columnCount(); c++) {
+            if (filterColumn[c]) {
+                fill(c, n, null);
+            }
+        }
+        filter.evaluate(batch, selection);
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            count += selection[i] ? 1 : 0;
+        }
+        if (count == 0) {
+            return;
+        }
+        for (int c = 0; c < batch.columnCount(); c++) {
+            if (!filterColumn[c]) {
+                fill(c, n, count == n ? null : selection);
+            }
+        }
+        batch.selection = selection;
+        consumer.accept(batch);
+    }
+
+    /** Decodes column {@code c} of rows {@code [0, n)}; rows not in {@code selected}, if given, read as null. */
+    private void fill(int c, int n, boolean[] selected) {
+        ColumnVector vector = batch.column(c);
+        vector.reset();
+        for (int row = 0; row < n; row++) {
+            if ((selected != null && !selected[row]) || tokenizer.isNull(c, row)) {
+                vector.setNull(row);
+                continue;
+            }
+            vector.nulls[row] = false;
+            switch (vector.type) {
+                case INT64 -> vector.longs[row] = tokenizer.int64(c, row);
+                case INT32 -> vector.ints[row] = tokenizer.date(c, row);
+                default -> tokenizer.appendTo(vector, c, row);
+            }
+        }
+    }
+}
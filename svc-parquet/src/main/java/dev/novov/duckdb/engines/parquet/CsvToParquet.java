@@ -0,0 +1,223 @@
+package dev.novov.duckdb.engines.parquet;
+
+import dev.novov.duckdb.bench.api.ParquetWriteOptions;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.SeekableInputStream;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Converts headerless pp-complete.csv to Parquet with the {@link CsvLayout#SCHEMA}, in place of DuckDB's
+ * {@code COPY}. The file is split at line starts into one {@link CsvLayout.Range} per thread. Every range is
+ * memory-mapped, tokenized and written by its own {@link ParquetWriter} to a part file, and the row groups of the
+ * parts are then copied into the target in range order, so the rows keep their CSV order.
+ */
+final class CsvToParquet {
+    private CsvToParquet() {
+    }
+
+    /** Converts {@code csv} to {@code target} and returns the number of rows written. */
+    static long convert(String csv, String target, int threads, ParquetWriteOptions options) throws IOException {
+        Path source = CsvLayout.localPath(csv);
+        Path out = Path.of(target).toAbsolutePath();
+        MessageType schema = CsvLayout.SCHEMA;
+        CompressionCodecName codec = CompressionCodecName.fromConf(options.codec());
+        int parallelism = Math.max(1, threads);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            List<CsvLayout.Range> ranges = CsvLayout.split(channel, parallelism);
+            List<Path> parts = new ArrayList<>(ranges.size());
+            try {
+                for (int i = 0; i < ranges.size(); i++) {
+                    parts.add(Files.createTempFile(out.getParent(), out.getFileName() + ".", ".part"));
+                }
+                long rows = 0L;
+                int pool = Math.max(1, Math.min(parallelism, ranges.size()));
+                try (ExecutorService workers = Executors.newFixedThreadPool(pool)) {
+                    List<Future<Long>> futures = new ArrayList<>(ranges.size());
+                    for (int i = 0; i < ranges.size(); i++) {
+                        CsvLayout.Range range = ranges.get(i);
+                        Path part = parts.get(i);
+                        futures.add(workers.submit(() -> writePart(source, channel, range, part, schema, codec,
+                                options)));
+                    }
+                    for (Future<Long> future : futures) {
+                        rows += ParallelScan.await(future);
+                    }
+                }
+                merge(parts, out, schema, options);
+                return rows;
+            } finally {
+                for (Path part : parts) {
+                    Files.deleteIfExists(part);
+                }
+            }
+        }
+    }
+
+    private static long writePart(Path source,
+                                  FileChannel channel,
+                                  CsvLayout.Range range,
+                                  Path part,
+                                  MessageType schema,
+                                  CompressionCodecName codec,
+                                  ParquetWriteOptions options) throws IOException {
+        ByteBuffer bytes = CsvLayout.map(channel, range);
+        int[] slots = new int[schema.getFieldCount()];
+        Arrays.setAll(slots, field -> field);
+        CsvTokenizer line = new CsvTokenizer(source, slots, 1);
+        line.reset(bytes, range.start());
+        long rows = 0L;
+        try (ParquetWriter<CsvTokenizer> writer = new Builder(new LocalOutputFile(part), schema)
+                .withConf(new PlainParquetConfiguration())
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withRowGroupSize(options.rowGroupBytes())
+                .withPageSize(options.pageBytes())
+                .withCompressionCodec(codec)
+                .withDictionaryEncoding(options.dictionary())
+                .build()) {
+            int position = 0;
+            while (position < bytes.limit()) {
+                position = line.line(position, 0);
+                if (!line.blank()) {
+                    writer.write(line);
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Copies the row groups of {@code parts} into {@code target} as they are, with their statistics, column and
+     * offset indexes and bloom filters; pages are neither decoded nor recompressed.
+     */
+    private static void merge(List<Path> parts, Path target, MessageType schema, ParquetWriteOptions options)
+            throws IOException {
+        try (ParquetFileWriter writer = new ParquetFileWriter(new LocalOutputFile(target), schema,
+                ParquetFileWriter.Mode.OVERWRITE, options.rowGroupBytes(), 0, null,
+                ParquetProperties.builder().withPageSize(options.pageBytes()).build())) {
+            writer.start();
+            for (Path part : parts) {
+                MappedInputFile input = MappedInputFile.open(part);
+                try (ParquetFileReader reader = ParquetFileReader.open(input, ParquetIo.MAPPED.options(input).build());
+                     SeekableInputStream stream = input.newStream()) {
+                    for (BlockMetaData block : reader.getFooter().getBlocks()) {
+                        writer.startBlock(block.getRowCount());
+                        for (ColumnChunkMetaData column : block.getColumns()) {
+                            writer.appendColumnChunk(schema.getColumnDescription(column.getPath().toArray()), stream,
+                                    column, reader.readBloomFilter(column), reader.readColumnIndex(column),
+                                    reader.readOffsetIndex(column));
+                        }
+                        writer.endBlock();
+                    }
+                }
+            }
+            writer.end(Map.of());
+        }
+    }
+
+    /** Writes the fields of the line a {@link CsvTokenizer} holds as row 0, without building a record. */
+    private static final class LineWriteSupport extends WriteSupport<CsvTokenizer> {
+        private final MessageType schema;
+        private RecordConsumer consumer;
+        private byte[] scratch = new byte[256];
+
+        private LineWriteSupport(MessageType schema) {
+            this.schema = schema;
+        }
+
+        /** Required by parquet-mr; writers built with a {@link ParquetConfiguration} call the overload below. */
+        @Deprecated
+        @Override
+        public WriteContext init(Configuration configuration) {
+            return new WriteContext(schema, Map.of());
+        }
+
+        @Override
+        public WriteContext init(ParquetConfiguration configuration) {
+            return new WriteContext(schema, Map.of());
+        }
+
+        @Override
+        public void prepareForWrite(RecordConsumer recordConsumer) {
+            this.consumer = recordConsumer;
+        }
+
+        @Override
+        public void write(CsvTokenizer line) {
+            consumer.startMessage();
+            for (int field = 0; field < schema.getFieldCount(); field++) {
+                if (line.isNull(field, 0)) {
+                    continue;
+                }
+                String name = schema.getFieldName(field);
+                consumer.startField(name, field);
+                switch (schema.getType(field).asPrimitiveType().getPrimitiveTypeName()) {
+                    case INT64 -> consumer.addLong(line.int64(field, 0));
+                    case INT32 -> consumer.addInteger(line.date(field, 0));
+                    default -> {
+                        if (scratch.length < line.length(field, 0)) {
+                            scratch = new byte[Math.max(scratch.length * 2, line.length(field, 0))];
+                        }
+                        consumer.addBinary(Binary.fromReusedByteArray(scratch, 0, line.copy(field, 0, scratch)));
+                    }
+                }
+                consumer.endField(name, field);
+            }
+            consumer.endMessage();
+        }
+    }
+
+    private static final class Builder extends ParquetWriter.Builder<CsvTokenizer, Builder> {
+        private final MessageType schema;
+
+        private Builder(OutputFile file, MessageType schema) {
+            super(file);
+            this.schema = schema;
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        /** Required by parquet-mr; {@link #build} goes through the {@link ParquetConfiguration} overload below. */
+        @Deprecated
+        @Override
+        protected WriteSupport<CsvTokenizer> getWriteSupport(Configuration conf) {
+            return new LineWriteSupport(schema);
+        }
+
+        @Override
+        protected WriteSupport<CsvTokenizer> getWriteSupport(ParquetConfiguration conf) {
+            return new LineWriteSupport(schema);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package dev.novov.duckdb.engines.parquet;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Splits lines of a mapped {@link CsvLayout} file into fields without copying them. For the fields it was asked for,
+ * each in a slot, {@link #line} records where the value of a row starts and how long it is; other fields are only
+ * stepped over. Values are decoded from the buffer on demand, so a caller may decode some slots for every row and
+ * others only where a filter matched.
+ * <p>
+ * Fields are quoted as in RFC 4180 but may not contain line breaks. Empty fields, quoted or not, are null, as DuckDB
+ * reads them.
+ */
+final class CsvTokenizer {
+    private final Path file;
+    private final int fields;
+    /** Slot per field of a line, {@code -1} for fields that are skipped. */
+    private final int[] slots;
+    private final int[][] starts;
+    private final int[][] lengths;
+    /** Per slot and row: the value contains doubled quotes, so it cannot be copied as it is. */
+    private final boolean[][] escaped;
+    private byte[] scratch = new byte[256];
+    private ByteBuffer in;
+    private long base;
+    private long lineOffset;
+    private boolean blank;
+
+    /** {@code slots} maps the fields of a line to slots, {@code -1} for fields nobody reads. */
+    CsvTokenizer(Path file, int[] slots, int rows) {
+        this.file = file;
+        this.fields = slots.length;
+        this.slots = slots;
+        int count = Arrays.stream(slots).max().orElse(-1) + 1;
+        this.starts = new int[count][rows];
+        this.lengths = new int[count][rows];
+        this.escaped = new boolean[count][rows];
+    }
+
+    /** Tokenizes lines of {@code in}, whose position 0 is at {@code base} in the file. */
+    void reset(ByteBuffer in, long base) {
+        this.in = in;
+        this.base = base;
+    }
+
+    /**
+     * Records the fields of the line at {@code position} as {@code row} and returns the position of the next line.
+     * A line without any bytes is {@link #blank} and records nothing.
+     */
+    int line(int position, int row) {
+        int limit = in.limit();
+        int p = position;
+        lineOffset = base + position;
+        byte first = in.get(p);
+        blank = first == '\n' || first == '\r';
+        if (blank) {
+            return skipLineBreak(p);
+        }
+        for (int field = 0; ; field++) {
+            int start;
+            int end;
+            boolean doubled = false;
+            if (p < limit && in.get(p) == '"') {
+                start = ++p;
+                while (true) {
+                    if (p >= limit) {
+                        throw malformed("unterminated quote");
+                    }
+                    if (in.get(p) != '"') {
+                        p++;
+                    } else if (p + 1 < limit && in.get(p + 1) == '"') {
+                        doubled = true;
+                        p += 2;
+                    } else {
+                        break;
+                    }
+                }
+                end = p++;
+            } else {
+                start = p;
+                while (p < limit) {
+                    byte b = in.get(p);
+                    if (b == ',' || b == '\n' || b == '\r') {
+                        break;
+                    }
+                    p++;
+                }
+                end = p;
+            }
+            int slot = slots[field];
+            if (slot >= 0) {
+                starts[slot][row] = start;
+                lengths[slot][row] = end - start;
+                escaped[slot][row] = doubled;
+            }
+            boolean last = field == fields - 1;
+            byte separator = p < limit ? in.get(p) : (byte) '\n';
+            if (separator == ',') {
+                if (last) {
+                    throw malformed("more than " + fields + " fields");
+                }
+                p++;
+                continue;
+            }
+            if (separator != '\n' && separator != '\r') {
+                throw malformed("unexpected '" + (char) separator + "' after a quoted field");
+            }
+            if (!last) {
+                throw malformed((field + 1) + " fields instead of " + fields);
+            }
+            return p < limit ? skipLineBreak(p) : p;
+        }
+    }
+
+    private int skipLineBreak(int p) {
+        byte b = in.get(p++);
+        if (b == '\r' && p < in.limit() && in.get(p) == '\n') {
+            p++;
+        }
+        return p;
+    }
+
+    /** {@code true} when the last line passed to {@link #line} had no bytes. */
+    boolean blank() {
+        return blank;
+    }
+
+    boolean isNull(int slot, int row) {
+        return lengths[slot][row] == 0;
+    }
+
+    long int64(int slot, int row) {
+        int p = starts[slot][row];
+        int end = p + lengths[slot][row];
+        boolean negative = in.get(p) == '-';
+        if (negative) {
+            p++;
+        }
+        if (p == end) {
+            throw malformed("'" + text(slot, row) + "' is not a number");
+        }
+        long value = 0L;
+        try {
+            for (; p < end; p++) {
+                int digit = in.get(p) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw malformed("'" + text(slot, row) + "' is not a number");
+                }
+                value = Math.addExact(Math.multiplyExact(value, 10), digit);
+            }
+        } catch (ArithmeticException ex) {
+            throw malformed("'" + text(slot, row) + "' is out of range");
+        }
+        return negative ? -value : value;
+    }
+
+    /** Days since the epoch of a {@code yyyy-MM-dd} value; a time of day after the date is ignored. */
+    int date(int slot, int row) {
+        int p = starts[slot][row];
+        if (lengths[slot][row] < 10 || in.get(p + 4) != '-' || in.get(p + 7) != '-') {
+            throw malformed("'" + text(slot, row) + "' is not a date");
+        }
+        try {
+            return (int) LocalDate.of(digits(slot, row, p, 4), digits(slot, row, p + 5, 2),
+                    digits(slot, row, p + 8, 2)).toEpochDay();
+        } catch (DateTimeException ex) {
+            throw malformed("'" + text(slot, row) + "' is not a date");
+        }
+    }
+
+    private int digits(int slot, int row, int p, int count) {
+        int value = 0;
+        for (int i = p; i < p + count; i++) {
+            int digit = in.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw malformed("'" + text(slot, row) + "' is not a date");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /** Appends the value, unquoted, to the byte arena of {@code vector} at {@code row}. */
+    void appendTo(ColumnVector vector, int slot, int row) {
+        if (!escaped[slot][row]) {
+            vector.appendBytes(row, in, starts[slot][row], lengths[slot][row]);
+            return;
+        }
+        if (scratch.length < lengths[slot][row]) {
+            scratch = new byte[Math.max(scratch.length * 2, lengths[slot][row])];
+        }
+        vector.appendBytes(row, scratch, 0, copy(slot, row, scratch));
+    }
+
+    /** Copies the value, unquoted, to the start of {@code target}, which must hold its raw length; returns that. */
+    int copy(int slot, int row, byte[] target) {
+        int start = starts[slot][row];
+        int length = lengths[slot][row];
+        if (!escaped[slot][row]) {
+            in.get(start, target, 0, length);
+            return length;
+        }
+        int n = 0;
+        for (int p = start; p < start + length; p++) {
+            byte b = in.get(p);
+            target[n++] = b;
+            if (b == '"') {
+                p++;
+            }
+        }
+        return n;
+    }
+
+    /** Raw length of the value, an upper bound of what {@link #copy} writes. */
+    int length(int slot, int row) {
+        return lengths[slot][row];
+    }
+
+    private String text(int slot, int row) {
+        byte[] value = new byte[lengths[slot][row]];
+        return new String(value, 0, copy(slot, row, value), StandardCharsets.UTF_8);
+    }
+
+    private IllegalArgumentException malformed(String reason) {
+        return new IllegalArgumentException("Malformed CSV line at byte " + lineOffset + " of " + file + ": "
+                + reason);
+    }
+}
@@ -0,0 +1,30 @@
+package dev.novov.duckdb.engines.parquet;
+
+import dev.novov.duckdb.bench.api.RunConfig;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Per-run state shared by the executors: the run configuration, the worker pool sized from
+ * {@link RunConfig#threads()}, how files are opened and rows assembled, the page cache ({@code null} unless
+ * {@link RunConfig#pageCacheBytes()} is set) and the pruning counters of the current execution.
+ */
+record ExecutionContext(RunConfig config,
+                        ExecutorService workers,
+                        int parallelism,
+                        ParquetIo io,
+                        Assembly assembly,
+                        PageCache pageCache,
+                        ScanMetrics metrics) {
+
+    /** Same configuration and pool with fresh counters, one per measured or warmup execution. */
+    ExecutionContext nextExecution() {
+        return new ExecutionContext(config, workers, parallelism, io, assembly, pageCache, new ScanMetrics());
+    }
+
+    /** Each worker's share of {@link RunConfig#memoryLimitBytes()}, {@code null} without a limit. */
+    MemoryBudget memoryBudget() {
+        long limit = config.memoryLimitBytes();
+        return limit > 0 ? new MemoryBudget(Math.max(1L, limit / parallelism), metrics) : null;
+    }
+}
@@ -0,0 +1,169 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Resolves the columns of a {@link FilterExpr} against a file schema and converts every literal to the physical
+ * representation of its column, e.g. {@code '2019-01-01'} becomes INT64 micros for a {@code TIMESTAMP(MICROS)}
+ * column or INT32 epoch days for a {@code DATE} column. Timestamps without zone are interpreted as UTC.
+ * <p>
+ * Non-integral numeric bounds on integer columns are rounded to the equivalent integral bound
+ * ({@code x > 2.5} becomes {@code x >= 3}).
+ */
+final class FilterBinder {
+    private static final DateTimeFormatter TIMESTAMP = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE)
+            .optionalStart()
+            .appendLiteral(' ')
+            .optionalEnd()
+            .optionalStart()
+            .appendLiteral('T')
+            .optionalEnd()
+            .optionalStart()
+            .append(DateTimeFormatter.ISO_LOCAL_TIME)
+            .optionalEnd()
+            .parseDefaulting(ChronoField.HOUR_OF_DAY, 0)
+            .toFormatter(Locale.ROOT);
+
+    private FilterBinder() {
+    }
+
+    static BoundFilter bind(FilterExpr expr, MessageType schema) {
+        return switch (expr) {
+            case FilterExpr.And and -> new BoundFilter.And(bindAll(and.terms(), schema));
+            case FilterExpr.Or or -> new BoundFilter.Or(bindAll(or.terms(), schema));
+            case FilterExpr.IsNull isNull -> new BoundFilter.IsNull(column(schema, isNull.column()), isNull.negated());
+            case FilterExpr.Comparison comparison -> bindComparison(comparison, column(schema, comparison.column()));
+            case FilterExpr.Between between -> bindBetween(between, column(schema, between.column()));
+            case FilterExpr.In in -> {
+                BoundFilter.Column column = column(schema, in.column());
+                List<Comparable<?>> values = new ArrayList<>(in.values().size());
+                for (FilterExpr.Literal literal : in.values()) {
+                    values.add(exact(column, literal));
+                }
+                yield new BoundFilter.In(column, values, in.negated());
+            }
+        };
+    }
+
+    private static List<BoundFilter> bindAll(List<FilterExpr> terms, MessageType schema) {
+        List<BoundFilter> out = new ArrayList<>(terms.size());
+        for (FilterExpr term : terms) {
+            out.add(bind(term, schema));
+        }
+        return out;
+    }
+
+    private static BoundFilter.Column column(MessageType schema, String logical) {
+        return new BoundFilter.Column(logical, ParquetScanner.resolveColumn(schema, logical));
+    }
+
+    private static BoundFilter bindComparison(FilterExpr.Comparison comparison, BoundFilter.Column column) {
+        FilterExpr.Literal literal = comparison.value();
+        return switch (comparison.op()) {
+            case EQ -> {
+                Comparable<?> value = exact(column, literal);
+                yield new BoundFilter.Range(column, value, true, value, true);
+            }
+            case NE -> new BoundFilter.In(column, List.of(exact(column, literal)), true);
+            case LT -> new BoundFilter.Range(column, null, false, bound(column, literal, RoundingMode.CEILING), false);
+            case LE -> new BoundFilter.Range(column, null, false, bound(column, literal, RoundingMode.FLOOR), true);
+            case GT -> new BoundFilter.Range(column, bound(column, literal, RoundingMode.FLOOR), false, null, false);
+            case GE -> new BoundFilter.Range(column, bound(column, literal, RoundingMode.CEILING), true, null, false);
+        };
+    }
+
+    private static BoundFilter bindBetween(FilterExpr.Between between, BoundFilter.Column column) {
+        Comparable<?> lower = bound(column, between.lower(), RoundingMode.CEILING);
+        Comparable<?> upper = bound(column, between.upper(), RoundingMode.FLOOR);
+        if (!between.negated()) {
+            return new BoundFilter.Range(column, lower, true, upper, true);
+        }
+        return new BoundFilter.Or(List.of(
+                new BoundFilter.Range(column, null, false, lower, false),
+                new BoundFilter.Range(column, upper, false, null, false)));
+    }
+
+    /** Literal used for equality; must be exactly representable in the column type. */
+    private static Comparable<?> exact(BoundFilter.Column column, FilterExpr.Literal literal) {
+        return convert(column, literal, null);
+    }
+
+    /** Literal used as a range bound; integer columns round non-integral values with {@code rounding}. */
+    private static Comparable<?> bound(BoundFilter.Column column, FilterExpr.Literal literal, RoundingMode rounding) {
+        return convert(column, literal, rounding);
+    }
+
+    private static Comparable<?> convert(BoundFilter.Column column, FilterExpr.Literal literal, RoundingMode rounding) {
+        PrimitiveType type = column.type();
+        LogicalTypeAnnotation logical = type.getLogicalTypeAnnotation();
+        String text = literal.text().trim();
+        try {
+            return switch (type.getPrimitiveTypeName()) {
+                case INT64 -> {
+                    if (logical instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation timestamp && literal.quoted()) {
+                        yield timestamp(text, timestamp.getUnit());
+                    }
+                    yield integral(column, literal, rounding).longValueExact();
+                }
+                case INT32 -> {
+                    if (logical instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation && literal.quoted()) {
+                        yield Math.toIntExact(LocalDate.parse(text).toEpochDay());
+                    }
+                    yield integral(column, literal, rounding).intValueExact();
+                }
+                case DOUBLE -> Double.parseDouble(text);
+                case FLOAT -> Float.parseFloat(text);
+                case BOOLEAN -> switch (text.toLowerCase(Locale.ROOT)) {
+                    case "true", "t", "1" -> Boolean.TRUE;
+                    case "false", "f", "0" -> Boolean.FALSE;
+                    default -> throw new IllegalArgumentException("Not a boolean: " + literal);
+                };
+                case BINARY, FIXED_LEN_BYTE_ARRAY -> Binary.fromString(literal.text());
+                default -> throw new IllegalArgumentException(
+                        "Filtering on " + type.getPrimitiveTypeName() + " columns is not supported");
+            };
+        } catch (NumberFormatException | ArithmeticException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Cannot bind " + literal + " to column " + column.logical()
+                    + " of type " + type, ex);
+        }
+    }
+
+    private static BigDecimal integral(BoundFilter.Column column, FilterExpr.Literal literal, RoundingMode rounding) {
+        if (column.type().getLogicalTypeAnnotation() instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+            throw new IllegalArgumentException("DECIMAL columns are not supported: " + column.logical());
+        }
+        BigDecimal value = new BigDecimal(literal.text().trim());
+        if (rounding == null) {
+            return value.setScale(0, RoundingMode.UNNECESSARY);
+        }
+        return value.setScale(0, rounding);
+    }
+
+    private static long timestamp(String text, LogicalTypeAnnotation.TimeUnit unit) {
+        LocalDateTime dateTime = LocalDateTime.parse(text, TIMESTAMP);
+        long seconds = dateTime.toEpochSecond(ZoneOffset.UTC);
+        long nanos = dateTime.getNano();
+        return switch (unit) {
+            case MILLIS -> Math.addExact(Math.multiplyExact(seconds, 1_000L), nanos / 1_000_000L);
+            case MICROS -> Math.addExact(Math.multiplyExact(seconds, 1_000_000L), nanos / 1_000L);
+            case NANOS -> Math.addExact(Math.multiplyExact(seconds, 1_000_000_000L), nanos);
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package dev.novov.duckdb.engines.parquet;
+
+import java.util.List;
+
+/**
+ * Untyped syntax tree of a {@code FilterCase} WHERE clause as produced by {@link FilterParser}. Column names are
+ * logical (aliases are resolved by {@link FilterBinder}) and literals keep their source text until they are bound
+ * to the physical column type.
+ */
+sealed interface FilterExpr {
+
+    record And(List<FilterExpr> terms) implements FilterExpr {
+        public And {
+            terms = List.copyOf(terms);
+        }
+    }
+
+    record Or(List<FilterExpr> terms) implements FilterExpr {
+        public Or {
+            terms = List.copyOf(terms);
+        }
+    }
+
+    record Comparison(String column, Op op, Literal value) implements FilterExpr {
+    }
+
+    record Between(String column, Literal lower, Literal upper, boolean negated) implements FilterExpr {
+    }
+
+    record In(String column, List<Literal> values, boolean negated) implements FilterExpr {
+        public In {
+            values = List.copyOf(values);
+        }
+    }
+
+    record IsNull(String column, boolean negated) implements FilterExpr {
+    }
+
+    /** Literal token; {@code quoted} distinguishes {@code '2019-01-01'} from {@code 2019}. */
+    record Literal(String text, boolean quoted) {
+        @Override
+        public String toString() {
+            return quoted ? "'" + text + "'" : text;
+        }
+    }
+
+    enum Op {
+        EQ("="),
+        NE("<>"),
+        LT("<"),
+        LE("<="),
+        GT(">"),
+        GE(">=");
+
+        final String symbol;
+
+        Op(String symbol) {
+            this.symbol = symbol;
+        }
+    }
+}
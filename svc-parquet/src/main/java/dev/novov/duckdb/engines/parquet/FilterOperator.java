@@ -0,0 +1,30 @@
+package dev.novov.duckdb.engines.parquet;
+
+import dev.novov.duckdb.engines.parquet.kernels.Kernels;
+
+import java.io.IOException;
+
+/** WHERE clause of a plan: clears the rows its {@link BatchPredicate} rejects and skips batches left empty. */
+final class FilterOperator implements BatchOperator {
+    private final BatchPredicate kernel;
+    private final BatchOperator next;
+    private boolean[] matches = new boolean[RowBatch.DEFAULT_CAPACITY];
+
+    FilterOperator(BatchPredicate kernel, BatchOperator next) {
+        this.kernel = kernel;
+        this.next = next;
+    }
+
+    @Override
+    public void push(RowBatch batch, boolean[] alive) throws IOException {
+        if (matches.length < batch.capacity()) {
+            matches = new boolean[batch.capacity()];
+        }
+        kernel.evaluate(batch, matches);
+        int n = batch.size();
+        Kernels.and(alive, matches, n);
+        if (Kernels.count(alive, n) > 0) {
+            next.push(batch, alive);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package dev.novov.duckdb.engines.parquet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Recursive-descent parser for the SQL subset used in {@code FilterCase.filterExpr()}:
+ * <pre>
+ *   expr      := and (OR and)*
+ *   and       := predicate (AND predicate)*
+ *   predicate := '(' expr ')'
+ *              | column op literal
+ *              | column [NOT] BETWEEN literal AND literal
+ *              | column [NOT] IN '(' literal (',' literal)* ')'
+ *              | column IS [NOT] NULL
+ * </pre>
+ * Keywords are case-insensitive, strings use single quotes ({@code ''} escapes a quote) and columns may be
+ * double-quoted.
+ */
+final class FilterParser {
+    private final String source;
+    private final List<Token> tokens;
+    private int position;
+
+    private FilterParser(String source) {
+        this.source = source;
+        this.tokens = tokenize(source);
+    }
+
+    static FilterExpr parse(String expression) {
+        FilterParser parser = new FilterParser(expression);
+        FilterExpr expr = parser.parseOr();
+        if (parser.peek().kind != Kind.END) {
+            throw parser.error("Unexpected '" + parser.peek().text + "'");
+        }
+        return expr;
+    }
+
+    private FilterExpr parseOr() {
+        List<FilterExpr> terms = new ArrayList<>();
+        terms.add(parseAnd());
+        while (acceptKeyword("OR")) {
+            terms.add(parseAnd());
+        }
+        return terms.size() == 1 ? terms.get(0) : new FilterExpr.Or(terms);
+    }
+
+    private FilterExpr parseAnd() {
+        List<FilterExpr> terms = new ArrayList<>();
+        terms.add(parsePredicate());
+        while (acceptKeyword("AND")) {
+            terms.add(parsePredicate());
+        }
+        return terms.size() == 1 ? terms.get(0) : new FilterExpr.And(terms);
+    }
+
+    private FilterExpr parsePredicate() {
+        if (accept(Kind.LPAREN)) {
+            FilterExpr inner = parseOr();
+            expect(Kind.RPAREN);
+            return inner;
+        }
+        Token column = next();
+        if (column.kind != Kind.IDENTIFIER) {
+            throw error("Expected column name but found '" + column.text + "'");
+        }
+        if (acceptKeyword("IS")) {
+            boolean negated = acceptKeyword("NOT");
+            expectKeyword("NULL");
+            return new FilterExpr.IsNull(column.text, negated);
+        }
+        boolean negated = acceptKeyword("NOT");
+        if (acceptKeyword("BETWEEN")) {
+            FilterExpr.Literal lower = literal();
+            expectKeyword("AND");
+            return new FilterExpr.Between(column.text, lower, literal(), negated);
+        }
+        if (acceptKeyword("IN")) {
+            expect(Kind.LPAREN);
+            List<FilterExpr.Literal> values = new ArrayList<>();
+            do {
+                values.add(literal());
+            } while (accept(Kind.COMMA));
+            expect(Kind.RPAREN);
+            return new FilterExpr.In(column.text, values, negated);
+        }
+        if (negated) {
+            throw error("Expected BETWEEN or IN after NOT");
+        }
+        Token operator = next();
+        if (operator.kind != Kind.OPERATOR) {
+            throw error("Expected comparison operator after " + column.text + " but found '" + operator.text + "'");
+        }
+        return new FilterExpr.Comparison(column.text, operator(operator.text), literal());
+    }
+
+    private static FilterExpr.Op operator(String symbol) {
+        return switch (symbol) {
+            case "=", "==" -> FilterExpr.Op.EQ;
+            case "<>", "!=" -> FilterExpr.Op.NE;
+            case "<" -> FilterExpr.Op.LT;
+            case "<=" -> FilterExpr.Op.LE;
+            case ">" -> FilterExpr.Op.GT;
+            case ">=" -> FilterExpr.Op.GE;
+            default -> throw new IllegalArgumentException("Unknown operator " + symbol);
+        };
+    }
+
+    private FilterExpr.Literal literal() {
+        Token token = next();
+        return switch (token.kind) {
+            case STRING -> new FilterExpr.Literal(token.text, true);
+            case NUMBER -> new FilterExpr.Literal(token.text, false);
+            case IDENTIFIER -> {
+                String upper = token.text.toUpperCase(Locale.ROOT);
+                if (upper.equals("TRUE") || upper.equals("FALSE")) {
+                    yield new FilterExpr.Literal(upper.toLowerCase(Locale.ROOT), false);
+                }
+                throw error("Expected literal but found '" + token.text + "'");
+            }
+            default -> throw error("Expected literal but found '" + token.text + "'");
+        };
+    }
+
+    private Token peek() {
+        return tokens.get(position);
+    }
+
+    private Token next() {
+        Token token = tokens.get(position);
+        if (token.kind != Kind.END) {
+            position++;
+        }
+        return token;
+    }
+
+    private boolean accept(Kind kind) {
+        if (peek().kind == kind) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(Kind kind) {
+        if (!accept(kind)) {
+            throw error("Expected " + kind + " but found '" + peek().text + "'");
+        }
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        Token token = peek();
+        if (token.kind == Kind.IDENTIFIER && !token.quoted && token.text.equalsIgnoreCase(keyword)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expectKeyword(String keyword) {
+        if (!acceptKeyword(keyword)) {
+            throw error("Expected " + keyword + " but found '" + peek().text + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " in filter expression: " + source);
+    }
+
+    private static List<Token> tokenize(String source) {
+        List<Token> out = new ArrayList<>();
+        int i = 0;
+        int n = source.length();
+        while (i < n) {
+            char c = source.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(') {
+                out.add(new Token(Kind.LPAREN, "(", false));
+                i++;
+            } else if (c == ')') {
+                out.add(new Token(Kind.RPAREN, ")", false));
+                i++;
+            } else if (c == ',') {
+                out.add(new Token(Kind.COMMA, ",", false));
+                i++;
+            } else if (c == '\'' || c == '"') {
+                StringBuilder text = new StringBuilder();
+                int j = i + 1;
+                while (true) {
+                    if (j >= n) {
+                        throw new IllegalArgumentException("Unterminated quote in filter expression: " + source);
+                    }
+                    char d = source.charAt(j);
+                    if (d == c) {
+                        if (j + 1 < n && source.charAt(j + 1) == c) {
+                            text.append(c);
+                            j += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    text.append(d);
+                    j++;
+                }
+                out.add(new Token(c == '\'' ? Kind.STRING : Kind.IDENTIFIER, text.toString(), true));
+                i = j + 1;
+            } else if (Character.isDigit(c) || ((c == '-' || c == '+' || c == '.') && i + 1 < n
+                    && (Character.isDigit(source.charAt(i + 1)) || source.charAt(i + 1) == '.'))) {
+                int j = i + 1;
+                while (j < n && (Character.isDigit(source.charAt(j)) || "eE.".indexOf(source.charAt(j)) >= 0
+                        || ((source.charAt(j) == '-' || source.charAt(j) == '+')
+                        && (source.charAt(j - 1) == 'e' || source.charAt(j - 1) == 'E')))) {
+                    j++;
+                }
+                out.add(new Token(Kind.NUMBER, source.substring(i, j), false));
+                i = j;
+            } else if ("<>=!".indexOf(c) >= 0) {
+                int j = i + 1;
+                if (j < n && "<>=".indexOf(source.charAt(j)) >= 0) {
+                    j++;
+                }
+                out.add(new Token(Kind.OPERATOR, source.substring(i, j), false));
+                i = j;
+            } else if (Character.isLetter(c) || c == '_') {
+                int j = i + 1;
+                while (j < n && (Character.isLetterOrDigit(source.charAt(j)) || source.charAt(j) == '_'
+                        || source.charAt(j) == '.')) {
+                    j++;
+                }
+                out.add(new Token(Kind.IDENTIFIER, source.substring(i, j), false));
+                i = j;
+            } else {
+                throw new IllegalArgumentException("Unexpected character '" + c + "' in filter expression: " + source);
+            }
+        }
+        out.add(new Token(Kind.END, "<end>", false));
+        return out;
+    }
+
+    private enum Kind {
+        IDENTIFIER,
+        STRING,
+        NUMBER,
+        OPERATOR,
+        LPAREN,
+        RPAREN,
+        COMMA,
+        END
+    }
+
+    private record Token(Kind kind, String text, boolean quoted) {
+    }
+}
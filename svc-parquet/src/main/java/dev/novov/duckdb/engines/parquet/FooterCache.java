@@ -0,0 +1,78 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide LRU cache of parsed Parquet footers, so warmup and measured runs, schema lookups and scan planning
+ * do not decode the same footer again. Entries are keyed by location, length and modification time, so a file
+ * rewritten in place is read afresh. Mapped files also keep their {@link MappedInputFile}, which saves remapping
+ * (and re-faulting) the file for every scanner. Cached footers must not be modified.
+ */
+final class FooterCache {
+    static final int DEFAULT_CAPACITY = 64;
+    private static final FooterCache SHARED = new FooterCache(DEFAULT_CAPACITY);
+
+    private final Map<Key, CachedFile> entries;
+
+    FooterCache(int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedFile> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    static FooterCache shared() {
+        return SHARED;
+    }
+
+    /** Input and parsed footer of {@code file}; the footer is decoded on the first request for this version. */
+    CachedFile open(ParquetIo io, String file) throws IOException {
+        Path local = io.mappablePath(file);
+        FileStatus status = null;
+        Key key;
+        if (local != null) {
+            BasicFileAttributes attributes = Files.readAttributes(local, BasicFileAttributes.class);
+            key = new Key(io, local.toAbsolutePath().normalize().toString(), attributes.size(),
+                    attributes.lastModifiedTime().toMillis());
+        } else {
+            status = io.hadoopStatus(file);
+            key = new Key(io, status.getPath().toString(), status.getLen(), status.getModificationTime());
+        }
+        synchronized (entries) {
+            CachedFile cached = entries.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // parsed outside the lock; concurrent misses on one file may both parse, the last one wins
+        InputFile input = local != null ? MappedInputFile.open(local) : io.hadoopInputFile(status);
+        ParquetMetadata footer;
+        try (SeekableInputStream stream = input.newStream()) {
+            footer = ParquetFileReader.readFooter(input, io.options(input).build(), stream);
+        }
+        CachedFile opened = new CachedFile(input, footer);
+        synchronized (entries) {
+            entries.put(key, opened);
+        }
+        return opened;
+    }
+
+    record CachedFile(InputFile input, ParquetMetadata footer) {
+    }
+
+    private record Key(ParquetIo io, String location, long length, long modifiedMillis) {
+    }
+}
@@ -0,0 +1,133 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * GROUP BY expression of a {@link HashAggregate}. Keys are resolved straight to group ids of the worker's
+ * {@link GroupTable}, so no key object is built per row.
+ */
+sealed interface GroupKey {
+
+    List<String> columns();
+
+    /** Fresh evaluator for one scan worker. */
+    Evaluator evaluator(ToIntFunction<String> columnIndex);
+
+    interface Evaluator {
+        /** Writes the group of every alive row of {@code batch} into {@code groups}. */
+        void groups(RowBatch batch, boolean[] alive, GroupTable table, int[] groups);
+
+        /** Forgets group ids kept across batches, after the table was replaced or spilled. */
+        default void reset() {
+        }
+    }
+
+    /** The value of a column; null values form one group. */
+    record Column(String column) implements GroupKey {
+        @Override
+        public List<String> columns() {
+            return List.of(column);
+        }
+
+        @Override
+        public Evaluator evaluator(ToIntFunction<String> columnIndex) {
+            int index = columnIndex.applyAsInt(column);
+            return (batch, alive, table, groups) -> {
+                ColumnVector keys = batch.column(index);
+                for (int i = 0; i < batch.size(); i++) {
+                    if (alive[i]) {
+                        groups[i] = table.group(keys, i);
+                    }
+                }
+            };
+        }
+    }
+
+    /** Calendar year of a DATE column, like {@code strftime('%Y', column)}. */
+    record Year(String column) implements GroupKey {
+        static Year of(MessageType schema, String column) {
+            PrimitiveType type = ParquetScanner.resolveColumn(schema, column);
+            if (!(type.getLogicalTypeAnnotation() instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation)) {
+                throw new IllegalArgumentException("Year key requires a DATE column: " + type);
+            }
+            return new Year(column);
+        }
+
+        @Override
+        public List<String> columns() {
+            return List.of(column);
+        }
+
+        @Override
+        public Evaluator evaluator(ToIntFunction<String> columnIndex) {
+            int index = columnIndex.applyAsInt(column);
+            return (batch, alive, table, groups) -> {
+                ColumnVector dates = batch.column(index);
+                for (int i = 0; i < batch.size(); i++) {
+                    if (!alive[i]) {
+                        continue;
+                    }
+                    groups[i] = dates.nulls[i]
+                            ? table.nullGroup()
+                            : table.group(LocalDate.ofEpochDay(dates.ints[i]).getYear());
+                }
+            };
+        }
+    }
+
+    /** Truth value of a predicate, e.g. {@code new_build = 'Y'}; rows where it does not hold form group 0. */
+    record Predicate(BoundFilter predicate) implements GroupKey {
+        @Override
+        public List<String> columns() {
+            return predicate.columns();
+        }
+
+        @Override
+        public Evaluator evaluator(ToIntFunction<String> columnIndex) {
+            return new PredicateEvaluator(predicate.kernel(columnIndex));
+        }
+    }
+
+    final class PredicateEvaluator implements Evaluator {
+        private final BatchPredicate kernel;
+        private boolean[] holds = new boolean[RowBatch.DEFAULT_CAPACITY];
+        /** Groups of {@code false} and {@code true}, created on first use. */
+        private final int[] outcomes = {AggregationTable.NULL_GROUP, AggregationTable.NULL_GROUP};
+
+        private PredicateEvaluator(BatchPredicate kernel) {
+            this.kernel = kernel;
+        }
+
+        @Override
+        public void groups(RowBatch batch, boolean[] alive, GroupTable table, int[] groups) {
+            if (holds.length < batch.capacity()) {
+                holds = new boolean[batch.capacity()];
+            }
+            kernel.evaluate(batch, holds);
+            for (int i = 0; i < batch.size(); i++) {
+                if (!alive[i]) {
+                    continue;
+                }
+                int outcome = holds[i] ? 1 : 0;
+                int group = outcomes[outcome];
+                if (group == AggregationTable.NULL_GROUP) {
+                    group = table.group(outcome);
+                    outcomes[outcome] = group;
+                }
+                groups[i] = group;
+            }
+        }
+
+        @Override
+        public void reset() {
+            Arrays.fill(outcomes, AggregationTable.NULL_GROUP);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package dev.novov.duckdb.engines.parquet;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+
+import java.util.Arrays;
+
+/**
+ * Output of a {@link HashAggregate}: one row per group with its {@code count(*)}, aggregate value and whether that
+ * value is SQL NULL, still referring to the group's key in its {@link AggregationTable}. Ordering and limits are
+ * applied to these rows before keys are materialized, so only surviving rows pay for their key string.
+ */
+final class GroupRows {
+    private final AggregationTable[] tables;
+    /** Index into {@link #tables} per row. */
+    private int[] tableOf;
+    int[] groups;
+    long[] counts;
+    double[] values;
+    /** Rows whose value is NULL; a NaN in {@link #values} is a value of its own. */
+    boolean[] nulls;
+    int size;
+
+    GroupRows(AggregationTable table, int[] groups, long[] counts, double[] values, boolean[] nulls, int size) {
+        this(new AggregationTable[]{table}, new int[size], groups, counts, values, nulls, size);
+    }
+
+    private GroupRows(AggregationTable[] tables, int[] tableOf, int[] groups, long[] counts, double[] values,
+                      boolean[] nulls, int size) {
+        this.tables = tables;
+        this.tableOf = tableOf;
+        this.groups = groups;
+        this.counts = counts;
+        this.values = values;
+        this.nulls = nulls;
+        this.size = size;
+    }
+
+    /** Rows of tables without common keys, such as the {@link RadixPartitions} of one group-by, as one result. */
+    static GroupRows concat(GroupRows[] parts) {
+        int total = 0;
+        for (GroupRows part : parts) {
+            if (part.tables.length != 1) {
+                throw new IllegalArgumentException("Only single-table rows can be concatenated");
+            }
+            total += part.size;
+        }
+        AggregationTable[] tables = new AggregationTable[parts.length];
+        int[] tableOf = new int[total];
+        int[] groups = new int[total];
+        long[] counts = new long[total];
+        double[] values = new double[total];
+        boolean[] nulls = new boolean[total];
+        int at = 0;
+        for (int t = 0; t < parts.length; t++) {
+            GroupRows part = parts[t];
+            tables[t] = part.tables[0];
+            Arrays.fill(tableOf, at, at + part.size, t);
+            System.arraycopy(part.groups, 0, groups, at, part.size);
+            System.arraycopy(part.counts, 0, counts, at, part.size);
+            System.arraycopy(part.values, 0, values, at, part.size);
+            System.arraycopy(part.nulls, 0, nulls, at, part.size);
+            at += part.size;
+        }
+        return new GroupRows(tables, tableOf, groups, counts, values, nulls, total);
+    }
+
+    enum Order { KEY, COUNT, VALUE }
+
+    /**
+     * Sorts rows by group key, {@code count(*)} or aggregate value; NULL keys and values sort last, and a NaN value
+     * above every other value as in DuckDB.
+     */
+    GroupRows orderBy(Order by, boolean desc) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        IntArrays.mergeSort(order, (a, b) -> {
+            if (by == Order.KEY) {
+                AggregationTable left = tables[tableOf[a]];
+                AggregationTable right = tables[tableOf[b]];
+                int cmp = AggregationTable.compareKeys(left, groups[a], right, groups[b]);
+                return desc && !left.isNull(groups[a]) && !right.isNull(groups[b]) ? -cmp : cmp;
+            }
+            if (by == Order.VALUE) {
+                boolean aNull = nulls[a];
+                boolean bNull = nulls[b];
+                if (aNull || bNull) {
+                    return Boolean.compare(aNull, bNull);
+                }
+                int cmp = Double.compare(values[a], values[b]);
+                return desc ? -cmp : cmp;
+            }
+            int cmp = Long.compare(counts[a], counts[b]);
+            return desc ? -cmp : cmp;
+        });
+        int[] sortedTables = new int[size];
+        int[] sortedGroups = new int[size];
+        long[] sortedCounts = new long[size];
+        double[] sortedValues = new double[size];
+        boolean[] sortedNulls = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            sortedTables[i] = tableOf[order[i]];
+            sortedGroups[i] = groups[order[i]];
+            sortedCounts[i] = counts[order[i]];
+            sortedValues[i] = values[order[i]];
+            sortedNulls[i] = nulls[order[i]];
+        }
+        tableOf = sortedTables;
+        groups = sortedGroups;
+        counts = sortedCounts;
+        values = sortedValues;
+        nulls = sortedNulls;
+        return this;
+    }
+
+    GroupRows limit(int limit) {
+        size = Math.min(size, limit);
+        return this;
+    }
+
+    /** Builds the key of every output row, like the result set of the SQL engine, and returns the row count. */
+    long materialize() {
+        String[] keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = tables[tableOf[i]].key(groups[i]);
+        }
+        return keys.length;
+    }
+}
@@ -0,0 +1,25 @@
+package dev.novov.duckdb.engines.parquet;
+
+/**
+ * Group-by state as seen while scanning: resolves keys to group ids and aggregates rows into them. A worker starts
+ * with one {@link AggregationTable} and switches to {@link RadixPartitions} once it holds many groups; ids are only
+ * meaningful to the instance that returned them.
+ */
+interface GroupTable {
+
+    /** Group of the key at {@code row}; null keys map to a dedicated group. */
+    int group(ColumnVector vector, int row);
+
+    int group(long key);
+
+    /** Group of a floating point key; {@code 0.0} and {@code -0.0} share a group, and so do all NaNs. */
+    int group(double key);
+
+    int nullGroup();
+
+    /** Adds one row with the non-null {@code value} to {@code group}; a NaN is a value like any other. */
+    void accumulate(int group, double value);
+
+    /** Adds one row without a value to {@code group}: a NULL value, or any row for {@code count(*)}. */
+    void accumulateRow(int group);
+}
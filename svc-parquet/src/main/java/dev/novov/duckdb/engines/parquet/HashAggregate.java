@@ -0,0 +1,536 @@
+package dev.novov.duckdb.engines.parquet;
+
+import dev.novov.duckdb.bench.api.AggFn;
+import dev.novov.duckdb.engines.parquet.kernels.Kernels;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/**
+ * {@code SELECT key, count(*), fn(value) ... GROUP BY key [HAVING count(*) > n] [ORDER BY ...] [LIMIT n]}.
+ * Count, sum, min and max live in the worker's off-heap {@link AggregationTable}; the exact and approximate
+ * quantiles also keep per-group values or sketches on the heap. HAVING is applied before aggregate values are
+ * computed, and quantiles of the surviving groups are computed in parallel on the scan workers.
+ * <p>
+ * Without quantiles, a worker whose table grows past {@link #RADIX_THRESHOLD} groups switches to
+ * {@link RadixPartitions}; the partitions of all workers are then folded and evaluated in parallel in
+ * {@link #finish} instead of merging million-group tables one after another.
+ * <p>
+ * Under a {@link MemoryBudget}, a worker over its share spills: its partitions' groups, or for the exact quantiles
+ * the per-group values, are written to a {@link SpillFile} by radix partition and read back one partition at a time
+ * in {@link #finish}. Sketches and the groups of quantile states stay in memory.
+ */
+final class HashAggregate implements SinkFactory<HashAggregate.State> {
+    /** Groups handed to a worker at a time when computing quantiles. */
+    private static final int QUANTILE_CHUNK = 16;
+    /** Groups of one worker's table beyond which it is split into radix partitions; a few MB of table. */
+    static final int RADIX_THRESHOLD = 1 << 16;
+
+    private final GroupKey key;
+    private final AggFn fn;
+    private final String valueColumn;
+    private final double quantile;
+    private final MemoryBudget budget;
+    private long havingMinCount = -1L;
+    private GroupRows.Order order;
+    private boolean descending;
+    private int limit;
+
+    /**
+     * {@code valueColumn} may be {@code null} for {@code COUNT(*)}; {@code quantile} is only read for quantiles;
+     * {@code budget} is {@code null} without a memory limit.
+     */
+    HashAggregate(GroupKey key, AggFn fn, String valueColumn, double quantile, MemoryBudget budget) {
+        if (valueColumn == null && fn != AggFn.COUNT) {
+            throw new IllegalArgumentException(fn + " requires a column");
+        }
+        this.key = key;
+        this.fn = fn;
+        this.valueColumn = valueColumn;
+        this.quantile = quantile;
+        this.budget = budget;
+    }
+
+    /** {@code HAVING count(*) > minCount}. */
+    HashAggregate having(long minCount) {
+        this.havingMinCount = minCount;
+        return this;
+    }
+
+    /** {@code ORDER BY key}, {@code count(*)} or {@code fn(value)}. */
+    HashAggregate orderBy(GroupRows.Order order, boolean desc) {
+        this.order = order;
+        this.descending = desc;
+        return this;
+    }
+
+    HashAggregate limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    GroupKey key() {
+        return key;
+    }
+
+    AggFn fn() {
+        return fn;
+    }
+
+    /** Aggregated column, {@code null} for {@code COUNT(*)}. */
+    String valueColumn() {
+        return valueColumn;
+    }
+
+    @Override
+    public List<String> columns() {
+        List<String> columns = new ArrayList<>(key.columns());
+        if (valueColumn != null && !columns.contains(valueColumn)) {
+            columns.add(valueColumn);
+        }
+        return columns;
+    }
+
+    @Override
+    public State newSink(ToIntFunction<String> columnIndex) {
+        return new State(fn, key.evaluator(columnIndex), valueColumn == null ? -1 : columnIndex.applyAsInt(valueColumn),
+                budget);
+    }
+
+    @Override
+    public long finish(State result, ExecutionContext context) throws IOException {
+        try {
+            GroupRows rows;
+            if (result.partitions != null) {
+                rows = partitionedRows(result.partitions, context);
+            } else {
+                rows = rows(result.table);
+                if (fn.isQuantile()) {
+                    quantiles(result, rows.groups, rows.size, rows.values, context);
+                }
+                if (fn == AggFn.APPROX_QUANTILE) {
+                    // sketches skip NaN like approx_quantile, so a group of NaNs has an empty sketch and no value
+                    for (int i = 0; i < rows.size; i++) {
+                        rows.nulls[i] = Double.isNaN(rows.values[i]);
+                    }
+                }
+            }
+            if (order != null) {
+                rows.orderBy(order, descending);
+            }
+            if (limit > 0) {
+                rows.limit(limit);
+            }
+            return rows.materialize();
+        } finally {
+            result.closeSpillFiles();
+        }
+    }
+
+    /**
+     * Groups of {@code table} that pass HAVING with their count and value; quantiles are left NaN. A value is NULL
+     * when its group has no non-null value, except for {@code COUNT}.
+     */
+    private GroupRows rows(AggregationTable table) {
+        int[] groups = new int[table.size()];
+        int size = 0;
+        for (int group = 0; group < table.size(); group++) {
+            if (havingMinCount < 0 || table.count(group) > havingMinCount) {
+                groups[size++] = group;
+            }
+        }
+        long[] counts = new long[size];
+        double[] values = new double[size];
+        boolean[] nulls = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            counts[i] = table.count(groups[i]);
+            values[i] = fn.isQuantile() ? Double.NaN : value(table, groups[i]);
+            nulls[i] = fn != AggFn.COUNT && table.valueCount(groups[i]) == 0;
+        }
+        return new GroupRows(table, groups, counts, values, nulls, size);
+    }
+
+    /**
+     * Folds and evaluates each radix partition on a scan worker. Partitions share no key, so their rows are simply
+     * concatenated; with a LIMIT, each partition is first cut to its own leading rows.
+     */
+    private GroupRows partitionedRows(RadixPartitions partitions, ExecutionContext context) throws IOException {
+        GroupRows[] parts = new GroupRows[RadixPartitions.PARTITIONS];
+        forEachParallel(parts.length, 1, p -> {
+            GroupRows rows = rows(partitions.partition(p));
+            if (order != null && limit > 0) {
+                rows.orderBy(order, descending).limit(limit);
+            }
+            parts[p] = rows;
+        }, context);
+        return GroupRows.concat(parts);
+    }
+
+    private double value(AggregationTable table, int group) {
+        long nonNull = table.valueCount(group);
+        return switch (fn) {
+            case COUNT -> valueColumn == null ? table.count(group) : nonNull;
+            case SUM -> nonNull == 0 ? Double.NaN : table.sum(group);
+            case AVG -> nonNull == 0 ? Double.NaN : table.sum(group) / nonNull;
+            case MIN -> nonNull == 0 ? Double.NaN : table.min(group);
+            case MAX -> nonNull == 0 ? Double.NaN : table.max(group);
+            case MEDIAN, QUANTILE, APPROX_QUANTILE -> throw new IllegalStateException(fn + " is computed per group");
+        };
+    }
+
+    private void quantiles(State result, int[] groups, int size, double[] out, ExecutionContext context) throws IOException {
+        if (result.valueSpills == null) {
+            forEachParallel(size, QUANTILE_CHUNK, i -> out[i] = result.quantile(groups[i], quantile), context);
+            return;
+        }
+        // groups are spilled by radix partition, so values are read back and released one partition at a time
+        AggregationTable table = result.table;
+        int[][] rowsOf = new int[RadixPartitions.PARTITIONS][];
+        int[] counts = new int[RadixPartitions.PARTITIONS];
+        for (int i = 0; i < size; i++) {
+            counts[table.partition(groups[i], RadixPartitions.BITS)]++;
+        }
+        for (int p = 0; p < rowsOf.length; p++) {
+            rowsOf[p] = new int[counts[p]];
+            counts[p] = 0;
+        }
+        boolean[] wanted = new boolean[table.size()];
+        for (int i = 0; i < size; i++) {
+            int p = table.partition(groups[i], RadixPartitions.BITS);
+            rowsOf[p][counts[p]++] = i;
+            wanted[groups[i]] = true;
+        }
+        result.ensureCapacity(table.size() - 1);
+        forEachParallel(rowsOf.length, 1, p -> {
+            result.readValues(p, wanted);
+            for (int i : rowsOf[p]) {
+                out[i] = result.quantile(groups[i], quantile);
+                result.values[groups[i]] = null;
+            }
+        }, context);
+    }
+
+    /** Work on one index of {@link #forEachParallel}. */
+    @FunctionalInterface
+    private interface IndexTask {
+        void run(int index) throws IOException;
+    }
+
+    /**
+     * Runs {@code task} for every index below {@code size} on the scan workers. Indexes are handed out {@code chunk}
+     * at a time from a shared cursor so a few expensive ones (large groups or partitions) do not serialise behind
+     * one worker.
+     */
+    private static void forEachParallel(int size, int chunk, IndexTask task, ExecutionContext context) throws IOException {
+        int workers = Math.min(context.parallelism(), (size + chunk - 1) / chunk);
+        if (workers <= 1) {
+            for (int i = 0; i < size; i++) {
+                task.run(i);
+            }
+            return;
+        }
+        AtomicInteger cursor = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            futures.add(context.workers().submit(() -> {
+                int start;
+                while ((start = cursor.getAndAdd(chunk)) < size) {
+                    int end = Math.min(start + chunk, size);
+                    for (int i = start; i < end; i++) {
+                        task.run(i);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            ParallelScan.await(future);
+        }
+    }
+
+    /**
+     * Per-worker state: the aggregation table, or its radix partitions once it grew past {@link #RADIX_THRESHOLD}
+     * or its memory budget, plus per-group values (MEDIAN, QUANTILE) or sketches.
+     */
+    static final class State implements Sink<State> {
+        /** {@code null} once split into {@link #partitions}. */
+        AggregationTable table = new AggregationTable();
+        RadixPartitions partitions;
+        private final GroupKey.Evaluator keys;
+        private final int valueIndex;
+        private final MemoryBudget budget;
+        private int[] groups = new int[RowBatch.DEFAULT_CAPACITY];
+        private int[] selection = new int[RowBatch.DEFAULT_CAPACITY];
+        /** Non-null values per group, only for the exact quantiles. */
+        private DoubleArrayList[] values;
+        /** Bytes of {@link #values} held since the last spill. */
+        private long valueBytes;
+        /** Spilled values per radix partition of their group, {@code null} until values are first spilled. */
+        private List<List<SpillFile.Segment>> valueSpills;
+        /** Fixed-size sketch per group, only for APPROX_QUANTILE. */
+        private KllSketch[] sketches;
+        /** This worker's spill file, created on the first spill, and those of merged workers. */
+        private SpillFile spillFile;
+        private final List<SpillFile> spillFiles = new ArrayList<>();
+        /**
+         * Incremented whenever group ids handed out so far become invalid, so generated pipelines know to drop the
+         * ids they cache, as {@link GroupKey.Evaluator#reset} does for interpreted ones.
+         */
+        int generation;
+
+        private State(AggFn fn, GroupKey.Evaluator keys, int valueIndex, MemoryBudget budget) {
+            this.keys = keys;
+            this.valueIndex = valueIndex;
+            this.budget = budget;
+            if (fn == AggFn.MEDIAN || fn == AggFn.QUANTILE) {
+                values = new DoubleArrayList[64];
+            } else if (fn == AggFn.APPROX_QUANTILE) {
+                sketches = new KllSketch[64];
+            }
+        }
+
+        @Override
+        public void push(RowBatch batch, boolean[] alive) throws IOException {
+            if (groups.length < batch.capacity()) {
+                groups = new int[batch.capacity()];
+                selection = new int[batch.capacity()];
+            }
+            GroupTable target = groupTable();
+            keys.groups(batch, alive, target, groups);
+            int selected = Kernels.select(alive, batch.size(), selection);
+            if (valueIndex < 0) {
+                for (int s = 0; s < selected; s++) {
+                    target.accumulateRow(groups[selection[s]]);
+                }
+                afterBatch();
+                return;
+            }
+            ColumnVector column = batch.column(valueIndex);
+            for (int s = 0; s < selected; s++) {
+                int i = selection[s];
+                int group = groups[i];
+                if (column.nulls[i]) {
+                    target.accumulateRow(group);
+                    continue;
+                }
+                double value = column.getDouble(i);
+                target.accumulate(group, value);
+                if (values != null) {
+                    values(group).add(value);
+                    valueBytes += Double.BYTES;
+                } else if (sketches != null) {
+                    sketch(group).add(value);
+                }
+            }
+            afterBatch();
+        }
+
+        /** Where the rows of the next batch go; group ids of one batch must not outlive it. */
+        GroupTable groupTable() {
+            return partitions != null ? partitions : table;
+        }
+
+        /**
+         * Switches to radix partitions once the table grew too large, and spills once over budget; quantile states
+         * keep their group ids and only spill values.
+         */
+        void afterBatch() throws IOException {
+            if (partitions == null && values == null && sketches == null && (table.size() > RADIX_THRESHOLD
+                    || budget != null && table.memoryBytes() > budget.workerBytes())) {
+                toPartitions();
+            }
+            if (budget == null) {
+                return;
+            }
+            if (partitions != null && partitions.memoryBytes() > budget.workerBytes()) {
+                partitions.spill(spillFile());
+                invalidateGroups();
+            } else if (values != null && table.memoryBytes() + valueBytes > budget.workerBytes()) {
+                spillValues();
+            }
+        }
+
+        private SpillFile spillFile() throws IOException {
+            if (spillFile == null) {
+                spillFile = budget.newSpillFile();
+                spillFiles.add(spillFile);
+            }
+            return spillFile;
+        }
+
+        /**
+         * Writes every group's values to the spill file, one segment per radix partition of the group key, each a
+         * run of the key followed by the value count and the values.
+         */
+        private void spillValues() throws IOException {
+            if (valueSpills == null) {
+                valueSpills = new ArrayList<>(RadixPartitions.PARTITIONS);
+                for (int p = 0; p < RadixPartitions.PARTITIONS; p++) {
+                    valueSpills.add(new ArrayList<>());
+                }
+            }
+            IntArrayList[] byPartition = new IntArrayList[RadixPartitions.PARTITIONS];
+            for (int p = 0; p < byPartition.length; p++) {
+                byPartition[p] = new IntArrayList();
+            }
+            for (int group = 0; group < Math.min(table.size(), values.length); group++) {
+                if (values[group] != null && !values[group].isEmpty()) {
+                    byPartition[table.partition(group, RadixPartitions.BITS)].add(group);
+                }
+            }
+            SpillFile file = spillFile();
+            ByteBuffer out = ByteBuffer.allocate(64 * 1024);
+            for (int p = 0; p < RadixPartitions.PARTITIONS; p++) {
+                if (byPartition[p].isEmpty()) {
+                    continue;
+                }
+                out.clear();
+                for (int g = 0; g < byPartition[p].size(); g++) {
+                    int group = byPartition[p].getInt(g);
+                    DoubleArrayList list = values[group];
+                    out = table.writeKey(group, out);
+                    out = SpillFile.ensureRemaining(out, Integer.BYTES + list.size() * Double.BYTES);
+                    out.putInt(list.size());
+                    out.asDoubleBuffer().put(list.elements(), 0, list.size());
+                    out.position(out.position() + list.size() * Double.BYTES);
+                    values[group] = null;
+                }
+                valueSpills.get(p).add(file.write(out.flip()));
+            }
+            valueBytes = 0L;
+        }
+
+        /**
+         * Adds the spilled values of radix partition {@code partition} back to the merged state, for the groups
+         * marked in {@code wanted}. Partitions hold disjoint groups and {@link #values} is already sized, so
+         * different partitions may be read concurrently.
+         */
+        void readValues(int partition, boolean[] wanted) throws IOException {
+            for (SpillFile.Segment segment : valueSpills.get(partition)) {
+                ByteBuffer in = segment.read();
+                while (in.hasRemaining()) {
+                    int group = table.readKey(in, false);
+                    int count = in.getInt();
+                    if (wanted[group]) {
+                        DoubleArrayList list = values[group];
+                        if (list == null) {
+                            list = new DoubleArrayList(count);
+                            values[group] = list;
+                        }
+                        int size = list.size();
+                        list.size(size + count);
+                        in.asDoubleBuffer().get(list.elements(), size, count);
+                    }
+                    in.position(in.position() + count * Double.BYTES);
+                }
+            }
+        }
+
+        void closeSpillFiles() throws IOException {
+            for (SpillFile file : spillFiles) {
+                file.close();
+            }
+            spillFiles.clear();
+        }
+
+        private RadixPartitions toPartitions() {
+            if (partitions == null) {
+                partitions = new RadixPartitions(table.split(RadixPartitions.BITS));
+                table = null;
+                invalidateGroups();
+            }
+            return partitions;
+        }
+
+        private void invalidateGroups() {
+            keys.reset();
+            generation++;
+        }
+
+        private void ensureCapacity(int group) {
+            if (values != null && group >= values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, group + 1));
+            }
+            if (sketches != null && group >= sketches.length) {
+                sketches = Arrays.copyOf(sketches, Math.max(sketches.length * 2, group + 1));
+            }
+        }
+
+        private DoubleArrayList values(int group) {
+            ensureCapacity(group);
+            DoubleArrayList list = values[group];
+            if (list == null) {
+                list = new DoubleArrayList();
+                values[group] = list;
+            }
+            return list;
+        }
+
+        private KllSketch sketch(int group) {
+            ensureCapacity(group);
+            KllSketch sketch = sketches[group];
+            if (sketch == null) {
+                sketch = new KllSketch();
+                sketches[group] = sketch;
+            }
+            return sketch;
+        }
+
+        /** Exact or approximate quantile of {@code group}; NaN when it has no non-null value. */
+        double quantile(int group, double fraction) {
+            if (sketches != null) {
+                return group >= sketches.length || sketches[group] == null
+                        ? Double.NaN : sketches[group].quantile(fraction);
+            }
+            DoubleArrayList list = group < values.length ? values[group] : null;
+            if (list == null || list.isEmpty()) {
+                return Double.NaN;
+            }
+            return QuickSelect.quantile(list.elements(), list.size(), fraction);
+        }
+
+        @Override
+        public State merge(State other) {
+            spillFiles.addAll(other.spillFiles);
+            if (other.valueSpills != null) {
+                if (valueSpills == null) {
+                    valueSpills = other.valueSpills;
+                } else {
+                    for (int p = 0; p < RadixPartitions.PARTITIONS; p++) {
+                        valueSpills.get(p).addAll(other.valueSpills.get(p));
+                    }
+                }
+            }
+            if (partitions != null || other.partitions != null) {
+                toPartitions().merge(other.toPartitions());
+                return this;
+            }
+            int[] translation = table.merge(other.table);
+            if (values == null && sketches == null) {
+                return this;
+            }
+            ensureCapacity(table.size() - 1);
+            other.ensureCapacity(other.table.size() - 1);
+            for (int group = 0; group < translation.length; group++) {
+                int target = translation[group];
+                if (values != null && other.values[group] != null) {
+                    if (values[target] == null) values[target] = other.values[group];
+                    else values[target].addAll(other.values[group]);
+                }
+                if (sketches != null && other.sketches[group] != null) {
+                    if (sketches[target] == null) sketches[target] = other.sketches[group];
+                    else sketches[target].merge(other.sketches[group]);
+                }
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package dev.novov.duckdb.engines.parquet;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+
+import java.util.Arrays;
+
+/**
+ * KLL quantile sketch over doubles (Karnin, Lang, Liberty 2016). Level {@code h} holds items of weight
+ * {@code 2^h}; a full level is sorted and every other item, starting at a random offset, is promoted to the next
+ * level. Level capacities shrink geometrically towards level 0, so a sketch keeps roughly {@code 3k} items
+ * regardless of the input size, and two sketches merge by concatenating their levels.
+ * <p>
+ * With the default {@code k = 200} the rank error is about 1.3% at 99% confidence. Not thread-safe; the random
+ * source is seeded deterministically so repeated runs give the same answer.
+ */
+final class KllSketch {
+    static final int DEFAULT_K = 200;
+    private static final double DECAY = 2d / 3d;
+    private static final int MIN_CAPACITY = 8;
+
+    private final int k;
+    private double[][] levels = new double[1][];
+    private int[] sizes = new int[1];
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private long random = 0x9E3779B97F4A7C15L;
+
+    KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    KllSketch(int k) {
+        if (k < MIN_CAPACITY) {
+            throw new IllegalArgumentException("k must be at least " + MIN_CAPACITY + ": " + k);
+        }
+        this.k = k;
+        levels[0] = new double[MIN_CAPACITY];
+    }
+
+    /** Adds a non-null value; NaN is skipped, as DuckDB's {@code approx_quantile} does. */
+    void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        append(0, value);
+        if (sizes[0] >= capacity(0)) {
+            compress();
+        }
+    }
+
+    KllSketch merge(KllSketch other) {
+        if (other.count == 0) {
+            return this;
+        }
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        compress();
+        return this;
+    }
+
+    /** Approximate value at {@code fraction} of the sorted input, or NaN for an empty sketch. */
+    double quantile(double fraction) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (fraction <= 0d) {
+            return min;
+        }
+        if (fraction >= 1d) {
+            return max;
+        }
+        int retained = 0;
+        for (int size : sizes) {
+            retained += size;
+        }
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        int n = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                values[n] = levels[h][i];
+                weights[n++] = 1L << h;
+            }
+        }
+        int[] order = new int[retained];
+        Arrays.setAll(order, i -> i);
+        IntArrays.quickSort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        // total weight equals count since compaction halves items while doubling weight
+        double target = fraction * (count - 1);
+        long cumulative = 0L;
+        for (int index : order) {
+            cumulative += weights[index];
+            if (cumulative > target) {
+                return values[index];
+            }
+        }
+        return max;
+    }
+
+    private int capacity(int level) {
+        int depth = levels.length - 1 - level;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(DECAY, depth)));
+    }
+
+    private void append(int level, double value) {
+        if (level >= levels.length) {
+            levels = Arrays.copyOf(levels, level + 1);
+            sizes = Arrays.copyOf(sizes, level + 1);
+            levels[level] = new double[MIN_CAPACITY];
+        }
+        double[] items = levels[level];
+        if (sizes[level] == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+            levels[level] = items;
+        }
+        items[sizes[level]++] = value;
+    }
+
+    /** Compacts levels until every level is within its capacity; capacities change as levels are added. */
+    private void compress() {
+        boolean compacted;
+        do {
+            compacted = false;
+            for (int h = 0; h < levels.length; h++) {
+                if (sizes[h] >= capacity(h)) {
+                    compact(h);
+                    compacted = true;
+                }
+            }
+        } while (compacted);
+    }
+
+    private void compact(int level) {
+        double[] items = levels[level];
+        int n = sizes[level];
+        Arrays.sort(items, 0, n);
+        // an odd item out stays on this level with its weight unchanged
+        int paired = n & ~1;
+        for (int i = nextBit(); i < paired; i += 2) {
+            append(level + 1, items[i]);
+        }
+        items = levels[level];
+        if (paired < n) {
+            items[0] = items[n - 1];
+        }
+        sizes[level] = n - paired;
+    }
+
+    private int nextBit() {
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        return (int) (random & 1L);
+    }
+}
@@ -0,0 +1,178 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Local Parquet file read through {@link FileChannel#map}, without Hadoop's {@code FileSystem} and its stream
+ * copies. The file is mapped in chunks of at most {@value #CHUNK_SIZE} bytes so files over 2 GB work; streams
+ * share the read-only mappings and only use absolute reads, so any number of scanners may read concurrently.
+ * <p>
+ * Mappings are released when the buffers become unreachable, not when a stream is closed.
+ */
+final class MappedInputFile implements InputFile {
+    static final int CHUNK_SIZE = 1 << 30;
+
+    private final Path path;
+    private final long length;
+    private final ByteBuffer[] chunks;
+
+    private MappedInputFile(Path path, long length, ByteBuffer[] chunks) {
+        this.path = path;
+        this.length = length;
+        this.chunks = chunks;
+    }
+
+    static MappedInputFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            int count = (int) ((length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+            ByteBuffer[] chunks = new ByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long offset = (long) i * CHUNK_SIZE;
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(CHUNK_SIZE, length - offset));
+                chunks[i] = chunk;
+            }
+            return new MappedInputFile(path, length, chunks);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    @Override
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public SeekableInputStream newStream() {
+        return new MappedStream();
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+
+    private final class MappedStream extends SeekableInputStream {
+        private long position;
+
+        @Override
+        public long getPos() {
+            return position;
+        }
+
+        @Override
+        public void seek(long newPosition) throws IOException {
+            if (newPosition < 0 || newPosition > length) {
+                throw new EOFException("Seek to " + newPosition + " outside of " + path + " (" + length + " bytes)");
+            }
+            position = newPosition;
+        }
+
+        @Override
+        public int read() {
+            if (position >= length) {
+                return -1;
+            }
+            int value = chunks[(int) (position / CHUNK_SIZE)].get((int) (position % CHUNK_SIZE)) & 0xFF;
+            position++;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= length) {
+                return -1;
+            }
+            int n = (int) Math.min(len, length - position);
+            copy(bytes, offset, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0L, Math.min(n, length - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, length - position);
+        }
+
+        @Override
+        public void readFully(byte[] bytes) throws IOException {
+            readFully(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void readFully(byte[] bytes, int offset, int len) throws IOException {
+            requireRemaining(len);
+            copy(bytes, offset, len);
+        }
+
+        @Override
+        public int read(ByteBuffer target) {
+            if (!target.hasRemaining()) {
+                return 0;
+            }
+            if (position >= length) {
+                return -1;
+            }
+            int n = (int) Math.min(target.remaining(), length - position);
+            copy(target, n);
+            return n;
+        }
+
+        @Override
+        public void readFully(ByteBuffer target) throws IOException {
+            requireRemaining(target.remaining());
+            copy(target, target.remaining());
+        }
+
+        private void requireRemaining(int len) throws EOFException {
+            if (len > length - position) {
+                throw new EOFException("Reached the end of " + path + " with " + (length - position)
+                        + " bytes left, " + len + " requested");
+            }
+        }
+
+        private void copy(byte[] bytes, int offset, int len) {
+            while (len > 0) {
+                ByteBuffer chunk = chunks[(int) (position / CHUNK_SIZE)];
+                int inChunk = (int) (position % CHUNK_SIZE);
+                int n = Math.min(len, chunk.limit() - inChunk);
+                chunk.get(inChunk, bytes, offset, n);
+                position += n;
+                offset += n;
+                len -= n;
+            }
+        }
+
+        private void copy(ByteBuffer target, int len) {
+            while (len > 0) {
+                ByteBuffer chunk = chunks[(int) (position / CHUNK_SIZE)];
+                int inChunk = (int) (position % CHUNK_SIZE);
+                int n = Math.min(len, chunk.limit() - inChunk);
+                target.put(chunk.slice(inChunk, n));
+                position += n;
+                len -= n;
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package dev.novov.duckdb.engines.parquet;
+
+import java.io.IOException;
+
+/**
+ * Memory a scan worker's blocking state may hold under {@link dev.novov.duckdb.bench.api.RunConfig#memoryLimitBytes()}:
+ * the limit split evenly over the workers, so the merged states of all workers stay within it. State beyond its
+ * share goes to a {@link SpillFile}.
+ */
+record MemoryBudget(long workerBytes, ScanMetrics metrics) {
+
+    SpillFile newSpillFile() throws IOException {
+        return SpillFile.create(metrics);
+    }
+}
@@ -0,0 +1,248 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.bytes.ByteBufferReleaser;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.page.DataPage;
+import org.apache.parquet.column.page.DataPageV1;
+import org.apache.parquet.column.page.DataPageV2;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Off-heap cache of decompressed column-chunk pages keyed by file, row group and column, so repeated runs of a
+ * case measure decoding without I/O and decompression, like DuckDB runs against a warm buffer manager. Chunks are
+ * copied into direct buffers and evicted least recently used once {@code budgetBytes} is exceeded; an evicted
+ * chunk is freed once no reader holds it any more. Only whole row groups go through the cache, reads narrowed
+ * by the column index bypass it.
+ * <p>
+ * Direct buffers count against {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size.
+ */
+final class PageCache {
+    private final long budgetBytes;
+    private final Map<Key, Chunk> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+
+    PageCache(long budgetBytes) {
+        if (budgetBytes <= 0) {
+            throw new IllegalArgumentException("Page cache budget must be positive: " + budgetBytes);
+        }
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Pages of {@code columns} in row group {@code block} of {@code file}. Columns missing from the cache are read
+     * through {@code reader}, where the block is row group {@code index}, and added to the cache.
+     */
+    PageReadStore read(String file,
+                       ParquetFileReader reader,
+                       int index,
+                       BlockMetaData block,
+                       ColumnDescriptor[] columns,
+                       ScanMetrics metrics) throws IOException {
+        Key[] keys = new Key[columns.length];
+        Chunk[] chunks = new Chunk[columns.length];
+        int misses = 0;
+        synchronized (entries) {
+            for (int c = 0; c < columns.length; c++) {
+                keys[c] = new Key(file, block.getStartingPos(), ColumnPath.get(columns[c].getPath()));
+                chunks[c] = entries.get(keys[c]);
+                if (chunks[c] == null) {
+                    misses++;
+                }
+            }
+        }
+        metrics.pageCache(columns.length - misses, misses);
+        if (misses > 0) {
+            // the reader fetches every projected column; cached ones are dropped again
+            try (PageReadStore rowGroup = reader.readRowGroup(index)) {
+                for (int c = 0; c < columns.length; c++) {
+                    if (chunks[c] == null) {
+                        chunks[c] = Chunk.copy(rowGroup.getPageReader(columns[c]));
+                        put(keys[c], chunks[c]);
+                    }
+                }
+            }
+        }
+        return new CachedRowGroup(block.getRowCount(), columns, chunks);
+    }
+
+    private void put(Key key, Chunk chunk) {
+        long size = chunk.memory().capacity();
+        if (size > budgetBytes) {
+            return;
+        }
+        synchronized (entries) {
+            Chunk previous = entries.put(key, chunk);
+            if (previous != null) {
+                usedBytes -= previous.memory().capacity();
+            }
+            usedBytes += size;
+            Iterator<Chunk> eldest = entries.values().iterator();
+            while (usedBytes > budgetBytes && eldest.hasNext()) {
+                usedBytes -= eldest.next().memory().capacity();
+                eldest.remove();
+            }
+        }
+    }
+
+    private record Key(String file, long rowGroupStart, ColumnPath column) {
+    }
+
+    /** Decompressed pages of one column chunk, all backed by a single direct buffer. */
+    private record Chunk(ByteBuffer memory, CachedDictionary dictionary, List<CachedPage> pages, long valueCount) {
+
+        static Chunk copy(PageReader source) throws IOException {
+            DictionaryPage dictionary = source.readDictionaryPage();
+            List<DataPage> pages = new ArrayList<>();
+            for (DataPage page = source.readPage(); page != null; page = source.readPage()) {
+                pages.add(page);
+            }
+            long total = dictionary == null ? 0L : dictionary.getBytes().size();
+            for (DataPage page : pages) {
+                total += page instanceof DataPageV2 v2
+                        ? v2.getRepetitionLevels().size() + v2.getDefinitionLevels().size() + v2.getData().size()
+                        : ((DataPageV1) page).getBytes().size();
+            }
+            if (total > Integer.MAX_VALUE) {
+                throw new IOException("Column chunk too large to cache: " + total + " bytes");
+            }
+            ByteBuffer memory = ByteBuffer.allocateDirect((int) total);
+            CachedDictionary cachedDictionary = null;
+            int offset = 0;
+            if (dictionary != null) {
+                int length = put(memory, offset, dictionary.getBytes());
+                cachedDictionary = new CachedDictionary(offset, length, dictionary.getDictionarySize(), dictionary.getEncoding());
+                offset += length;
+            }
+            List<CachedPage> cached = new ArrayList<>(pages.size());
+            for (DataPage page : pages) {
+                if (page instanceof DataPageV1 v1) {
+                    int length = put(memory, offset, v1.getBytes());
+                    cached.add(new CachedV1(offset, length, v1.getValueCount(), v1.getStatistics(),
+                            v1.getRlEncoding(), v1.getDlEncoding(), v1.getValueEncoding()));
+                    offset += length;
+                } else {
+                    DataPageV2 v2 = (DataPageV2) page;
+                    int rlLength = put(memory, offset, v2.getRepetitionLevels());
+                    int dlLength = put(memory, offset + rlLength, v2.getDefinitionLevels());
+                    int dataLength = put(memory, offset + rlLength + dlLength, v2.getData());
+                    cached.add(new CachedV2(offset, rlLength, dlLength, dataLength, v2.getRowCount(), v2.getNullCount(),
+                            v2.getValueCount(), v2.getDataEncoding(), v2.getStatistics()));
+                    offset += rlLength + dlLength + dataLength;
+                }
+            }
+            return new Chunk(memory, cachedDictionary, cached, source.getTotalValueCount());
+        }
+
+        /** Copies {@code bytes} into {@code memory}; a heap buffer parquet-mr had to allocate is released after. */
+        private static int put(ByteBuffer memory, int offset, BytesInput bytes) {
+            try (ByteBufferReleaser releaser = new ByteBufferReleaser(HeapByteBufferAllocator.getInstance())) {
+                ByteBuffer source = bytes.toByteBuffer(releaser);
+                int length = source.remaining();
+                memory.put(offset, source, source.position(), length);
+                return length;
+            }
+        }
+    }
+
+    private record CachedDictionary(int offset, int length, int size, Encoding encoding) {
+        DictionaryPage page(ByteBuffer memory) {
+            return new DictionaryPage(BytesInput.from(memory.slice(offset, length)), size, encoding);
+        }
+    }
+
+    private sealed interface CachedPage permits CachedV1, CachedV2 {
+        DataPage page(ByteBuffer memory);
+    }
+
+    private record CachedV1(int offset,
+                            int length,
+                            int valueCount,
+                            Statistics<?> statistics,
+                            Encoding rlEncoding,
+                            Encoding dlEncoding,
+                            Encoding valuesEncoding) implements CachedPage {
+        @Override
+        public DataPage page(ByteBuffer memory) {
+            return new DataPageV1(BytesInput.from(memory.slice(offset, length)), valueCount, length, statistics,
+                    rlEncoding, dlEncoding, valuesEncoding);
+        }
+    }
+
+    private record CachedV2(int offset,
+                            int rlLength,
+                            int dlLength,
+                            int dataLength,
+                            int rowCount,
+                            int nullCount,
+                            int valueCount,
+                            Encoding dataEncoding,
+                            Statistics<?> statistics) implements CachedPage {
+        @Override
+        public DataPage page(ByteBuffer memory) {
+            return DataPageV2.uncompressed(rowCount, nullCount, valueCount,
+                    BytesInput.from(memory.slice(offset, rlLength)),
+                    BytesInput.from(memory.slice(offset + rlLength, dlLength)),
+                    dataEncoding,
+                    BytesInput.from(memory.slice(offset + rlLength + dlLength, dataLength)),
+                    statistics);
+        }
+    }
+
+    private record CachedRowGroup(long rowCount, ColumnDescriptor[] columns, Chunk[] chunks) implements PageReadStore {
+        @Override
+        public PageReader getPageReader(ColumnDescriptor descriptor) {
+            for (int c = 0; c < columns.length; c++) {
+                if (columns[c].equals(descriptor)) {
+                    return new ChunkReader(chunks[c]);
+                }
+            }
+            throw new IllegalArgumentException("Column " + descriptor + " was not read");
+        }
+
+        @Override
+        public long getRowCount() {
+            return rowCount;
+        }
+    }
+
+    private static final class ChunkReader implements PageReader {
+        private final Chunk chunk;
+        private int next;
+
+        private ChunkReader(Chunk chunk) {
+            this.chunk = chunk;
+        }
+
+        @Override
+        public DictionaryPage readDictionaryPage() {
+            return chunk.dictionary() == null ? null : chunk.dictionary().page(chunk.memory());
+        }
+
+        @Override
+        public long getTotalValueCount() {
+            return chunk.valueCount();
+        }
+
+        @Override
+        public DataPage readPage() {
+            return next < chunk.pages().size() ? chunk.pages().get(next++).page(chunk.memory()) : null;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BinaryOperator;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Row-group parallel scan: the footer is split into {@link RowGroupPlanner.ScanRange}s and each worker of the
+ * {@link ExecutionContext} pool pulls ranges from a shared queue, scanning them into its own thread-local state.
+ * The per-worker states are merged on the calling thread once every range has been consumed.
+ */
+final class ParallelScan implements TableScan {
+    /** Ranges per worker; more than one keeps workers busy when pruning leaves ranges uneven. */
+    private static final int RANGES_PER_WORKER = 4;
+
+    private final String file;
+    private final List<String> columns;
+    private final FilterCompat.Filter rowGroupFilter;
+    private final ExecutionContext context;
+    private final Predicate<BlockMetaData> include;
+    private final List<RowGroupPlanner.ScanRange> ranges;
+    private final ParquetScanner probe;
+    private BoundFilter lateFilter;
+
+    private ParallelScan(String file,
+                         List<String> columns,
+                         FilterCompat.Filter rowGroupFilter,
+                         ExecutionContext context,
+                         Predicate<BlockMetaData> include,
+                         List<RowGroupPlanner.ScanRange> ranges,
+                         ParquetScanner probe) {
+        this.file = file;
+        this.columns = columns;
+        this.rowGroupFilter = rowGroupFilter;
+        this.context = context;
+        this.include = include;
+        this.ranges = ranges;
+        this.probe = probe;
+    }
+
+    static ParallelScan plan(String file, List<String> columns, ExecutionContext context) throws IOException {
+        return plan(file, columns, FilterCompat.NOOP, context);
+    }
+
+    static ParallelScan plan(String file,
+                             List<String> columns,
+                             FilterCompat.Filter rowGroupFilter,
+                             ExecutionContext context) throws IOException {
+        return plan(file, columns, rowGroupFilter, block -> true, context);
+    }
+
+    /**
+     * Plans a scan of the row groups that survive {@code rowGroupFilter} and are accepted by {@code include};
+     * callers use the latter for row groups they can answer from metadata (see {@link #rowGroups()}).
+     */
+    static ParallelScan plan(String file,
+                             List<String> columns,
+                             FilterCompat.Filter rowGroupFilter,
+                             Predicate<BlockMetaData> include,
+                             ExecutionContext context) throws IOException {
+        ParquetScanner probe = ParquetScanner.open(context.io(), file, columns, rowGroupFilter, true, context.pageCache());
+        int footerRowGroups = probe.footerRowGroupCount();
+        context.metrics().rowGroups(footerRowGroups, footerRowGroups - probe.rowGroups().size());
+        List<RowGroupPlanner.ScanRange> ranges;
+        if (context.parallelism() <= 1 || context.config().limitRowsOrMinusOne() > 0) {
+            ranges = List.of();
+        } else {
+            List<BlockMetaData> scanned = probe.rowGroups().stream().filter(include).toList();
+            ranges = RowGroupPlanner.plan(scanned, context.parallelism() * RANGES_PER_WORKER);
+        }
+        return new ParallelScan(file, columns, rowGroupFilter, context, include, ranges, probe);
+    }
+
+    /** Row groups left after statistics/dictionary filtering, before {@code include} is applied. */
+    @Override
+    public List<BlockMetaData> rowGroups() {
+        return probe.rowGroups();
+    }
+
+    @Override
+    public int columnIndex(String logicalColumn) {
+        return probe.columnIndex(logicalColumn);
+    }
+
+    @Override
+    public PrimitiveType.PrimitiveTypeName columnType(int index) {
+        return probe.columnType(index);
+    }
+
+    /**
+     * Has every scanner of this plan evaluate {@code filter} itself and decode the other columns only where it
+     * matches (see {@link ParquetScanner#filterFirst}).
+     */
+    @Override
+    public ParallelScan materializeLate(BoundFilter filter) {
+        this.lateFilter = filter;
+        return this;
+    }
+
+    /**
+     * Scans every row group into worker-local states created by {@code newState} and folds them with
+     * {@code merge}. Runs on the calling thread when the plan has at most one range.
+     */
+    @Override
+    public <S> S run(Supplier<S> newState, BatchAccumulator<S> accumulator, BinaryOperator<S> merge) throws IOException {
+        if (ranges.size() <= 1) {
+            try (ParquetScanner scanner = prepare(probe)) {
+                S state = newState.get();
+                scanner.scan(batch -> accumulator.accept(state, batch), context.config().limitRowsOrMinusOne(), context.metrics(), include);
+                return state;
+            }
+        }
+        probe.close();
+
+        ConcurrentLinkedQueue<RowGroupPlanner.ScanRange> queue = new ConcurrentLinkedQueue<>(ranges);
+        int workers = Math.min(context.parallelism(), ranges.size());
+        List<Future<S>> futures = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            futures.add(context.workers().submit(() -> {
+                S state = newState.get();
+                // one reader per worker; the probe already chose the row groups, so only page filtering remains
+                try (ParquetScanner scanner = prepare(ParquetScanner.open(context.io(), file, columns, rowGroupFilter,
+                        false, context.pageCache()))) {
+                    RowGroupPlanner.ScanRange range;
+                    while ((range = queue.poll()) != null) {
+                        RowGroupPlanner.ScanRange current = range;
+                        scanner.scan(batch -> accumulator.accept(state, batch), -1L, context.metrics(),
+                                block -> current.contains(block) && include.test(block));
+                    }
+                }
+                return state;
+            }));
+        }
+
+        S result = null;
+        for (Future<S> future : futures) {
+            S state = await(future);
+            result = result == null ? state : merge.apply(result, state);
+        }
+        return result;
+    }
+
+    private ParquetScanner prepare(ParquetScanner scanner) {
+        scanner.assemble(context.assembly());
+        if (lateFilter != null) {
+            scanner.filterFirst(lateFilter.kernel(scanner::columnIndex), lateFilter.columns());
+        }
+        return scanner;
+    }
+
+    static <S> S await(Future<S> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for scan workers", ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof UncheckedIOException uio) {
+                throw uio.getCause();
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException("Scan worker failed", cause);
+        }
+    }
+}
@@ -2,12 +2,19 @@ package dev.novov.duckdb.engines.parquet;
 
 import dev.novov.duckdb.bench.api.*;
 import dev.novov.duckdb.bench.util.GC;
+import dev.novov.duckdb.bench.util.MemoryUtil;
+import dev.novov.duckdb.bench.util.Stopwatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Manual Parquet reader that implements the same benchmark SPI without delegating to a database.
@@ -16,47 +23,106 @@ public final class ParquetEngine implements AnalyticsEngine {
     private static final Logger LOGGER = LoggerFactory.getLogger(ParquetEngine.class);
     private static final Duration GC_PAUSE = Duration.ofMillis(200);
 
-    private final GroupByExecutor groupByExecutor = new GroupByExecutor();
-    private final FilterExecutor filterExecutor = new FilterExecutor();
-    private final TopKExecutor topKExecutor = new TopKExecutor();
-    private final SalesByYearExecutor salesByYear = new SalesByYearExecutor();
-    private final AvgByDistrictExecutor avgByDistrict = new AvgByDistrictExecutor();
-    private final NewVsOldExecutor newVsOld = new NewVsOldExecutor();
-    private final MedianByDistrictExecutor medianByDistrict = new MedianByDistrictExecutor();
+    private final ParquetIo io;
+    private final Assembly assembly;
+
+    public ParquetEngine() {
+        this(ParquetIo.MAPPED);
+    }
+
+    public ParquetEngine(ParquetIo io) {
+        this(io, Assembly.COLUMNAR);
+    }
+
+    public ParquetEngine(ParquetIo io, Assembly assembly) {
+        this.io = io;
+        this.assembly = assembly;
+    }
 
     @Override
     public String name() {
-        return "parquet-manual";
+        String name = io == ParquetIo.MAPPED ? "parquet-manual" : "parquet-manual-hadoop";
+        return switch (assembly) {
+            case COLUMNAR -> name;
+            case ROW_SINK -> name + "-rowsink";
+            case GROUPS -> name + "-groups";
+        };
     }
 
     @Override
     public CaseResult run(QueryCase queryCase, RunConfig config) throws Exception {
         LOGGER.info("[parquet] Running {} with {}", queryCase.id(), config);
-        for (int i = 0; i < config.warmupRuns(); i++) {
-            execute(queryCase, config);
-        }
-        List<CaseRun> runs = new ArrayList<>(config.measuredRuns());
-        for (int i = 0; i < config.measuredRuns(); i++) {
-            if (config.coldJVM()) {
-                GC.requestGc(GC_PAUSE);
+        int parallelism = config.threads() > 0 ? config.threads() : Runtime.getRuntime().availableProcessors();
+        try (ExecutorService workers = Executors.newFixedThreadPool(parallelism, new WorkerThreadFactory())) {
+            // one cache per case, so warmups fill it and measured runs read decompressed pages
+            PageCache pageCache = config.pageCacheBytes() > 0 ? new PageCache(config.pageCacheBytes()) : null;
+            ExecutionContext context = new ExecutionContext(config, workers, parallelism, io, assembly, pageCache, new ScanMetrics());
+            for (int i = 0; i < config.warmupRuns(); i++) {
+                executeAll(queryCase, context);
+            }
+            List<CaseRun> runs = new ArrayList<>(config.measuredRuns());
+            for (int i = 0; i < config.measuredRuns(); i++) {
+                if (config.coldJVM()) {
+                    GC.requestGc(GC_PAUSE);
+                }
+                runs.addAll(executeAll(queryCase, context));
             }
-            runs.add(execute(queryCase, config));
+            return new CaseResult(queryCase, name(), runs);
+        }
+    }
+
+    /**
+     * Copies the Parquet file {@code source} to {@code target} with bloom filters on {@code columns}, for
+     * {@link LookupCase}s.
+     */
+    public void writeBloomFilteredCopy(String source, String target, List<String> columns) throws IOException {
+        BloomFilterCopy.write(io, source, target, columns);
+    }
+
+    /**
+     * Converts the headerless pp-complete.csv {@code csv} to {@code target} with up to {@code threads} parallel
+     * writers and returns the number of rows written.
+     */
+    public long csvToParquet(String csv, String target, int threads, ParquetWriteOptions options) throws IOException {
+        return CsvToParquet.convert(csv, target, threads, options);
+    }
+
+    /** One run of {@code queryCase}: a single execution, or one per key of a {@link LookupCase}. */
+    private List<CaseRun> executeAll(QueryCase queryCase, ExecutionContext context) throws Exception {
+        if (!(queryCase instanceof LookupCase lookup)) {
+            return List.of(execute(queryCase, null, context));
+        }
+        if (lookup.keys().isEmpty()) {
+            throw new IllegalArgumentException("Lookup case " + lookup.id() + " has no keys");
+        }
+        List<CaseRun> runs = new ArrayList<>(lookup.keys().size());
+        for (String key : lookup.keys()) {
+            runs.add(execute(queryCase, key, context));
+        }
+        return runs;
+    }
+
+    private CaseRun execute(QueryCase queryCase, String key, ExecutionContext shared) throws Exception {
+        ExecutionContext context = shared.nextExecution();
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        long before = MemoryUtil.sampleUsedBytes();
+        PhysicalPlan<?> plan = queryCase instanceof LookupCase lookup
+                ? QueryPlanner.lookup(lookup, key, context)
+                : QueryPlanner.plan(queryCase, context);
+        long rowsOut = plan.execute(context);
+        stopwatch.stop();
+        long deltaMem = Math.max(0L, MemoryUtil.sampleUsedBytes() - before);
+        return new CaseRun(stopwatch.elapsedNanos(), rowsOut, -1L, deltaMem).withMetrics(context.metrics().snapshot());
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "parquet-scan-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         }
-        return new CaseResult(queryCase, name(), runs);
-    }
-
-    private CaseRun execute(QueryCase queryCase, RunConfig config) throws Exception {
-        return switch (queryCase) {
-            case GroupByCase groupBy -> groupByExecutor.execute(groupBy, config);
-            case FilterCase filter -> filterExecutor.execute(filter, config);
-            case TopKCase topK -> topKExecutor.execute(topK, config);
-            case GroupByYearCase c -> salesByYear.execute(c, config);
-            case AvgByDistrictCase c -> avgByDistrict.execute(c, config);
-            case NewBuildVsOldCase c -> newVsOld.execute(c, config);
-            case MedianByDistrictCase c -> medianByDistrict.execute(c, config);
-            case DescribeCase c -> throw new UnsupportedOperationException("Describe is DuckDB-only");
-            case HeadCase c -> throw new UnsupportedOperationException("Head is DuckDB-only");
-            default -> throw new IllegalStateException("Unexpected value: " + queryCase);
-        };
     }
 }
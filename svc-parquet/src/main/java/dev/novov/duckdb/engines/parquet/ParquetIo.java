@@ -0,0 +1,100 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.parquet.HadoopReadOptions;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.InputFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * How {@link ParquetScanner} opens files. {@link #MAPPED} reads local files through {@link MappedInputFile} and
+ * plain {@link ParquetReadOptions}, so no Hadoop {@code Configuration} or {@code FileSystem} is created; other
+ * schemes still go through Hadoop. {@link #HADOOP} always uses {@link HadoopInputFile}, for comparison.
+ */
+public enum ParquetIo {
+    MAPPED,
+    HADOOP;
+
+    // the no-arg builder would create a Hadoop Configuration for every reader
+    private static final ParquetConfiguration PLAIN_CONFIGURATION = new PlainParquetConfiguration();
+
+    /** Local file to map, or {@code null} when {@code file} has to be read through Hadoop. */
+    Path mappablePath(String file) {
+        return this == MAPPED ? localPath(file) : null;
+    }
+
+    FileStatus hadoopStatus(String file) throws IOException {
+        org.apache.hadoop.fs.Path path = new org.apache.hadoop.fs.Path(file);
+        return path.getFileSystem(HadoopHolder.CONFIGURATION).getFileStatus(path);
+    }
+
+    HadoopInputFile hadoopInputFile(FileStatus status) throws IOException {
+        return HadoopInputFile.fromStatus(status, HadoopHolder.CONFIGURATION);
+    }
+
+    ParquetReadOptions.Builder options(InputFile input) {
+        if (input instanceof MappedInputFile) {
+            return ParquetReadOptions.builder(PLAIN_CONFIGURATION)
+                    .useStatsFilter(true)
+                    .useDictionaryFilter(true)
+                    .useBloomFilter(true)
+                    .useColumnIndexFilter(true);
+        }
+        HadoopInputFile hadoop = (HadoopInputFile) input;
+        return HadoopReadOptions.builder(hadoop.getConfiguration(), hadoop.getPath());
+    }
+
+    /**
+     * Opens a reader that reuses the already parsed {@code footer}. parquet-mr 1.14 only accepts a footer through
+     * its Hadoop constructor, so mapped files still decode their footer once per reader.
+     */
+    ParquetFileReader reader(InputFile input, ParquetMetadata footer, ParquetReadOptions options) throws IOException {
+        if (input instanceof HadoopInputFile hadoop) {
+            return new ParquetFileReader(hadoop.getConfiguration(), hadoop.getPath(), footer, options);
+        }
+        return ParquetFileReader.open(input, options);
+    }
+
+    /** Local path of {@code file} when it has no scheme or the {@code file} scheme, otherwise {@code null}. */
+    private static Path localPath(String file) {
+        try {
+            String lower = file.toLowerCase(Locale.ROOT);
+            Path path;
+            if (lower.startsWith("file:")) {
+                path = Path.of(URI.create(file));
+            } else if (lower.matches("^[a-z][a-z0-9+.-]+://.*")) {
+                return null;
+            } else {
+                path = Path.of(file);
+            }
+            return Files.isRegularFile(path) ? path : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /** Created on first use so the mapped path never loads Hadoop's configuration classes. */
+    private static final class HadoopHolder {
+        static final Configuration CONFIGURATION = configuration();
+
+        private static Configuration configuration() {
+            Configuration conf = new Configuration();
+            conf.setBoolean("parquet.filter.statistics.enabled", true);
+            conf.setBoolean("parquet.filter.dictionary.enabled", true);
+            conf.setBoolean("parquet.filter.columnindex.enabled", true);
+            conf.setBoolean("fs.file.impl.disable.cache", true);
+            return conf;
+        }
+    }
+}
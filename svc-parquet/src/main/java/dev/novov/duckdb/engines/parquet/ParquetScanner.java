@@ -1,26 +1,61 @@
 package dev.novov.duckdb.engines.parquet;
 
-import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.Path;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
 import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.filter2.compat.FilterCompat;
 import org.apache.parquet.hadoop.ParquetFileReader;
-import org.apache.parquet.hadoop.ParquetReader;
-import org.apache.parquet.hadoop.example.GroupReadSupport;
-import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.internal.filter2.columnindex.ColumnIndexFilter;
+import org.apache.parquet.internal.filter2.columnindex.ColumnIndexStore;
+import org.apache.parquet.internal.filter2.columnindex.RowRanges;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.PrimitiveType;
 import org.apache.parquet.schema.Type;
-import org.apache.parquet.hadoop.api.ReadSupport;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.function.Predicate;
 
+/**
+ * Columnar reader that decodes projected columns straight from the row group pages into reusable
+ * {@link ColumnVector}s instead of assembling a {@code Group} per row.
+ * <p>
+ * With {@link #filterFirst} the scanner materializes late: the filter columns are decoded and the filter is
+ * evaluated before the other columns, which are then decoded only at the selected rows. When every late column has
+ * an offset index, a row group is read in two passes instead, so pages of late columns without a selected row are
+ * neither read nor decompressed.
+ * <p>
+ * With an {@link Assembly} other than {@link Assembly#COLUMNAR} the scanner assembles records instead, for
+ * comparison with readers built on parquet-mr's record API; such scans cannot materialize late.
+ */
 final class ParquetScanner implements AutoCloseable {
     private static final Map<String, List<String>> ALIASES = Map.ofEntries(
             Map.entry("trip_total", List.of("trip_total", "total_amount")),
@@ -33,62 +68,126 @@ final class ParquetScanner implements AutoCloseable {
             Map.entry("fare_amount", List.of("fare_amount", "fare", "trip_total"))
     );
 
-    private final ParquetReader<Group> reader;
-    private final Map<String, ColumnMetadata> metadata;
+    private final String file;
+    private final ParquetFileReader fileReader;
+    private final PageCache pageCache;
+    private final FilterCompat.Filter rowGroupFilter;
+    private final Projection projection;
+    private final String createdBy;
+    private final ColumnDescriptor[] descriptors;
+    private final VectorConverter[] converters;
+    private final RootConverter rootConverter;
+    private final RowBatch batch;
+    private final boolean[] selection = new boolean[RowBatch.DEFAULT_CAPACITY];
+    private BatchPredicate filter;
+    /** Per projected column: decoded before the filter is evaluated. */
+    private boolean[] filterColumn;
+    private MessageType filterSchema;
+    private RootConverter filterConverter;
+    private boolean pageSkipping;
+    private Assembly assembly = Assembly.COLUMNAR;
+    private BatchSink rowSink;
+    private RowSinkMaterializer rowSinkMaterializer;
 
-    private ParquetScanner(ParquetReader<Group> reader, Map<String, ColumnMetadata> metadata) {
-        this.reader = reader;
-        this.metadata = metadata;
+    private ParquetScanner(String file,
+                           ParquetFileReader fileReader,
+                           PageCache pageCache,
+                           FilterCompat.Filter rowGroupFilter,
+                           Projection projection) {
+        this.file = file;
+        this.fileReader = fileReader;
+        this.pageCache = pageCache;
+        this.rowGroupFilter = rowGroupFilter;
+        this.projection = projection;
+        this.createdBy = fileReader.getFooter().getFileMetaData().getCreatedBy();
+        MessageType schema = projection.projectedSchema();
+        int columns = schema.getFieldCount();
+        this.descriptors = new ColumnDescriptor[columns];
+        this.converters = new VectorConverter[columns];
+        ColumnVector[] vectors = new ColumnVector[columns];
+        for (int i = 0; i < columns; i++) {
+            Type field = schema.getType(i);
+            descriptors[i] = schema.getColumnDescription(new String[]{field.getName()});
+            vectors[i] = new ColumnVector(field.getName(), field.asPrimitiveType(), RowBatch.DEFAULT_CAPACITY);
+            converters[i] = new VectorConverter(vectors[i]);
+        }
+        this.rootConverter = new RootConverter(converters);
+        this.batch = new RowBatch(vectors, RowBatch.DEFAULT_CAPACITY);
+    }
+
+    static ParquetScanner open(ParquetIo io,
+                               String file,
+                               List<String> requestedColumns,
+                               FilterCompat.Filter rowGroupFilter) throws IOException {
+        return open(io, file, requestedColumns, rowGroupFilter, true, null);
     }
 
-    static ParquetScanner open(String file, List<String> requestedColumns) throws IOException {
+    /**
+     * Opens a scanner over {@code file}; input and footer come from the {@link FooterCache}. With
+     * {@code filterRowGroups} off, statistics and dictionary filtering are skipped (the caller already planned
+     * the row groups) and {@code rowGroupFilter} only drives page filtering through the column index. Whole row
+     * groups are read through {@code pageCache} unless it is {@code null}.
+     */
+    static ParquetScanner open(ParquetIo io,
+                               String file,
+                               List<String> requestedColumns,
+                               FilterCompat.Filter rowGroupFilter,
+                               boolean filterRowGroups,
+                               PageCache pageCache) throws IOException {
         Objects.requireNonNull(file, "file");
         if (requestedColumns == null || requestedColumns.isEmpty()) {
             throw new IllegalArgumentException("At least one column must be requested");
         }
-        Path path = new Path(file);
-        Configuration conf = new Configuration();
-        conf.setBoolean("parquet.filter.statistics.enabled", true);
-        conf.setBoolean("parquet.filter.dictionary.enabled", true);
-        conf.setBoolean("parquet.filter.columnindex.enabled", true);
-        conf.setBoolean("fs.file.impl.disable.cache", true);
-        Projection projection = prepareProjection(path, conf, requestedColumns);
-        conf.set(ReadSupport.PARQUET_READ_SCHEMA, projection.projectedSchema().toString());
-        ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), path)
-                .withConf(conf)
-                .build();
-        return new ParquetScanner(reader, projection.metadata());
-    }
-
-    private static Projection prepareProjection(Path path, Configuration conf, List<String> requestedColumns) throws IOException {
-        try (ParquetFileReader fileReader = ParquetFileReader.open(HadoopInputFile.fromPath(path, conf))) {
-            MessageType schema = fileReader.getFooter().getFileMetaData().getSchema();
-            Map<String, ColumnMetadata> metadata = new HashMap<>();
-            List<Type> projectedTypes = new ArrayList<>();
-            Map<String, String> logicalToPhysical = new LinkedHashMap<>();
-            for (String logical : requestedColumns) {
-                String physical = resolvePhysicalColumn(schema, logical);
-                if (logicalToPhysical.containsKey(logical)) {
-                    continue;
-                }
-                Type type = schema.getType(physical);
-                projectedTypes.add(type);
-                logicalToPhysical.put(logical, type.getName());
+        FooterCache.CachedFile cached = FooterCache.shared().open(io, file);
+        ParquetMetadata footer = cached.footer();
+        Projection projection = prepareProjection(footer.getFileMetaData().getSchema(), requestedColumns);
+        ParquetReadOptions.Builder options = io.options(cached.input()).withRecordFilter(rowGroupFilter);
+        if (!filterRowGroups) {
+            options.useStatsFilter(false).useDictionaryFilter(false).useBloomFilter(false);
+        }
+        ParquetFileReader fileReader = io.reader(cached.input(), footer, options.build());
+        try {
+            fileReader.setRequestedSchema(projection.projectedSchema());
+            return new ParquetScanner(file, fileReader, pageCache, rowGroupFilter, projection);
+        } catch (RuntimeException ex) {
+            fileReader.close();
+            throw ex;
+        }
+    }
+
+    /** Schema from the footer of {@code file}, for binding filters before a scan is planned. */
+    static MessageType readSchema(ParquetIo io, String file) throws IOException {
+        return FooterCache.shared().open(io, file).footer().getFileMetaData().getSchema();
+    }
+
+    /** Primitive column of {@code schema} that {@code logical} (or one of its aliases) refers to. */
+    static PrimitiveType resolveColumn(MessageType schema, String logical) {
+        Type type = schema.getType(resolvePhysicalColumn(schema, logical));
+        if (!type.isPrimitive()) {
+            throw new IllegalArgumentException("Only primitive fields are supported: " + type.getName());
+        }
+        return type.asPrimitiveType();
+    }
+
+    private static Projection prepareProjection(MessageType schema, List<String> requestedColumns) {
+        List<Type> projectedTypes = new ArrayList<>();
+        Map<String, String> logicalToPhysical = new LinkedHashMap<>();
+        for (String logical : requestedColumns) {
+            if (logicalToPhysical.containsKey(logical)) {
+                continue;
             }
-            MessageType projection = new MessageType(schema.getName(), projectedTypes);
-            for (Map.Entry<String, String> entry : logicalToPhysical.entrySet()) {
-                String logical = entry.getKey();
-                String physical = entry.getValue();
-                int index = projection.getFieldIndex(physical);
-                Type type = projection.getType(physical);
-                if (!type.isPrimitive()) {
-                    throw new IllegalArgumentException("Only primitive fields are supported: " + physical);
-                }
-                PrimitiveType.PrimitiveTypeName primitive = type.asPrimitiveType().getPrimitiveTypeName();
-                metadata.put(logical, new ColumnMetadata(logical, physical, index, primitive));
+            Type type = resolveColumn(schema, logical);
+            if (!logicalToPhysical.containsValue(type.getName())) {
+                projectedTypes.add(type);
             }
-            return new Projection(schema, projection, metadata);
+            logicalToPhysical.put(logical, type.getName());
         }
+        MessageType projection = new MessageType(schema.getName(), projectedTypes);
+        Map<String, Integer> columnIndexes = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : logicalToPhysical.entrySet()) {
+            columnIndexes.put(entry.getKey(), projection.getFieldIndex(entry.getValue()));
+        }
+        return new Projection(schema, projection, columnIndexes);
     }
 
     private static String resolvePhysicalColumn(MessageType schema, String logical) {
@@ -114,84 +213,619 @@ final class ParquetScanner implements AutoCloseable {
         return null;
     }
 
-    public void scan(GroupConsumer consumer, long rowLimit) throws IOException {
-        Group group;
-        long processed = 0L;
-        while ((group = reader.read()) != null) {
-            if (rowLimit > 0 && processed >= rowLimit) {
-                break;
+    /** Row groups of the footer before statistics/dictionary filtering. */
+    int footerRowGroupCount() {
+        return fileReader.getFooter().getBlocks().size();
+    }
+
+    /** Row groups left after range and statistics/dictionary filtering. */
+    List<BlockMetaData> rowGroups() {
+        return fileReader.getRowGroups();
+    }
+
+    /** Position of the vector holding {@code logicalColumn} in every {@link RowBatch} produced by this scanner. */
+    int columnIndex(String logicalColumn) {
+        Integer index = projection.columnIndexes().get(logicalColumn);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown column mapping for " + logicalColumn);
+        }
+        return index;
+    }
+
+    /** Physical type of the vector at {@code index} of every batch. */
+    PrimitiveType.PrimitiveTypeName columnType(int index) {
+        return batch.column(index).type;
+    }
+
+    /**
+     * Evaluates {@code filter}, a kernel bound to this scanner's {@link #columnIndex}, during the scan. It may only
+     * read {@code filterColumns}; the remaining columns are decoded after it, and only at the rows it selects.
+     * Batches report their selected rows in {@link RowBatch#selection}, and batches without any are not delivered.
+     */
+    void filterFirst(BatchPredicate filter, Collection<String> filterColumns) {
+        MessageType projected = projection.projectedSchema();
+        boolean[] eager = new boolean[descriptors.length];
+        for (String column : filterColumns) {
+            eager[columnIndex(column)] = true;
+        }
+        List<Type> fields = new ArrayList<>();
+        List<Converter> fieldConverters = new ArrayList<>();
+        for (int c = 0; c < descriptors.length; c++) {
+            if (eager[c]) {
+                fields.add(projected.getType(c));
+                fieldConverters.add(converters[c]);
             }
-            processed++;
-            consumer.accept(group);
         }
+        this.filter = filter;
+        this.filterColumn = eager;
+        this.filterSchema = new MessageType(projected.getName(), fields);
+        this.filterConverter = new RootConverter(fieldConverters.toArray(Converter[]::new));
+        this.pageSkipping = true;
     }
 
-    public String getKey(Group group, String logicalColumn) {
-        ColumnMetadata meta = metadata(logicalColumn);
-        if (!hasValue(group, meta)) {
-            return "NULL";
+    /** Assembles the rows of every batch as {@code assembly} says; {@link Assembly#COLUMNAR} by default. */
+    void assemble(Assembly assembly) {
+        this.assembly = Objects.requireNonNull(assembly, "assembly");
+        if (assembly == Assembly.ROW_SINK && rowSink == null) {
+            rowSink = new BatchSink();
+            rowSinkMaterializer = new RowSinkMaterializer(rowSink, descriptors.length);
         }
-        return group.getValueToString(meta.fieldIndex(), 0);
     }
 
-    public String getString(Group group, String logicalColumn) {
-        ColumnMetadata meta = metadata(logicalColumn);
-        if (!hasValue(group, meta)) {
+    public void scan(BatchConsumer consumer, long rowLimit) throws IOException {
+        scan(consumer, rowLimit, new ScanMetrics());
+    }
+
+    public void scan(BatchConsumer consumer, long rowLimit, ScanMetrics metrics) throws IOException {
+        scan(consumer, rowLimit, metrics, block -> true);
+    }
+
+    /** Scans the row groups accepted by {@code include}; the others are assumed to be handled by the caller. */
+    public void scan(BatchConsumer consumer,
+                     long rowLimit,
+                     ScanMetrics metrics,
+                     Predicate<BlockMetaData> include) throws IOException {
+        long remaining = rowLimit > 0 ? rowLimit : Long.MAX_VALUE;
+        List<BlockMetaData> blocks = fileReader.getRowGroups();
+        for (int block = 0; block < blocks.size() && remaining > 0; block++) {
+            if (!include.test(blocks.get(block))) {
+                continue;
+            }
+            if (filter != null && pageSkipping && rowLimit <= 0) {
+                OffsetIndex[] lateOffsets = lateOffsetIndexes(block);
+                if (lateOffsets != null) {
+                    scanInTwoPasses(block, blocks.get(block), lateOffsets, consumer, metrics);
+                    continue;
+                }
+            }
+            try (PageReadStore rowGroup = readRowGroup(block, blocks.get(block), metrics)) {
+                if (rowGroup != null) {
+                    remaining -= scanRowGroup(rowGroup, consumer, remaining);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads row group {@code index}, restricted to the pages whose column index may match the filter.
+     * Returns {@code null} when no page of the row group can match.
+     */
+    private PageReadStore readRowGroup(int index, BlockMetaData block, ScanMetrics metrics) throws IOException {
+        return read(index, block, pageRanges(index, block, metrics), descriptors, metrics);
+    }
+
+    /** Rows of row group {@code index} on pages whose column index may match the filter. */
+    private RowRanges pageRanges(int index, BlockMetaData block, ScanMetrics metrics) throws IOException {
+        long rowCount = block.getRowCount();
+        if (!FilterCompat.isFilteringRequired(rowGroupFilter)) {
+            return RowRanges.createSingle(rowCount);
+        }
+        ColumnIndexStore indexes = fileReader.getColumnIndexStore(index);
+        Set<ColumnPath> paths = new HashSet<>();
+        for (ColumnChunkMetaData chunk : block.getColumns()) {
+            paths.add(chunk.getPath());
+        }
+        RowRanges ranges = ColumnIndexFilter.calculateRowRanges(rowGroupFilter, indexes, paths, rowCount);
+        countPages(indexes, ranges, rowCount, metrics);
+        metrics.rows(rowCount, rowCount - ranges.rowCount());
+        return ranges;
+    }
+
+    /**
+     * Pages of {@code columns}, which the file reader's requested schema must cover, holding the rows in
+     * {@code ranges}; {@code null} when there are none.
+     */
+    private PageReadStore read(int index,
+                               BlockMetaData block,
+                               RowRanges ranges,
+                               ColumnDescriptor[] columns,
+                               ScanMetrics metrics) throws IOException {
+        if (ranges.rowCount() == 0) {
             return null;
         }
-        return switch (meta.typeName()) {
-            case BINARY -> group.getBinary(meta.fieldIndex(), 0).toStringUsingUTF8();
-            default -> group.getValueToString(meta.fieldIndex(), 0);
-        };
+        if (ranges.rowCount() < block.getRowCount()) {
+            return fileReader.readFilteredRowGroup(index, ranges);
+        }
+        if (pageCache == null) {
+            return fileReader.readRowGroup(index);
+        }
+        return pageCache.read(file, fileReader, index, block, columns, metrics);
     }
 
-    public double getDouble(Group group, String logicalColumn) {
-        ColumnMetadata meta = metadata(logicalColumn);
-        if (!hasValue(group, meta)) {
-            return Double.NaN;
+    /** Offset indexes of the columns decoded after the filter, or {@code null} unless every one has one. */
+    private OffsetIndex[] lateOffsetIndexes(int index) {
+        ColumnIndexStore indexes = fileReader.getColumnIndexStore(index);
+        OffsetIndex[] offsets = new OffsetIndex[descriptors.length];
+        for (int c = 0; c < descriptors.length; c++) {
+            if (filterColumn[c]) {
+                continue;
+            }
+            try {
+                offsets[c] = indexes.getOffsetIndex(ColumnPath.get(descriptors[c].getPath()));
+            } catch (ColumnIndexStore.MissingOffsetIndexException ex) {
+                return null;
+            }
+            if (offsets[c] == null) {
+                return null;
+            }
         }
-        return switch (meta.typeName()) {
-            case DOUBLE -> group.getDouble(meta.fieldIndex(), 0);
-            case FLOAT -> group.getFloat(meta.fieldIndex(), 0);
-            case INT64 -> group.getLong(meta.fieldIndex(), 0);
-            case INT32 -> group.getInteger(meta.fieldIndex(), 0);
-            case BOOLEAN -> group.getBoolean(meta.fieldIndex(), 0) ? 1d : 0d;
-            case BINARY -> Double.parseDouble(group.getBinary(meta.fieldIndex(), 0).toStringUsingUTF8());
-            case INT96 -> Double.parseDouble(group.getValueToString(meta.fieldIndex(), 0));
-            default -> Double.parseDouble(group.getValueToString(meta.fieldIndex(), 0));
-        };
+        return offsets;
     }
 
-    private ColumnMetadata metadata(String logicalColumn) {
-        ColumnMetadata meta = metadata.get(logicalColumn);
-        if (meta == null) {
-            throw new IllegalArgumentException("Unknown column mapping for " + logicalColumn);
+    /**
+     * Late materialization with page skipping. The first pass decodes the filter columns of the row group and
+     * records the selected rows; the second reads every column, but only the pages of late columns holding a
+     * selected row, and decodes values at the selected rows alone. If the first pass shows that most pages are
+     * needed anyway, the scanner keeps to one pass for its remaining row groups.
+     */
+    private void scanInTwoPasses(int index,
+                                 BlockMetaData block,
+                                 OffsetIndex[] lateOffsets,
+                                 BatchConsumer consumer,
+                                 ScanMetrics metrics) throws IOException {
+        long rowCount = block.getRowCount();
+        RowRanges candidates = pageRanges(index, block, metrics);
+        if (candidates.rowCount() == 0) {
+            return;
+        }
+        long[] selected = new long[(int) ((rowCount + 63) >>> 6)];
+        PageReadStore filterPages;
+        fileReader.setRequestedSchema(filterSchema);
+        try {
+            filterPages = read(index, block, candidates, filterDescriptors(), metrics);
+        } finally {
+            fileReader.setRequestedSchema(projection.projectedSchema());
+        }
+        long survivors = 0L;
+        try (PageReadStore pages = filterPages) {
+            ColumnReader[] readers = readers(pages, filterConverter, filterSchema);
+            PrimitiveIterator.OfLong rows = candidates.iterator();
+            long done = 0L;
+            while (done < candidates.rowCount()) {
+                int n = (int) Math.min(batch.capacity(), candidates.rowCount() - done);
+                for (int c = 0; c < readers.length; c++) {
+                    if (filterColumn[c]) {
+                        fill(readers[c], c, n);
+                    }
+                }
+                batch.size = n;
+                filter.evaluate(batch, selection);
+                for (int i = 0; i < n; i++) {
+                    long row = rows.nextLong();
+                    if (selection[i]) {
+                        selected[(int) (row >>> 6)] |= 1L << row;
+                        survivors++;
+                    }
+                }
+                done += n;
+            }
+        }
+        if (survivors == 0) {
+            return;
+        }
+
+        RowRanges needed = null;
+        long total = 0L;
+        long skipped = 0L;
+        for (OffsetIndex offsets : lateOffsets) {
+            if (offsets == null) {
+                continue;
+            }
+            IntArrayList kept = new IntArrayList();
+            for (int page = 0; page < offsets.getPageCount(); page++) {
+                if (anySelected(selected, offsets.getFirstRowIndex(page), offsets.getLastRowIndex(page, rowCount))) {
+                    kept.add(page);
+                }
+            }
+            total += offsets.getPageCount();
+            skipped += offsets.getPageCount() - kept.size();
+            RowRanges column = RowRanges.create(rowCount, kept.iterator(), offsets);
+            needed = needed == null ? column : RowRanges.union(needed, column);
+        }
+        metrics.latePages(total, skipped);
+        needed = RowRanges.intersection(needed, candidates);
+        if (needed.rowCount() * 2 > candidates.rowCount()) {
+            pageSkipping = false;
+        }
+
+        try (PageReadStore pages = read(index, block, needed, descriptors, metrics)) {
+            ColumnReader[] readers = readers(pages, rootConverter, projection.projectedSchema());
+            PrimitiveIterator.OfLong rows = needed.iterator();
+            long done = 0L;
+            while (done < needed.rowCount()) {
+                int n = (int) Math.min(batch.capacity(), needed.rowCount() - done);
+                int count = 0;
+                for (int i = 0; i < n; i++) {
+                    long row = rows.nextLong();
+                    selection[i] = (selected[(int) (row >>> 6)] & (1L << row)) != 0;
+                    count += selection[i] ? 1 : 0;
+                }
+                for (int c = 0; c < readers.length; c++) {
+                    fillSelected(readers[c], c, n, count);
+                }
+                if (count > 0) {
+                    deliver(consumer, n);
+                }
+                done += n;
+            }
+        }
+    }
+
+    private static boolean anySelected(long[] selected, long first, long last) {
+        for (long row = first; row <= last; row++) {
+            long word = selected[(int) (row >>> 6)];
+            if (word == 0L) {
+                row |= 63L;
+            } else if ((word & (1L << row)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ColumnDescriptor[] filterDescriptors() {
+        List<ColumnDescriptor> columns = new ArrayList<>();
+        for (int c = 0; c < descriptors.length; c++) {
+            if (filterColumn[c]) {
+                columns.add(descriptors[c]);
+            }
+        }
+        return columns.toArray(ColumnDescriptor[]::new);
+    }
+
+    /** Readers by projected column; {@code null} for columns outside {@code schema}. */
+    private ColumnReader[] readers(PageReadStore rowGroup, GroupConverter converter, MessageType schema) {
+        ColumnReadStoreImpl store = new ColumnReadStoreImpl(rowGroup, converter, schema, createdBy);
+        ColumnReader[] readers = new ColumnReader[descriptors.length];
+        for (int c = 0; c < descriptors.length; c++) {
+            if (schema.containsPath(descriptors[c].getPath())) {
+                readers[c] = store.getColumnReader(descriptors[c]);
+            }
+        }
+        return readers;
+    }
+
+    private void countPages(ColumnIndexStore indexes, RowRanges ranges, long rowCount, ScanMetrics metrics) {
+        long total = 0L;
+        long skipped = 0L;
+        for (ColumnDescriptor descriptor : descriptors) {
+            OffsetIndex offsets;
+            try {
+                offsets = indexes.getOffsetIndex(ColumnPath.get(descriptor.getPath()));
+            } catch (ColumnIndexStore.MissingOffsetIndexException ex) {
+                continue;
+            }
+            for (int page = 0; page < offsets.getPageCount(); page++) {
+                total++;
+                if (!ranges.isOverlapping(offsets.getFirstRowIndex(page), offsets.getLastRowIndex(page, rowCount))) {
+                    skipped++;
+                }
+            }
+        }
+        metrics.pages(total, skipped);
+    }
+
+    private long scanRowGroup(PageReadStore rowGroup, BatchConsumer consumer, long remaining) throws IOException {
+        if (assembly != Assembly.COLUMNAR) {
+            return scanRecords(rowGroup, consumer, remaining);
+        }
+        ColumnReader[] readers = readers(rowGroup, rootConverter, projection.projectedSchema());
+        long rows = Math.min(rowGroup.getRowCount(), remaining);
+        long done = 0L;
+        while (done < rows) {
+            int n = (int) Math.min(batch.capacity(), rows - done);
+            if (filter == null) {
+                for (int c = 0; c < readers.length; c++) {
+                    fill(readers[c], c, n);
+                }
+                batch.size = n;
+                batch.selection = null;
+                consumer.accept(batch);
+            } else {
+                for (int c = 0; c < readers.length; c++) {
+                    if (filterColumn[c]) {
+                        fill(readers[c], c, n);
+                    }
+                }
+                batch.size = n;
+                filter.evaluate(batch, selection);
+                int count = 0;
+                for (int i = 0; i < n; i++) {
+                    count += selection[i] ? 1 : 0;
+                }
+                for (int c = 0; c < readers.length; c++) {
+                    if (!filterColumn[c]) {
+                        fillSelected(readers[c], c, n, count);
+                    }
+                }
+                if (count > 0) {
+                    deliver(consumer, n);
+                }
+            }
+            done += n;
         }
-        return meta;
+        return rows;
     }
 
-    private static boolean hasValue(Group group, ColumnMetadata metadata) {
-        return group.getFieldRepetitionCount(metadata.fieldIndex()) > 0;
+    /**
+     * Fills batches record by record through a {@code RecordReader} over the row group, which is how
+     * {@code ParquetReader} reads. The reader is driven directly so that row group planning, page filtering and the
+     * page cache stay the same as for columnar scans.
+     */
+    private long scanRecords(PageReadStore rowGroup, BatchConsumer consumer, long remaining) throws IOException {
+        if (filter != null) {
+            throw new IllegalStateException("Late materialization needs columnar assembly, not " + assembly);
+        }
+        MessageType schema = projection.projectedSchema();
+        MessageColumnIO columnIO = new ColumnIOFactory(createdBy).getColumnIO(schema);
+        RecordReader<Void> sinkReader = null;
+        RecordReader<Group> groupReader = null;
+        if (assembly == Assembly.ROW_SINK) {
+            sinkReader = columnIO.getRecordReader(rowGroup, rowSinkMaterializer, FilterCompat.NOOP);
+        } else {
+            groupReader = columnIO.getRecordReader(rowGroup, new GroupRecordConverter(schema), FilterCompat.NOOP);
+        }
+        long rows = Math.min(rowGroup.getRowCount(), remaining);
+        long done = 0L;
+        while (done < rows) {
+            int n = (int) Math.min(batch.capacity(), rows - done);
+            for (int c = 0; c < descriptors.length; c++) {
+                batch.column(c).reset();
+            }
+            if (sinkReader != null) {
+                rowSink.row = 0;
+                for (int row = 0; row < n; row++) {
+                    sinkReader.read();
+                }
+            } else {
+                for (int row = 0; row < n; row++) {
+                    copy(groupReader.read(), row);
+                }
+            }
+            batch.size = n;
+            batch.selection = null;
+            consumer.accept(batch);
+            done += n;
+        }
+        return rows;
+    }
+
+    /** Copies the fields of {@code group}, a record of the projected schema, into the batch at {@code row}. */
+    private void copy(Group group, int row) {
+        for (int c = 0; c < descriptors.length; c++) {
+            ColumnVector vector = batch.column(c);
+            if (group.getFieldRepetitionCount(c) == 0) {
+                vector.setNull(row);
+                continue;
+            }
+            vector.nulls[row] = false;
+            switch (vector.type) {
+                case INT64 -> vector.longs[row] = group.getLong(c, 0);
+                case INT32 -> vector.ints[row] = group.getInteger(c, 0);
+                case BOOLEAN -> vector.ints[row] = group.getBoolean(c, 0) ? 1 : 0;
+                case DOUBLE -> vector.doubles[row] = group.getDouble(c, 0);
+                case FLOAT -> vector.doubles[row] = group.getFloat(c, 0);
+                case INT96 -> vector.appendBytes(row, group.getInt96(c, 0));
+                default -> vector.appendBytes(row, group.getBinary(c, 0));
+            }
+        }
+    }
+
+    private void deliver(BatchConsumer consumer, int n) throws IOException {
+        batch.size = n;
+        batch.selection = selection;
+        consumer.accept(batch);
+    }
+
+    private void fill(ColumnReader reader, int column, int n) {
+        ColumnVector vector = batch.column(column);
+        VectorConverter converter = converters[column];
+        int maxDefinitionLevel = descriptors[column].getMaxDefinitionLevel();
+        vector.reset();
+        for (int row = 0; row < n; row++) {
+            if (reader.getCurrentDefinitionLevel() >= maxDefinitionLevel) {
+                vector.nulls[row] = false;
+                converter.row = row;
+                reader.writeCurrentValueToConverter();
+            } else {
+                vector.setNull(row);
+            }
+            reader.consume();
+        }
+    }
+
+    /**
+     * Decodes the values of {@code column} at the rows in {@link #selection}, of which there are {@code count};
+     * the other rows are skipped without being decoded and read as null.
+     */
+    private void fillSelected(ColumnReader reader, int column, int n, int count) {
+        ColumnVector vector = batch.column(column);
+        int maxDefinitionLevel = descriptors[column].getMaxDefinitionLevel();
+        if (count == 0) {
+            for (int row = 0; row < n; row++) {
+                if (reader.getCurrentDefinitionLevel() >= maxDefinitionLevel) {
+                    reader.skip();
+                }
+                reader.consume();
+            }
+            return;
+        }
+        if (count == n) {
+            fill(reader, column, n);
+            return;
+        }
+        VectorConverter converter = converters[column];
+        vector.reset();
+        for (int row = 0; row < n; row++) {
+            if (!selection[row]) {
+                vector.setNull(row);
+                if (reader.getCurrentDefinitionLevel() >= maxDefinitionLevel) {
+                    reader.skip();
+                }
+            } else if (reader.getCurrentDefinitionLevel() >= maxDefinitionLevel) {
+                vector.nulls[row] = false;
+                converter.row = row;
+                reader.writeCurrentValueToConverter();
+            } else {
+                vector.setNull(row);
+            }
+            reader.consume();
+        }
     }
 
     @Override
     public void close() throws IOException {
-        reader.close();
+        fileReader.close();
     }
 
     @FunctionalInterface
-    interface GroupConsumer {
-        void accept(Group group) throws IOException;
+    interface BatchConsumer {
+        void accept(RowBatch batch) throws IOException;
     }
 
-    private record ColumnMetadata(String logicalName,
-                                  String physicalName,
-                                  int fieldIndex,
-                                  PrimitiveType.PrimitiveTypeName typeName) {
+    private static final class RootConverter extends GroupConverter {
+        private final Converter[] fields;
+
+        private RootConverter(Converter[] fields) {
+            this.fields = fields;
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return fields[fieldIndex];
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void end() {
+        }
+    }
+
+    /**
+     * Row sink writing every record into the batch at {@link #row} through the converters of the columnar path,
+     * so binary columns keep their dictionary ids and each dictionary is decoded once per column chunk.
+     */
+    private final class BatchSink implements RowSink {
+        private final PrimitiveConverter[] fields = new PrimitiveConverter[converters.length];
+        int row;
+
+        private BatchSink() {
+            for (int c = 0; c < fields.length; c++) {
+                fields[c] = new SinkField(batch.column(c), converters[c]);
+            }
+        }
+
+        @Override
+        public PrimitiveConverter converter(int field) {
+            return fields[field];
+        }
+
+        @Override
+        public void startRow() {
+            for (int c = 0; c < converters.length; c++) {
+                converters[c].row = row;
+                batch.column(c).nulls[row] = true;
+            }
+        }
+
+        @Override
+        public void endRow() {
+            for (int c = 0; c < converters.length; c++) {
+                ColumnVector vector = batch.column(c);
+                vector.hasNulls |= vector.nulls[row];
+            }
+            row++;
+        }
+    }
+
+    /** Field of a {@link BatchSink}: marks the row's value present and hands it to the column's converter. */
+    private static final class SinkField extends PrimitiveConverter {
+        private final ColumnVector vector;
+        private final VectorConverter target;
+
+        private SinkField(ColumnVector vector, VectorConverter target) {
+            this.vector = vector;
+            this.target = target;
+        }
+
+        @Override
+        public boolean hasDictionarySupport() {
+            return true;
+        }
+
+        @Override
+        public void setDictionary(Dictionary dictionary) {
+            target.setDictionary(dictionary);
+        }
+
+        @Override
+        public void addValueFromDictionary(int dictionaryId) {
+            vector.nulls[target.row] = false;
+            target.addValueFromDictionary(dictionaryId);
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+            vector.nulls[target.row] = false;
+            target.addBinary(value);
+        }
+
+        @Override
+        public void addBoolean(boolean value) {
+            vector.nulls[target.row] = false;
+            target.addBoolean(value);
+        }
+
+        @Override
+        public void addDouble(double value) {
+            vector.nulls[target.row] = false;
+            target.addDouble(value);
+        }
+
+        @Override
+        public void addFloat(float value) {
+            vector.nulls[target.row] = false;
+            target.addFloat(value);
+        }
+
+        @Override
+        public void addInt(int value) {
+            vector.nulls[target.row] = false;
+            target.addInt(value);
+        }
+
+        @Override
+        public void addLong(long value) {
+            vector.nulls[target.row] = false;
+            target.addLong(value);
+        }
     }
 
     private record Projection(MessageType fileSchema,
                               MessageType projectedSchema,
-                              Map<String, ColumnMetadata> metadata) {
+                              Map<String, Integer> columnIndexes) {
     }
 }
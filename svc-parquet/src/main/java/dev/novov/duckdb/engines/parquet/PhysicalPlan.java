@@ -0,0 +1,120 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Physical plan of one case execution: Scan → [Filter] → sink, where the sink is a pipeline breaker such as
+ * {@link HashAggregate}, {@link UngroupedAggregate}, {@link TopN} or {@link CountRows} that produces the output
+ * rows. Everything that is not specific to one sink lives here, so it applies to every case: the WHERE clause is
+ * pushed down for row-group and page pruning and evaluated per batch, columns only the sink reads are decoded after
+ * it at the matching rows (late materialization), row groups the sink can answer from footer statistics are not
+ * decoded, and the {@link TableScan} runs in parallel with one pipeline per worker. CSV files bind to
+ * {@link CsvLayout#SCHEMA} and go through the same plan, only without statistics to prune with.
+ */
+final class PhysicalPlan<S extends Sink<S>> {
+    private final String file;
+    private final BoundFilter where;
+    private final SinkFactory<S> sink;
+
+    PhysicalPlan(String file, BoundFilter where, SinkFactory<S> sink) {
+        this.file = file;
+        this.where = where;
+        this.sink = sink;
+    }
+
+    /** Runs the plan and returns the number of output rows. */
+    long execute(ExecutionContext context) throws IOException {
+        List<String> columns = new ArrayList<>();
+        if (where != null) {
+            columns.addAll(where.columns());
+        }
+        for (String column : sink.columns()) {
+            if (!columns.contains(column)) {
+                columns.add(column);
+            }
+        }
+        // columns only the sink reads are worth decoding after the filter; record assembly reads whole records
+        boolean late = where != null && columns.size() > where.columns().size()
+                && context.assembly() == Assembly.COLUMNAR;
+        FilterPredicate pushdown = where == null ? null : where.predicate();
+        // a row limit needs the scan order, so it disables answering row groups from statistics
+        boolean useMetadata = context.config().limitRowsOrMinusOne() <= 0;
+        TableScan scan = TableScan.plan(
+                file,
+                columns,
+                pushdown == null ? FilterCompat.NOOP : FilterCompat.get(pushdown),
+                block -> !(useMetadata && sink.answerable(block)) && !sink.prune(block),
+                context
+        );
+        if (late) {
+            scan.materializeLate(where);
+        }
+
+        S result = sink.newSink(scan::columnIndex);
+        if (useMetadata) {
+            long answered = 0L;
+            for (BlockMetaData block : scan.rowGroups()) {
+                if (sink.answerable(block)) {
+                    result.absorb(block);
+                    answered++;
+                }
+            }
+            context.metrics().rowGroupsFromMetadata(answered);
+        }
+        boolean codegen = context.config().codegen();
+        Pipeline<S> scanned = scan.run(() -> new Pipeline<>(scan, late ? null : where, sink, codegen ? context.metrics() : null),
+                Pipeline::push, Pipeline::merge);
+        return sink.finish(result.merge(scanned.sink), context);
+    }
+
+    /**
+     * Operators of one scan worker: the filter, if any, in front of the worker's sink, or a generated operator
+     * fusing both (see {@link PlanCompiler}) when code generation is on and the plan has a generated form. A filter
+     * the scan already evaluated arrives as the batch selection instead.
+     */
+    private static final class Pipeline<S extends Sink<S>> {
+        private final BatchOperator head;
+        private S sink;
+        private boolean[] alive = new boolean[RowBatch.DEFAULT_CAPACITY];
+
+        /** {@code codegenMetrics} is {@code null} for interpreted plans. */
+        Pipeline(TableScan scan, BoundFilter where, SinkFactory<S> factory, ScanMetrics codegenMetrics) {
+            this.sink = factory.newSink(scan::columnIndex);
+            BatchPredicate kernel = where == null ? null : where.kernel(scan::columnIndex);
+            BatchOperator generated = null;
+            if (codegenMetrics != null) {
+                generated = PlanCompiler.fuse(kernel, factory, sink, scan::columnIndex, scan::columnType);
+                codegenMetrics.pipeline(generated != null);
+            }
+            if (generated != null) {
+                this.head = generated;
+            } else {
+                this.head = kernel == null ? sink : new FilterOperator(kernel, sink);
+            }
+        }
+
+        void push(RowBatch batch) throws IOException {
+            if (alive.length < batch.capacity()) {
+                alive = new boolean[batch.capacity()];
+            }
+            if (batch.selection != null) {
+                System.arraycopy(batch.selection, 0, alive, 0, batch.size());
+            } else {
+                Arrays.fill(alive, 0, batch.size(), true);
+            }
+            head.push(batch, alive);
+        }
+
+        Pipeline<S> merge(Pipeline<S> other) {
+            sink = sink.merge(other.sink);
+            return this;
+        }
+    }
+}
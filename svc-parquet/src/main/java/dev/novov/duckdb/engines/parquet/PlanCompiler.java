@@ -0,0 +1,379 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.schema.PrimitiveType;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Whole-stage code generation for a {@link PhysicalPlan}: the WHERE kernel and the sink's per-row work are emitted
+ * as Java source for one {@link BatchOperator} that runs a single loop over the primitive arrays of each batch.
+ * Column types, comparison bounds and the aggregate are resolved while generating, so the loop has no per-row
+ * type switch, virtual kernel call or match mask. Objects the loop needs (IN sets, binary matchers, the sink
+ * state) are passed to the constructor; everything else is a literal.
+ * <p>
+ * The source is compiled in-process with {@code javax.tools} and defined as a hidden class in this package, so it
+ * can read package-private vectors and sink state. Compiled classes are cached by source text, so warmup runs pay
+ * for compilation and measured runs only instantiate. Plans with parts that have no generated form (quantiles,
+ * MIN/MAX over arbitrary types, top-k) keep the interpreted operators.
+ */
+final class PlanCompiler {
+    private static final String CLASS_NAME = "GeneratedPipeline";
+    private static final Map<String, MethodHandle> COMPILED = new ConcurrentHashMap<>();
+
+    private final ToIntFunction<String> columnIndex;
+    private final ColumnTypes types;
+    /** Batch positions read by the loop, with their physical types. */
+    private final Map<Integer, PrimitiveType.PrimitiveTypeName> columns = new TreeMap<>();
+    private final List<Object> refs = new ArrayList<>();
+    private final StringBuilder fields = new StringBuilder();
+    private final StringBuilder init = new StringBuilder();
+
+    private PlanCompiler(ToIntFunction<String> columnIndex, ColumnTypes types) {
+        this.columnIndex = columnIndex;
+        this.types = types;
+    }
+
+    @FunctionalInterface
+    interface ColumnTypes {
+        /** Physical type of the vector at {@code index} of every batch. */
+        PrimitiveType.PrimitiveTypeName of(int index);
+    }
+
+    /**
+     * Generated operator that runs {@code where} (may be {@code null}) and feeds {@code sink}, a state created by
+     * {@code factory}, or {@code null} when the plan has no generated form.
+     */
+    static BatchOperator fuse(BatchPredicate where,
+                              SinkFactory<?> factory,
+                              Sink<?> sink,
+                              ToIntFunction<String> columnIndex,
+                              ColumnTypes types) {
+        PlanCompiler compiler = new PlanCompiler(columnIndex, types);
+        String source = compiler.generate(where, factory, sink);
+        if (source == null) {
+            return null;
+        }
+        MethodHandle constructor = COMPILED.computeIfAbsent(source, PlanCompiler::compile);
+        try {
+            return (BatchOperator) constructor.invoke(compiler.refs.toArray());
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot instantiate generated pipeline", e);
+        }
+    }
+
+    private String generate(BatchPredicate where, SinkFactory<?> factory, Sink<?> sink) {
+        String predicate = where == null ? "true" : predicate(where);
+        if (predicate == null) {
+            return null;
+        }
+        Body body = switch (factory) {
+            case CountRows c -> {
+                field("sink", "CountRows.State", sink);
+                yield new Body("long count = 0L;", "count++;", "sink.matched += count;");
+            }
+            case UngroupedAggregate u -> ungrouped(u, sink);
+            case HashAggregate h -> grouped(h, sink);
+            default -> null;
+        };
+        if (body == null) {
+            return null;
+        }
+        StringBuilder out = new StringBuilder();
+        out.append("package ").append(PlanCompiler.class.getPackageName()).append(";\n\n");
+        out.append("final class ").append(CLASS_NAME).append(" implements BatchOperator {\n");
+        out.append(fields);
+        out.append("\n    ").append(CLASS_NAME).append("(Object[] refs) {\n").append(init).append("    }\n\n");
+        out.append("    @Override\n    public void push(RowBatch batch, boolean[] alive) throws java.io.IOException {\n");
+        out.append("        final int n = batch.size();\n");
+        for (Map.Entry<Integer, PrimitiveType.PrimitiveTypeName> column : columns.entrySet()) {
+            int c = column.getKey();
+            out.append("        final ColumnVector v").append(c).append(" = batch.column(").append(c).append(");\n");
+            out.append("        final boolean[] n").append(c).append(" = v").append(c).append(".nulls;\n");
+            switch (column.getValue()) {
+                case INT64 -> out.append("        final long[] l").append(c).append(" = v").append(c).append(".longs;\n");
+                case INT32, BOOLEAN -> out.append("        final int[] i").append(c).append(" = v").append(c).append(".ints;\n");
+                case DOUBLE, FLOAT -> out.append("        final double[] d").append(c).append(" = v").append(c).append(".doubles;\n");
+                default -> {
+                }
+            }
+        }
+        if (!body.prologue().isEmpty()) {
+            out.append("        ").append(body.prologue()).append("\n");
+        }
+        out.append("        for (int i = 0; i < n; i++) {\n");
+        out.append("            if (!alive[i] || !(").append(predicate).append(")) {\n");
+        out.append("                continue;\n");
+        out.append("            }\n");
+        out.append("            ").append(body.row()).append("\n");
+        out.append("        }\n");
+        if (!body.epilogue().isEmpty()) {
+            out.append("        ").append(body.epilogue()).append("\n");
+        }
+        out.append("    }\n}\n");
+        return out.toString();
+    }
+
+    /** Per-batch locals, per-row statement and per-batch flush of a sink. */
+    private record Body(String prologue, String row, String epilogue) {
+    }
+
+    private Body ungrouped(UngroupedAggregate aggregate, Sink<?> sink) {
+        String column = aggregate.column();
+        Body body;
+        if (column == null) {
+            body = new Body("long count = 0L;", "count++;", "sink.count += count;");
+        } else {
+            int c = column(column);
+            String value = value(c);
+            body = switch (aggregate.fn()) {
+                case COUNT -> new Body("long count = 0L;", "if (!n" + c + "[i]) count++;", "sink.count += count;");
+                case SUM, AVG -> value == null ? null : new Body("long count = 0L; double sum = 0d;",
+                        "if (!n" + c + "[i]) { count++; sum += " + value + "; }",
+                        "sink.count += count; sink.sum += sum;");
+                // extremes compare with the column's comparator, which the interpreted path keeps
+                case MIN, MAX, MEDIAN, QUANTILE, APPROX_QUANTILE -> null;
+            };
+        }
+        if (body != null) {
+            field("sink", "UngroupedAggregate.State", sink);
+        }
+        return body;
+    }
+
+    private Body grouped(HashAggregate aggregate, Sink<?> sink) {
+        if (aggregate.fn().isQuantile()) {
+            return null;
+        }
+        String group = groupExpression(aggregate.key());
+        if (group == null) {
+            return null;
+        }
+        String valueColumn = aggregate.valueColumn();
+        String row;
+        if (valueColumn == null) {
+            row = "table.accumulateRow(" + group + ");";
+        } else {
+            int c = column(valueColumn);
+            String read = value(c);
+            if (read == null) {
+                return null;
+            }
+            // a NaN is a value, so NULLs are told apart by the null flags
+            row = "final int group = " + group + "; if (n" + c + "[i]) { table.accumulateRow(group); }"
+                    + " else { table.accumulate(group, " + read + "); }";
+        }
+        // the state may switch to radix partitions between batches, so its table is fetched per batch
+        field("sink", "HashAggregate.State", sink);
+        String prologue = "final GroupTable table = sink.groupTable();";
+        if (aggregate.key() instanceof GroupKey.Predicate) {
+            prologue += " if (generation != sink.generation) { generation = sink.generation; whenFalse = -1;"
+                    + " whenTrue = -1; }";
+        }
+        return new Body(prologue, row, "sink.afterBatch();");
+    }
+
+    private String groupExpression(GroupKey key) {
+        return switch (key) {
+            case GroupKey.Column k -> {
+                int c = column(k.column());
+                yield switch (columns.get(c)) {
+                    case INT64 -> "n" + c + "[i] ? table.nullGroup() : table.group(l" + c + "[i])";
+                    case INT32, BOOLEAN -> "n" + c + "[i] ? table.nullGroup() : table.group(i" + c + "[i])";
+                    case DOUBLE, FLOAT -> "n" + c + "[i] ? table.nullGroup() : table.group(d" + c + "[i])";
+                    default -> "table.group(v" + c + ", i)";
+                };
+            }
+            case GroupKey.Year k -> {
+                int c = column(k.column());
+                yield "n" + c + "[i] ? table.nullGroup() : table.group(java.time.LocalDate.ofEpochDay(i" + c + "[i]).getYear())";
+            }
+            case GroupKey.Predicate k -> {
+                String holds = predicate(k.predicate().kernel(columnIndex));
+                if (holds == null) {
+                    yield null;
+                }
+                // groups of false and true are looked up once per generation of the worker's groups, like
+                // GroupKey.PredicateEvaluator
+                fields.append("    private int whenFalse = -1;\n    private int whenTrue = -1;\n")
+                        .append("    private int generation;\n");
+                yield "(" + holds + ") ? (whenTrue >= 0 ? whenTrue : (whenTrue = table.group(1)))"
+                        + " : (whenFalse >= 0 ? whenFalse : (whenFalse = table.group(0)))";
+            }
+        };
+    }
+
+    /** Row-level Java expression for {@code kernel}, or {@code null} when it has no generated form. */
+    private String predicate(BatchPredicate kernel) {
+        return switch (kernel) {
+            case BatchPredicate.AllOf all -> join(all.terms, " && ");
+            case BatchPredicate.AnyOf any -> join(any.terms, " || ");
+            case BatchPredicate.Constant constant -> Boolean.toString(constant.value());
+            case BatchPredicate.NullTest test -> (test.negated() ? "!n" : "n") + column(test.column()) + "[i]";
+            case BatchPredicate.LongRange range -> range("l", column(range.column()),
+                    range.lower() == Long.MIN_VALUE ? null : range.lower() + "L",
+                    range.upper() == Long.MAX_VALUE ? null : range.upper() + "L");
+            case BatchPredicate.IntRange range -> range("i", column(range.column()),
+                    range.lower() == Integer.MIN_VALUE ? null : Integer.toString(range.lower()),
+                    range.upper() == Integer.MAX_VALUE ? null : Integer.toString(range.upper()));
+            case BatchPredicate.DoubleRange range -> range("d", column(range.column()),
+                    doubleBound(range.lower()), doubleBound(range.upper()));
+            case BatchPredicate.LongSet set -> contains("l", column(set.column()), set.negated(),
+                    ref("set", "it.unimi.dsi.fastutil.longs.LongOpenHashSet", set.values()));
+            case BatchPredicate.IntSet set -> contains("i", column(set.column()), set.negated(),
+                    ref("set", "it.unimi.dsi.fastutil.ints.IntOpenHashSet", set.values()));
+            case BatchPredicate.DoubleSet set -> contains("d", column(set.column()), set.negated(),
+                    ref("set", "it.unimi.dsi.fastutil.doubles.DoubleOpenHashSet", set.values()));
+            case BatchPredicate.BinaryTest test -> {
+                int c = column(test.column());
+                yield ref("bytes", "BatchPredicate.BinaryTest", test) + ".test(v" + c + ", i)";
+            }
+            default -> null;
+        };
+    }
+
+    private String join(BatchPredicate[] terms, String operator) {
+        StringBuilder out = new StringBuilder("(");
+        for (int t = 0; t < terms.length; t++) {
+            String term = predicate(terms[t]);
+            if (term == null) {
+                return null;
+            }
+            out.append(t == 0 ? "" : operator).append('(').append(term).append(')');
+        }
+        return out.append(')').toString();
+    }
+
+    /** {@code lower <= value <= upper}; a {@code null} bound is unbounded and not tested at all. */
+    private static String range(String array, int c, String lower, String upper) {
+        String value = array + c + "[i]";
+        StringBuilder out = new StringBuilder("!n").append(c).append("[i]");
+        if (lower != null) {
+            out.append(" && ").append(value).append(" >= ").append(lower);
+        }
+        if (upper != null) {
+            out.append(" && ").append(value).append(" <= ").append(upper);
+        }
+        return out.toString();
+    }
+
+    private static String doubleBound(double bound) {
+        if (Double.isInfinite(bound)) {
+            return null;
+        }
+        return "Double.longBitsToDouble(0x" + Long.toHexString(Double.doubleToRawLongBits(bound)) + "L)";
+    }
+
+    private static String contains(String array, int c, boolean negated, String set) {
+        return "!n" + c + "[i] && " + (negated ? "!" : "") + set + ".contains(" + array + c + "[i])";
+    }
+
+    /** Numeric value of column {@code c} as a double, or {@code null} for non-numeric columns. */
+    private String value(int c) {
+        return switch (columns.get(c)) {
+            case INT64 -> "(double) l" + c + "[i]";
+            case INT32, BOOLEAN -> "(double) i" + c + "[i]";
+            case DOUBLE, FLOAT -> "d" + c + "[i]";
+            default -> null;
+        };
+    }
+
+    private int column(String logical) {
+        return column(columnIndex.applyAsInt(logical));
+    }
+
+    /** Registers batch position {@code c} so its arrays are hoisted out of the loop. */
+    private int column(int c) {
+        columns.computeIfAbsent(c, types::of);
+        return c;
+    }
+
+    /** Declares a field for a per-worker object the loop uses and returns its name. */
+    private String ref(String prefix, String type, Object value) {
+        String name = prefix + refs.size();
+        field(name, type, value);
+        return name;
+    }
+
+    private void field(String name, String type, Object value) {
+        fields.append("    private final ").append(type).append(' ').append(name).append(";\n");
+        init.append("        this.").append(name).append(" = (").append(type).append(") refs[").append(refs.size()).append("];\n");
+        refs.add(value);
+    }
+
+    private static MethodHandle compile(String source) {
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        if (javac == null) {
+            throw new IllegalStateException("Code generation needs a JDK: no system Java compiler is available");
+        }
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager standard = javac.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8);
+        ClassOutput output = new ClassOutput(standard);
+        JavaFileObject unit = new SimpleJavaFileObject(URI.create("string:///" + CLASS_NAME + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        List<String> options = List.of("-classpath", System.getProperty("java.class.path"), "-proc:none", "-g:none");
+        boolean ok = javac.getTask(null, output, diagnostics, options, null, List.of(unit)).call();
+        if (!ok) {
+            StringBuilder message = new StringBuilder("Generated pipeline does not compile:");
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                message.append('\n').append(diagnostic.getMessage(null));
+            }
+            throw new IllegalStateException(message.append('\n').append(source).toString());
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(output.bytes(), true);
+            return lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class, Object[].class))
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException("Cannot define generated pipeline", e);
+        }
+    }
+
+    /** Keeps the class file javac writes in memory. */
+    private static final class ClassOutput extends ForwardingJavaFileManager<JavaFileManager> {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        ClassOutput(JavaFileManager delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+            return new SimpleJavaFileObject(URI.create("bytes:///" + className.replace('.', '/') + kind.extension), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    return bytes;
+                }
+            };
+        }
+
+        byte[] bytes() {
+            return bytes.toByteArray();
+        }
+    }
+}
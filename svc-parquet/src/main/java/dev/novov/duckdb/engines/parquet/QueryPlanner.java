@@ -0,0 +1,98 @@
+package dev.novov.duckdb.engines.parquet;
+
+import dev.novov.duckdb.bench.api.AggFn;
+import dev.novov.duckdb.bench.api.AvgByDistrictCase;
+import dev.novov.duckdb.bench.api.DescribeCase;
+import dev.novov.duckdb.bench.api.FilterCase;
+import dev.novov.duckdb.bench.api.GroupByCase;
+import dev.novov.duckdb.bench.api.GroupByYearCase;
+import dev.novov.duckdb.bench.api.HeadCase;
+import dev.novov.duckdb.bench.api.LookupCase;
+import dev.novov.duckdb.bench.api.MedianByDistrictCase;
+import dev.novov.duckdb.bench.api.NewBuildVsOldCase;
+import dev.novov.duckdb.bench.api.QueryCase;
+import dev.novov.duckdb.bench.api.ScalarAggCase;
+import dev.novov.duckdb.bench.api.TopKCase;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Translates a {@link QueryCase} into a {@link PhysicalPlan}, bound to the schema of the case's file. The PPD cases
+ * are spelled out the way the DuckDB engine runs them, with their WHERE clauses in the {@link FilterParser} syntax.
+ */
+final class QueryPlanner {
+    private static final String CATEGORY_A = "ppd_category = 'A'";
+
+    private QueryPlanner() {
+    }
+
+    static PhysicalPlan<?> plan(QueryCase queryCase, ExecutionContext context) throws IOException {
+        MemoryBudget budget = context.memoryBudget();
+        return switch (queryCase) {
+            case GroupByCase c -> new PhysicalPlan<>(c.file(), null,
+                    new HashAggregate(new GroupKey.Column(c.groupCol()), c.aggFn(), c.aggCol(), c.quantile(), budget));
+            case FilterCase c -> {
+                BoundFilter where = bind(c.filterExpr(), schema(c.file(), context));
+                yield new PhysicalPlan<>(c.file(), where, new CountRows(where));
+            }
+            case ScalarAggCase c -> {
+                MessageType schema = schema(c.file(), context);
+                BoundFilter where = c.hasFilter() ? bind(c.filterExpr(), schema) : null;
+                yield new PhysicalPlan<>(c.file(), where, new UngroupedAggregate(schema, c.aggFn(), c.column(), where));
+            }
+            case TopKCase c -> new PhysicalPlan<>(c.file(), null,
+                    new TopN(schema(c.file(), context), c.orderByCol(), c.desc(), c.k(), c.projectCols(), context));
+            case GroupByYearCase c -> {
+                MessageType schema = schema(c.file(), context);
+                yield new PhysicalPlan<>(c.file(),
+                        bind(CATEGORY_A + " AND transfer_date IS NOT NULL AND price IS NOT NULL", schema),
+                        new HashAggregate(GroupKey.Year.of(schema, "transfer_date"), AggFn.AVG, "price", 0.5, budget)
+                                .orderBy(GroupRows.Order.KEY, false));
+            }
+            case AvgByDistrictCase c -> new PhysicalPlan<>(c.file(),
+                    bind(CATEGORY_A + " AND district IS NOT NULL AND district <> '' AND price IS NOT NULL",
+                            schema(c.file(), context)),
+                    new HashAggregate(new GroupKey.Column("district"), AggFn.AVG, "price", 0.5, budget)
+                            .having(c.minCount())
+                            .orderBy(GroupRows.Order.VALUE, true));
+            case NewBuildVsOldCase c -> {
+                MessageType schema = schema(c.file(), context);
+                yield new PhysicalPlan<>(c.file(),
+                        bind(CATEGORY_A + " AND price IS NOT NULL", schema),
+                        new HashAggregate(new GroupKey.Predicate(bind("new_build = 'Y'", schema)), AggFn.AVG, "price", 0.5, budget)
+                                .orderBy(GroupRows.Order.COUNT, true));
+            }
+            case MedianByDistrictCase c -> new PhysicalPlan<>(c.file(),
+                    bind(CATEGORY_A + " AND district IS NOT NULL AND district <> ''", schema(c.file(), context)),
+                    new HashAggregate(new GroupKey.Column("district"), AggFn.MEDIAN, "price", 0.5, budget)
+                            .having(c.minCount())
+                            .orderBy(GroupRows.Order.VALUE, true)
+                            .limit(c.limit()));
+            case LookupCase c -> throw new IllegalArgumentException("Lookups are planned per key, see lookup()");
+            case DescribeCase c -> throw new UnsupportedOperationException("Describe is DuckDB-only");
+            case HeadCase c -> throw new UnsupportedOperationException("Head is DuckDB-only");
+        };
+    }
+
+    /**
+     * {@code SELECT * ... WHERE column = key} for one key of {@code lookup}. Row groups are pruned by statistics,
+     * dictionaries and bloom filters before the scan, which then decodes the other columns only at matching rows.
+     */
+    static PhysicalPlan<?> lookup(LookupCase lookup, String key, ExecutionContext context) throws IOException {
+        MessageType schema = schema(lookup.file(), context);
+        BoundFilter where = bind(lookup.column() + " = '" + key.replace("'", "''") + "'", schema);
+        List<String> columns = schema.getFields().stream().map(Type::getName).toList();
+        return new PhysicalPlan<>(lookup.file(), where, new CollectRows(columns));
+    }
+
+    private static MessageType schema(String file, ExecutionContext context) throws IOException {
+        return CsvLayout.isCsv(file) ? CsvLayout.SCHEMA : ParquetScanner.readSchema(context.io(), file);
+    }
+
+    private static BoundFilter bind(String expression, MessageType schema) {
+        return FilterBinder.bind(FilterParser.parse(expression), schema);
+    }
+}
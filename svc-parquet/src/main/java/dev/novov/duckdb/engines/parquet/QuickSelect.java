@@ -0,0 +1,97 @@
+package dev.novov.duckdb.engines.parquet;
+
+/**
+ * In-place selection on primitive {@code double} arrays (Hoare partitioning with median-of-three pivots). Expected
+ * linear time; the array is reordered but not sorted. {@link #select} must not be given NaN.
+ */
+final class QuickSelect {
+    private static final int INSERTION_THRESHOLD = 16;
+
+    private QuickSelect() {
+    }
+
+    /** Returns the value that would be at index {@code k} if {@code values[0, n)} were sorted. */
+    static double select(double[] values, int n, int k) {
+        checkIndex(n, k);
+        int lo = 0;
+        int hi = n - 1;
+        while (hi - lo > INSERTION_THRESHOLD) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < values[lo]) swap(values, mid, lo);
+            if (values[hi] < values[lo]) swap(values, hi, lo);
+            if (values[hi] < values[mid]) swap(values, hi, mid);
+            double pivot = values[mid];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    swap(values, i++, j--);
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return values[k];
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            double v = values[i];
+            int j = i - 1;
+            while (j >= lo && values[j] > v) {
+                values[j + 1] = values[j];
+                j--;
+            }
+            values[j + 1] = v;
+        }
+        return values[k];
+    }
+
+    /**
+     * Continuous quantile of {@code values[0, n)} with linear interpolation between the two closest ranks, like
+     * {@code quantile_cont}. NaNs rank above every other value, as in DuckDB, so a rank among them is NaN.
+     * Reorders the array.
+     */
+    static double quantile(double[] values, int n, double fraction) {
+        // move NaNs behind the numbers, where they rank, and select among the numbers only
+        int numbers = 0;
+        for (int i = 0; i < n; i++) {
+            if (!Double.isNaN(values[i])) {
+                swap(values, i, numbers++);
+            }
+        }
+        double position = (n - 1) * fraction;
+        int lower = (int) Math.floor(position);
+        if (lower >= numbers) {
+            return Double.NaN;
+        }
+        double x = select(values, numbers, lower);
+        if (position == lower) {
+            return x;
+        }
+        if (lower + 1 >= numbers) {
+            return Double.NaN;
+        }
+        // everything right of lower is >= x, so the next rank is their minimum
+        double y = values[lower + 1];
+        for (int i = lower + 2; i < numbers; i++) {
+            if (values[i] < y) y = values[i];
+        }
+        return x + (position - lower) * (y - x);
+    }
+
+    private static void checkIndex(int n, int k) {
+        if (k < 0 || k >= n) {
+            throw new IndexOutOfBoundsException("k=" + k + ", n=" + n);
+        }
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double t = values[i];
+        values[i] = values[j];
+        values[j] = t;
+    }
+}
@@ -0,0 +1,181 @@
+package dev.novov.duckdb.engines.parquet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Radix-partitioned group-by state for high-cardinality keys such as postcode or street. Rows are scattered by the
+ * top {@link #BITS} bits of their key hash into one {@link AggregationTable} per partition, so the tables a worker
+ * probes stay small instead of one table growing to millions of groups. Merging worker states only collects their
+ * partition tables; since no key occurs in two partitions, {@link #partition} later folds each partition on its own
+ * and the final merge runs partition-parallel rather than serially on one thread.
+ * <p>
+ * Group ids carry the partition in their low {@link #BITS} bits and the id within the partition's table above them.
+ * <p>
+ * Under a {@link MemoryBudget}, {@link #spill} writes the worker's tables out, one segment per partition, and
+ * starts over with empty ones; {@link #partition} folds the spilled segments of its partition back in.
+ */
+final class RadixPartitions implements GroupTable {
+    static final int BITS = 6;
+    static final int PARTITIONS = 1 << BITS;
+    private static final int SHIFT = Integer.SIZE - BITS;
+    /** Largest group count of one partition table that still fits in a group id. */
+    private static final int MAX_PARTITION_GROUPS = 1 << (Integer.SIZE - 1 - BITS);
+
+    /** This worker's tables, which rows are scattered into. */
+    private final AggregationTable[] local;
+    /** Tables of every merged worker, {@link #local} first. */
+    private final List<AggregationTable[]> runs = new ArrayList<>();
+    /** Spilled segments of every merged worker, per partition. */
+    private final List<List<SpillFile.Segment>> spilled = new ArrayList<>(PARTITIONS);
+    private ByteBuffer spillBuffer;
+
+    private byte[][] remapSource;
+    private int[] remap;
+
+    /** {@code local} as returned by {@link AggregationTable#split} with {@link #BITS}. */
+    RadixPartitions(AggregationTable[] local) {
+        if (local.length != PARTITIONS) {
+            throw new IllegalArgumentException("Expected " + PARTITIONS + " partitions, got " + local.length);
+        }
+        this.local = local;
+        this.runs.add(local);
+        for (int p = 0; p < PARTITIONS; p++) {
+            spilled.add(new ArrayList<>());
+        }
+    }
+
+    @Override
+    public int group(ColumnVector vector, int row) {
+        if (vector.nulls[row]) {
+            return nullGroup();
+        }
+        return switch (vector.type) {
+            case INT64 -> group(vector.longs[row]);
+            case INT32, BOOLEAN -> group(vector.ints[row]);
+            case DOUBLE, FLOAT -> group(vector.doubles[row]);
+            default -> binaryGroup(vector, row);
+        };
+    }
+
+    /** Like {@link AggregationTable}, dictionary ids are resolved once per dictionary, here to partitioned ids. */
+    private int binaryGroup(ColumnVector vector, int row) {
+        int dictId = vector.dictIds[row];
+        if (dictId < 0) {
+            return group(vector.bytes, vector.offsets[row], vector.lengths[row]);
+        }
+        if (vector.dictionary != remapSource) {
+            remapSource = vector.dictionary;
+            remap = new int[remapSource.length];
+            Arrays.fill(remap, AggregationTable.NULL_GROUP);
+        }
+        int group = remap[dictId];
+        if (group == AggregationTable.NULL_GROUP) {
+            byte[] value = remapSource[dictId];
+            group = group(value, 0, value.length);
+            remap[dictId] = group;
+        }
+        return group;
+    }
+
+    @Override
+    public int group(long key) {
+        int hash = AggregationTable.mix(key);
+        int partition = hash >>> SHIFT;
+        return id(partition, local[partition].group(key, hash, false));
+    }
+
+    @Override
+    public int group(double key) {
+        long bits = AggregationTable.floatingKey(key);
+        int hash = AggregationTable.mix(bits);
+        int partition = hash >>> SHIFT;
+        return id(partition, local[partition].group(bits, hash, true));
+    }
+
+    private int group(byte[] source, int offset, int length) {
+        int hash = AggregationTable.hash(source, offset, length);
+        int partition = hash >>> SHIFT;
+        return id(partition, local[partition].group(source, offset, length, hash));
+    }
+
+    @Override
+    public int nullGroup() {
+        return id(0, local[0].nullGroup());
+    }
+
+    @Override
+    public void accumulate(int group, double value) {
+        local[group & (PARTITIONS - 1)].accumulate(group >>> BITS, value);
+    }
+
+    @Override
+    public void accumulateRow(int group) {
+        local[group & (PARTITIONS - 1)].accumulateRow(group >>> BITS);
+    }
+
+    /**
+     * Memory this worker's tables hold beyond {@link #PARTITIONS} empty ones. Spilling cannot free that floor, so a
+     * {@link MemoryBudget} is charged only for what grows above it.
+     */
+    long memoryBytes() {
+        long bytes = -PARTITIONS * AggregationTable.EMPTY_BYTES;
+        for (AggregationTable table : local) {
+            bytes += table.memoryBytes();
+        }
+        return Math.max(0L, bytes);
+    }
+
+    /**
+     * Moves this worker's groups to {@code file} and continues with empty tables; earlier group ids become invalid,
+     * so callers reset whatever cached them (see {@link GroupKey.Evaluator#reset}).
+     */
+    void spill(SpillFile file) throws IOException {
+        if (spillBuffer == null) {
+            spillBuffer = ByteBuffer.allocate(64 * 1024);
+        }
+        for (int p = 0; p < PARTITIONS; p++) {
+            if (local[p].size() == 0) {
+                continue;
+            }
+            spillBuffer = local[p].writeRecords(spillBuffer.clear());
+            spilled.get(p).add(file.write(spillBuffer.flip()));
+            local[p] = new AggregationTable();
+        }
+        remapSource = null;
+    }
+
+    /** Takes over the tables and spilled segments of {@code other}; they are folded by {@link #partition}. */
+    RadixPartitions merge(RadixPartitions other) {
+        runs.addAll(other.runs);
+        for (int p = 0; p < PARTITIONS; p++) {
+            spilled.get(p).addAll(other.spilled.get(p));
+        }
+        return this;
+    }
+
+    /**
+     * Every merged worker's table of {@code partition} folded into one. Partitions are independent, so different
+     * partitions may be folded concurrently, but each only once and only after the scan.
+     */
+    AggregationTable partition(int partition) throws IOException {
+        AggregationTable merged = runs.get(0)[partition];
+        for (int run = 1; run < runs.size(); run++) {
+            merged.merge(runs.get(run)[partition]);
+        }
+        for (SpillFile.Segment segment : spilled.get(partition)) {
+            merged.absorbRecords(segment.read());
+        }
+        return merged;
+    }
+
+    private static int id(int partition, int group) {
+        if (group >= MAX_PARTITION_GROUPS) {
+            throw new IllegalStateException("Radix partition exceeds " + MAX_PARTITION_GROUPS + " groups");
+        }
+        return group << BITS | partition;
+    }
+}
@@ -0,0 +1,39 @@
+package dev.novov.duckdb.engines.parquet;
+
+/**
+ * A batch of up to {@link #capacity()} rows exposed column by column. Instances and their vectors are reused
+ * for every batch of a scan, so consumers must not retain references past {@code accept}.
+ */
+final class RowBatch {
+    static final int DEFAULT_CAPACITY = 4096;
+
+    private final ColumnVector[] columns;
+    private final int capacity;
+    int size;
+    /**
+     * Rows that passed a filter the scan evaluated itself (see {@link ParquetScanner#filterFirst}), or {@code null}
+     * when the scan delivers every row it read. Columns hold decoded values only at selected rows.
+     */
+    boolean[] selection;
+
+    RowBatch(ColumnVector[] columns, int capacity) {
+        this.columns = columns;
+        this.capacity = capacity;
+    }
+
+    ColumnVector column(int index) {
+        return columns[index];
+    }
+
+    int columnCount() {
+        return columns.length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,71 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits the row groups left after pruning into runs of consecutive row groups of roughly equal compressed size.
+ * A range lists the row groups it was planned with, so row groups that were pruned between two of them are not
+ * scanned again by a reader that sees the whole footer.
+ */
+final class RowGroupPlanner {
+    private RowGroupPlanner() {
+    }
+
+    static List<ScanRange> plan(List<BlockMetaData> blocks, int targetRanges) {
+        if (blocks.isEmpty()) {
+            return List.of();
+        }
+        int ranges = Math.max(1, Math.min(targetRanges, blocks.size()));
+        long totalBytes = 0L;
+        for (BlockMetaData block : blocks) {
+            totalBytes += block.getCompressedSize();
+        }
+        long bytesPerRange = Math.max(1L, totalBytes / ranges);
+
+        List<ScanRange> out = new ArrayList<>(ranges);
+        int first = 0;
+        long accumulated = 0L;
+        for (int i = 0; i < blocks.size(); i++) {
+            accumulated += blocks.get(i).getCompressedSize();
+            boolean last = i == blocks.size() - 1;
+            if (last || (accumulated >= bytesPerRange && out.size() < ranges - 1)) {
+                out.add(toRange(blocks, first, i + 1));
+                first = i + 1;
+                accumulated = 0L;
+            }
+        }
+        return out;
+    }
+
+    private static ScanRange toRange(List<BlockMetaData> blocks, int from, int to) {
+        BlockMetaData lastBlock = blocks.get(to - 1);
+        long start = blocks.get(from).getStartingPos();
+        long end = lastBlock.getStartingPos() + lastBlock.getCompressedSize();
+        long rows = 0L;
+        long[] rowGroupStarts = new long[to - from];
+        for (int i = from; i < to; i++) {
+            rows += blocks.get(i).getRowCount();
+            rowGroupStarts[i - from] = blocks.get(i).getStartingPos();
+        }
+        return new ScanRange(start, end, rowGroupStarts, rows);
+    }
+
+    /**
+     * Byte range {@code [start, end)} of the file spanning the planned row groups, which are identified by their
+     * starting positions in file order.
+     */
+    record ScanRange(long start, long end, long[] rowGroupStarts, long rows) {
+        int rowGroups() {
+            return rowGroupStarts.length;
+        }
+
+        /** {@code true} when {@code block} is one of the row groups this range was planned with. */
+        boolean contains(BlockMetaData block) {
+            return Arrays.binarySearch(rowGroupStarts, block.getStartingPos()) >= 0;
+        }
+    }
+}
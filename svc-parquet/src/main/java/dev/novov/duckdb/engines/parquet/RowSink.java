@@ -0,0 +1,21 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.io.api.PrimitiveConverter;
+
+/**
+ * Receiver of the rows a {@link RowSinkMaterializer} assembles. The materializer's converters are the sink's own,
+ * so every field goes straight from the column reader into the sink's state, between {@link #startRow} and
+ * {@link #endRow}, without a record object in between. Fields that are null in a row are not delivered.
+ */
+interface RowSink {
+
+    /**
+     * Converter of projected field {@code field}, asked once per row group. If it supports dictionaries, it gets
+     * each dictionary of a column chunk once and the chunk's dictionary-encoded values as ids into it.
+     */
+    PrimitiveConverter converter(int field);
+
+    void startRow();
+
+    void endRow();
+}
@@ -0,0 +1,57 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.RecordMaterializer;
+
+/**
+ * Record materializer for flat projections that hands the fields of each record to a {@link RowSink} instead of
+ * building one; {@link #getCurrentRecord} is always {@code null}, so callers drive the {@code RecordReader} by row
+ * count rather than by its return value.
+ */
+final class RowSinkMaterializer extends RecordMaterializer<Void> {
+    private final Root root;
+
+    RowSinkMaterializer(RowSink sink, int fields) {
+        Converter[] converters = new Converter[fields];
+        for (int i = 0; i < fields; i++) {
+            converters[i] = sink.converter(i);
+        }
+        this.root = new Root(sink, converters);
+    }
+
+    @Override
+    public Void getCurrentRecord() {
+        return null;
+    }
+
+    @Override
+    public GroupConverter getRootConverter() {
+        return root;
+    }
+
+    private static final class Root extends GroupConverter {
+        private final RowSink sink;
+        private final Converter[] fields;
+
+        private Root(RowSink sink, Converter[] fields) {
+            this.sink = sink;
+            this.fields = fields;
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return fields[fieldIndex];
+        }
+
+        @Override
+        public void start() {
+            sink.startRow();
+        }
+
+        @Override
+        public void end() {
+            sink.endRow();
+        }
+    }
+}
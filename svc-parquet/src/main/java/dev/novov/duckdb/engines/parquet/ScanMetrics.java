@@ -0,0 +1,114 @@
+package dev.novov.duckdb.engines.parquet;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pruning counters of one case execution, shared by every scan worker of that execution. Row groups are counted
+ * once per planned scan (statistics and dictionary filtering); pages and rows per row group read through the
+ * column index. Row groups answered from footer statistics or skipped against a top-k threshold are reported
+ * separately, as are column chunks looked up in the page cache, pages skipped by late materialization, with
+ * code generation, how scan pipelines ran and, under a memory limit, what aggregation state was spilled.
+ */
+final class ScanMetrics {
+    private final LongAdder rowGroups = new LongAdder();
+    private final LongAdder rowGroupsSkipped = new LongAdder();
+    private final LongAdder rowGroupsFromMetadata = new LongAdder();
+    private final LongAdder rowGroupsBelowThreshold = new LongAdder();
+    private final LongAdder pages = new LongAdder();
+    private final LongAdder pagesSkipped = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder rowsSkipped = new LongAdder();
+    private final LongAdder pageCacheHits = new LongAdder();
+    private final LongAdder pageCacheMisses = new LongAdder();
+    private final LongAdder latePages = new LongAdder();
+    private final LongAdder latePagesSkipped = new LongAdder();
+    private final LongAdder pipelinesGenerated = new LongAdder();
+    private final LongAdder pipelinesInterpreted = new LongAdder();
+    private final LongAdder spillBytes = new LongAdder();
+    private final LongAdder spillNanos = new LongAdder();
+
+    void rowGroups(long total, long skipped) {
+        rowGroups.add(total);
+        rowGroupsSkipped.add(skipped);
+    }
+
+    /** Row groups whose contribution was computed from footer statistics instead of being decoded. */
+    void rowGroupsFromMetadata(long count) {
+        rowGroupsFromMetadata.add(count);
+    }
+
+    /** Row groups skipped during the scan because their statistics cannot beat a running top-k threshold. */
+    void rowGroupBelowThreshold() {
+        rowGroupsBelowThreshold.increment();
+    }
+
+    void pages(long total, long skipped) {
+        pages.add(total);
+        pagesSkipped.add(skipped);
+    }
+
+    void rows(long total, long skipped) {
+        rows.add(total);
+        rowsSkipped.add(skipped);
+    }
+
+    /** Column chunks served from, and added to, the {@link PageCache}. */
+    void pageCache(long hits, long misses) {
+        pageCacheHits.add(hits);
+        pageCacheMisses.add(misses);
+    }
+
+    /** Pages of late-materialized columns, and those skipped because no row in them passed the filter. */
+    void latePages(long total, long skipped) {
+        latePages.add(total);
+        latePagesSkipped.add(skipped);
+    }
+
+    /** Scan pipelines run as generated code, or interpreted because the plan has no generated form. */
+    void pipeline(boolean generated) {
+        (generated ? pipelinesGenerated : pipelinesInterpreted).increment();
+    }
+
+    /** Bytes written to a {@link SpillFile} and the time it took; reads back only add time. */
+    void spill(long bytes, long nanos) {
+        spillBytes.add(bytes);
+        spillNanos.add(nanos);
+    }
+
+    Map<String, Long> snapshot() {
+        Map<String, Long> out = new LinkedHashMap<>();
+        out.put("rowGroups", rowGroups.sum());
+        out.put("rowGroupsSkipped", rowGroupsSkipped.sum());
+        if (rowGroupsFromMetadata.sum() > 0) {
+            out.put("rowGroupsFromMetadata", rowGroupsFromMetadata.sum());
+        }
+        if (rowGroupsBelowThreshold.sum() > 0) {
+            out.put("rowGroupsBelowThreshold", rowGroupsBelowThreshold.sum());
+        }
+        if (pages.sum() > 0) {
+            out.put("pages", pages.sum());
+            out.put("pagesSkipped", pagesSkipped.sum());
+            out.put("rowsSkipped", rowsSkipped.sum());
+        }
+        if (pageCacheHits.sum() + pageCacheMisses.sum() > 0) {
+            out.put("pageCacheHits", pageCacheHits.sum());
+            out.put("pageCacheMisses", pageCacheMisses.sum());
+        }
+        if (latePages.sum() > 0) {
+            out.put("latePages", latePages.sum());
+            out.put("latePagesSkipped", latePagesSkipped.sum());
+        }
+        if (pipelinesGenerated.sum() + pipelinesInterpreted.sum() > 0) {
+            out.put("pipelinesGenerated", pipelinesGenerated.sum());
+            out.put("pipelinesInterpreted", pipelinesInterpreted.sum());
+        }
+        if (spillBytes.sum() > 0) {
+            out.put("spillBytes", spillBytes.sum());
+            out.put("spillMs", TimeUnit.NANOSECONDS.toMillis(spillNanos.sum()));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,21 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+
+/**
+ * Pipeline breaker: the last operator of a scan pipeline, holding the state of one scan worker. Worker states are
+ * folded with {@link #merge} once the scan is done.
+ */
+interface Sink<S extends Sink<S>> extends BatchOperator {
+
+    /** Folds {@code other} into this state and returns the result. */
+    S merge(S other);
+
+    /**
+     * Adds the contribution of a row group answered from its footer statistics, see
+     * {@link SinkFactory#answerable}.
+     */
+    default void absorb(BlockMetaData block) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot use footer statistics");
+    }
+}
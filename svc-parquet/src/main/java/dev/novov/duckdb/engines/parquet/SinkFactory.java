@@ -0,0 +1,33 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Plan node of a {@link Sink}: what it reads, how it prunes row groups and how the merged state becomes output
+ * rows. Nodes are built per execution by {@link QueryPlanner}, already bound to the file schema.
+ */
+interface SinkFactory<S extends Sink<S>> {
+
+    /** Logical columns read by the sink, in addition to those of the plan's filter. */
+    List<String> columns();
+
+    /** Fresh state for one scan worker; {@code columnIndex} maps a logical column to its batch position. */
+    S newSink(ToIntFunction<String> columnIndex);
+
+    /** {@code true} when the sink can take {@code block} from footer statistics ({@link Sink#absorb}). */
+    default boolean answerable(BlockMetaData block) {
+        return false;
+    }
+
+    /** {@code true} when {@code block} cannot change the result any more; evaluated while the scan runs. */
+    default boolean prune(BlockMetaData block) {
+        return false;
+    }
+
+    /** Produces the output of the merged state and returns the number of output rows. */
+    long finish(S result, ExecutionContext context) throws IOException;
+}
@@ -0,0 +1,86 @@
+package dev.novov.duckdb.engines.parquet;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Temporary file one scan worker spills aggregation state to once it outgrows its {@link MemoryBudget}. Every spill
+ * appends one segment per radix partition, in the record format of {@link AggregationTable}; segments are read back
+ * a partition at a time when the state is finished, possibly by several workers at once since reads are positional.
+ * The file is deleted on {@link #close}.
+ */
+final class SpillFile implements Closeable {
+    private final FileChannel channel;
+    private final ScanMetrics metrics;
+    private long size;
+
+    /** A run of records at {@code offset} of {@code file}. */
+    record Segment(SpillFile file, long offset, int length) {
+
+        ByteBuffer read() throws IOException {
+            return file.read(this);
+        }
+    }
+
+    private SpillFile(FileChannel channel, ScanMetrics metrics) {
+        this.channel = channel;
+        this.metrics = metrics;
+    }
+
+    static SpillFile create(ScanMetrics metrics) throws IOException {
+        Path path = Files.createTempFile("parquet-spill-", ".bin");
+        return new SpillFile(FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE), metrics);
+    }
+
+    /** Appends the remaining bytes of {@code records}. */
+    Segment write(ByteBuffer records) throws IOException {
+        long start = System.nanoTime();
+        Segment segment = new Segment(this, size, records.remaining());
+        long position = size;
+        while (records.hasRemaining()) {
+            position += channel.write(records, position);
+        }
+        size = position;
+        metrics.spill(segment.length(), System.nanoTime() - start);
+        return segment;
+    }
+
+    private ByteBuffer read(Segment segment) throws IOException {
+        long start = System.nanoTime();
+        ByteBuffer records = ByteBuffer.allocate(segment.length());
+        long position = segment.offset();
+        while (records.hasRemaining()) {
+            int read = channel.read(records, position);
+            if (read < 0) {
+                throw new EOFException("Spill file ends inside a segment at " + position);
+            }
+            position += read;
+        }
+        metrics.spill(0L, System.nanoTime() - start);
+        return records.flip();
+    }
+
+    /** {@code buffer}, or a copy of its written bytes with room for {@code bytes} more. */
+    static ByteBuffer ensureRemaining(ByteBuffer buffer, int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        long capacity = Math.max((long) buffer.capacity() * 2, (long) buffer.position() + bytes);
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Spill segment exceeds 2 GB: " + capacity + " bytes");
+        }
+        return ByteBuffer.allocate((int) capacity).put(buffer.flip());
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
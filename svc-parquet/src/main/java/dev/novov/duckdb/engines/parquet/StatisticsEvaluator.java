@@ -0,0 +1,162 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.schema.PrimitiveType;
+
+/**
+ * Decides from footer statistics alone whether a {@link BoundFilter} matches all, none or only some rows of a row
+ * group. Row groups classified {@link Coverage#ALL} or {@link Coverage#NONE} can be answered without decoding.
+ * <p>
+ * The evaluation is conservative: missing or unreliable statistics give {@link Coverage#SOME}. {@code ALL} also
+ * requires a known null count of zero, since nulls never match a comparison, and is never claimed for DOUBLE/FLOAT
+ * columns because writers may leave NaN out of min/max.
+ */
+final class StatisticsEvaluator {
+    enum Coverage {
+        NONE,
+        SOME,
+        ALL
+    }
+
+    private StatisticsEvaluator() {
+    }
+
+    static Coverage evaluate(BoundFilter filter, BlockMetaData block) {
+        return switch (filter) {
+            case BoundFilter.And and -> {
+                boolean all = true;
+                for (BoundFilter term : and.terms()) {
+                    Coverage coverage = evaluate(term, block);
+                    if (coverage == Coverage.NONE) {
+                        yield Coverage.NONE;
+                    }
+                    all &= coverage == Coverage.ALL;
+                }
+                yield all ? Coverage.ALL : Coverage.SOME;
+            }
+            case BoundFilter.Or or -> {
+                boolean none = true;
+                for (BoundFilter term : or.terms()) {
+                    Coverage coverage = evaluate(term, block);
+                    if (coverage == Coverage.ALL) {
+                        yield Coverage.ALL;
+                    }
+                    none &= coverage == Coverage.NONE;
+                }
+                yield none ? Coverage.NONE : Coverage.SOME;
+            }
+            case BoundFilter.IsNull isNull -> isNull(isNull, block);
+            case BoundFilter.Range range -> range(range, block);
+            case BoundFilter.In in -> in(in, block);
+        };
+    }
+
+    /** Statistics of {@code column} in {@code block}, or {@code null} when absent or empty. */
+    static Statistics<?> statistics(BlockMetaData block, String physicalColumn) {
+        for (ColumnChunkMetaData chunk : block.getColumns()) {
+            if (chunk.getPath().equals(ColumnPath.get(physicalColumn))) {
+                Statistics<?> stats = chunk.getStatistics();
+                return stats == null || stats.isEmpty() ? null : stats;
+            }
+        }
+        return null;
+    }
+
+    /** {@code true} when the min/max of {@code stats} can be trusted as exact bounds of the non-null values. */
+    static boolean hasUsableMinMax(Statistics<?> stats) {
+        if (stats == null || !stats.hasNonNullValue()) {
+            return false;
+        }
+        Object min = stats.genericGetMin();
+        Object max = stats.genericGetMax();
+        return !(min instanceof Double d && d.isNaN()) && !(max instanceof Double d2 && d2.isNaN())
+                && !(min instanceof Float f && f.isNaN()) && !(max instanceof Float f2 && f2.isNaN());
+    }
+
+    private static Coverage isNull(BoundFilter.IsNull isNull, BlockMetaData block) {
+        Statistics<?> stats = statistics(block, isNull.column().physical());
+        if (stats == null || !stats.isNumNullsSet()) {
+            return Coverage.SOME;
+        }
+        boolean allNull = stats.getNumNulls() == block.getRowCount();
+        boolean noNull = stats.getNumNulls() == 0;
+        if (isNull.negated()) {
+            return noNull ? Coverage.ALL : allNull ? Coverage.NONE : Coverage.SOME;
+        }
+        return allNull ? Coverage.ALL : noNull ? Coverage.NONE : Coverage.SOME;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Coverage range(BoundFilter.Range range, BlockMetaData block) {
+        Statistics stats = statistics(block, range.column().physical());
+        if (stats != null && stats.isNumNullsSet() && stats.getNumNulls() == block.getRowCount()) {
+            return Coverage.NONE;
+        }
+        if (!hasUsableMinMax(stats)) {
+            return Coverage.SOME;
+        }
+        boolean allAboveLower = true;
+        boolean allBelowUpper = true;
+        if (range.lower() != null) {
+            int maxVsLower = stats.compareMaxToValue((Comparable) range.lower());
+            if (maxVsLower < 0 || (maxVsLower == 0 && !range.lowerInclusive())) {
+                return Coverage.NONE;
+            }
+            int minVsLower = stats.compareMinToValue((Comparable) range.lower());
+            allAboveLower = minVsLower > 0 || (minVsLower == 0 && range.lowerInclusive());
+        }
+        if (range.upper() != null) {
+            int minVsUpper = stats.compareMinToValue((Comparable) range.upper());
+            if (minVsUpper > 0 || (minVsUpper == 0 && !range.upperInclusive())) {
+                return Coverage.NONE;
+            }
+            int maxVsUpper = stats.compareMaxToValue((Comparable) range.upper());
+            allBelowUpper = maxVsUpper < 0 || (maxVsUpper == 0 && range.upperInclusive());
+        }
+        return allAboveLower && allBelowUpper && canClaimAll(range.column(), stats) ? Coverage.ALL : Coverage.SOME;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Coverage in(BoundFilter.In in, BlockMetaData block) {
+        Statistics stats = statistics(block, in.column().physical());
+        if (stats != null && stats.isNumNullsSet() && stats.getNumNulls() == block.getRowCount()) {
+            return Coverage.NONE;
+        }
+        if (!hasUsableMinMax(stats)) {
+            return Coverage.SOME;
+        }
+        boolean anyInside = false;
+        boolean singleValueListed = false;
+        for (Comparable<?> value : in.values()) {
+            int minVsValue = stats.compareMinToValue((Comparable) value);
+            int maxVsValue = stats.compareMaxToValue((Comparable) value);
+            if (minVsValue <= 0 && maxVsValue >= 0) {
+                anyInside = true;
+                singleValueListed |= minVsValue == 0 && maxVsValue == 0;
+            }
+        }
+        if (!in.negated()) {
+            if (!anyInside) {
+                return Coverage.NONE;
+            }
+            return singleValueListed && canClaimAll(in.column(), stats) ? Coverage.ALL : Coverage.SOME;
+        }
+        if (singleValueListed) {
+            // NaN rows would still satisfy NOT IN, and min/max may not account for them.
+            return isFloating(in.column()) ? Coverage.SOME : Coverage.NONE;
+        }
+        return !anyInside && canClaimAll(in.column(), stats) ? Coverage.ALL : Coverage.SOME;
+    }
+
+    private static boolean canClaimAll(BoundFilter.Column column, Statistics<?> stats) {
+        return stats.isNumNullsSet() && stats.getNumNulls() == 0 && !isFloating(column);
+    }
+
+    private static boolean isFloating(BoundFilter.Column column) {
+        PrimitiveType.PrimitiveTypeName type = column.physicalType();
+        return type == PrimitiveType.PrimitiveTypeName.DOUBLE || type == PrimitiveType.PrimitiveTypeName.FLOAT;
+    }
+}
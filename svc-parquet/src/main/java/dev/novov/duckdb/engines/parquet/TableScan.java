@@ -0,0 +1,59 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.BinaryOperator;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Parallel source of the batches of a {@link PhysicalPlan}: a {@link ParallelScan} over the row groups of a Parquet
+ * file, or a {@link CsvScan} over byte ranges of a CSV file. Either way each worker feeds batches into its own
+ * state, and the states are merged once the scan is done.
+ */
+interface TableScan {
+
+    /**
+     * Plans a scan of {@code file}. For Parquet files, row groups are pruned by {@code rowGroupFilter} and
+     * {@code include} (see {@link ParallelScan#plan}); CSV files have neither statistics nor row groups.
+     */
+    static TableScan plan(String file,
+                          List<String> columns,
+                          FilterCompat.Filter rowGroupFilter,
+                          Predicate<BlockMetaData> include,
+                          ExecutionContext context) throws IOException {
+        if (CsvLayout.isCsv(file)) {
+            return CsvScan.plan(file, columns, context);
+        }
+        return ParallelScan.plan(file, columns, rowGroupFilter, include, context);
+    }
+
+    /** Row groups the scan may read, for answering some of them from metadata; empty for CSV files. */
+    List<BlockMetaData> rowGroups();
+
+    /** Position of the vector holding {@code logicalColumn} in every batch of the scan. */
+    int columnIndex(String logicalColumn);
+
+    /** Physical type of the vector at {@code index} of every batch. */
+    PrimitiveType.PrimitiveTypeName columnType(int index);
+
+    /**
+     * Has the scan evaluate {@code filter} itself and decode the other columns only where it matches; batches
+     * then report the matching rows in {@link RowBatch#selection}.
+     */
+    TableScan materializeLate(BoundFilter filter);
+
+    /**
+     * Scans the file into worker-local states created by {@code newState} and folds them with {@code merge}.
+     */
+    <S> S run(Supplier<S> newState, BatchAccumulator<S> accumulator, BinaryOperator<S> merge) throws IOException;
+
+    @FunctionalInterface
+    interface BatchAccumulator<S> {
+        void accept(S state, RowBatch batch) throws IOException;
+    }
+}
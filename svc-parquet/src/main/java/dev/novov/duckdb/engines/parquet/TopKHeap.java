@@ -0,0 +1,121 @@
+package dev.novov.duckdb.engines.parquet;
+
+import java.util.Arrays;
+
+/**
+ * Bounded binary heap over primitive {@code long} keys that keeps the {@code k} best values, with an optional row
+ * payload per entry. Keys are built by {@link #key(long, boolean)} for INT64 columns, so values beyond 2^53 keep
+ * their exact order, and by {@link #key(double, boolean)} for every other numeric column. Ascending heaps store
+ * complemented keys so both directions share one min-heap whose root is the current threshold.
+ */
+final class TopKHeap {
+    private final int k;
+    private final long[] keys;
+    private final String[][] rows;
+    private int size;
+
+    TopKHeap(int k, boolean withRows) {
+        this.k = k;
+        this.keys = new long[k];
+        this.rows = withRows ? new String[k][] : null;
+    }
+
+    /** Heap key of an INT64 value; a larger key is always better. */
+    static long key(long value, boolean desc) {
+        return desc ? value : ~value;
+    }
+
+    /** Heap key of a floating point value, ordered like {@link Double#compare}: every NaN above all numbers. */
+    static long key(double value, boolean desc) {
+        long bits = Double.doubleToLongBits(value);
+        return key(bits ^ (bits >> 63 & Long.MAX_VALUE), desc);
+    }
+
+    boolean isFull() {
+        return size == k;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Key of the worst value still kept once the heap is full; only meaningful when {@link #isFull()}. */
+    long threshold() {
+        return keys[0];
+    }
+
+    /** {@code true} when {@code key} would enter the heap; lets callers skip building the row payload. */
+    boolean accepts(long key) {
+        return size < k || key > keys[0];
+    }
+
+    void offer(long key, String[] row) {
+        if (size < k) {
+            int i = size++;
+            // sift up
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                move(parent, i);
+                i = parent;
+            }
+            set(i, key, row);
+            return;
+        }
+        if (key <= keys[0]) {
+            return;
+        }
+        // replace the root and sift down
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            move(child, i);
+            i = child;
+        }
+        set(i, key, row);
+    }
+
+    TopKHeap merge(TopKHeap other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.keys[i], other.rows == null ? null : other.rows[i]);
+        }
+        return this;
+    }
+
+    /** Kept keys in output order (best first). */
+    long[] sortedKeys() {
+        long[] out = Arrays.copyOf(keys, size);
+        Arrays.sort(out);
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            long swap = out[i];
+            out[i] = out[j];
+            out[j] = swap;
+        }
+        return out;
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        if (rows != null) {
+            rows[to] = rows[from];
+        }
+    }
+
+    private void set(int i, long key, String[] row) {
+        keys[i] = key;
+        if (rows != null) {
+            rows[i] = row;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.schema.MessageType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.ToIntFunction;
+
+/**
+ * {@code ORDER BY column [DESC] LIMIT k} over one numeric column with per-worker {@link TopKHeap}s merged at the
+ * end. Once any worker's heap is full its threshold is published; row groups whose max (DESC) or min (ASC)
+ * statistic cannot beat the best published threshold are pruned before decoding; a NaN sorts first when descending
+ * and may be missing from a floating point max, so DESC over DOUBLE/FLOAT prunes only once the heap holds NaNs.
+ * Projected columns are only materialized for rows that enter a heap.
+ */
+final class TopN implements SinkFactory<TopN.State> {
+    private final String orderBy;
+    private final String physical;
+    private final boolean desc;
+    private final int k;
+    private final List<String> project;
+    private final boolean skipping;
+    private final ExecutionContext context;
+    /** Thresholds in {@link TopKHeap} key space, so a larger value is always stricter. */
+    private final LongAccumulator published = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    TopN(MessageType schema, String orderBy, boolean desc, int k, List<String> project, ExecutionContext context) {
+        this.orderBy = orderBy;
+        this.physical = ParquetScanner.resolveColumn(schema, orderBy).getName();
+        this.desc = desc;
+        this.k = Math.max(1, k);
+        this.project = project;
+        // a row limit makes the heap depend on scan order, so thresholds from other row groups do not apply
+        this.skipping = context.config().limitRowsOrMinusOne() <= 0;
+        this.context = context;
+    }
+
+    @Override
+    public List<String> columns() {
+        List<String> columns = new ArrayList<>();
+        columns.add(orderBy);
+        for (String column : project) {
+            if (!columns.contains(column)) {
+                columns.add(column);
+            }
+        }
+        return columns;
+    }
+
+    @Override
+    public State newSink(ToIntFunction<String> columnIndex) {
+        int[] projectIndexes = project.stream().mapToInt(columnIndex).toArray();
+        return new State(new TopKHeap(k, projectIndexes.length > 0), columnIndex.applyAsInt(orderBy),
+                projectIndexes, desc, published);
+    }
+
+    @Override
+    public boolean prune(BlockMetaData block) {
+        return skipping && !canImprove(block);
+    }
+
+    private boolean canImprove(BlockMetaData block) {
+        long threshold = published.get();
+        if (threshold == Long.MIN_VALUE) {
+            return true;
+        }
+        Statistics<?> stats = StatisticsEvaluator.statistics(block, physical);
+        if (!StatisticsEvaluator.hasUsableMinMax(stats)) {
+            return true;
+        }
+        long best;
+        Object bound = desc ? stats.genericGetMax() : stats.genericGetMin();
+        if (bound instanceof Long value) {
+            best = TopKHeap.key(value.longValue(), desc);
+        } else if (desc && (bound instanceof Double || bound instanceof Float)) {
+            // NaN leads a descending order but writers may leave it out of max, so only a heap of NaNs is final
+            best = TopKHeap.key(Double.NaN, true);
+        } else if (bound instanceof Number value) {
+            best = TopKHeap.key(value.doubleValue(), desc);
+        } else {
+            return true;
+        }
+        if (best > threshold) {
+            return true;
+        }
+        context.metrics().rowGroupBelowThreshold();
+        return false;
+    }
+
+    @Override
+    public long finish(State result, ExecutionContext context) {
+        // materialize the ordered output like the SQL engine does
+        return result.heap.sortedKeys().length;
+    }
+
+    static final class State implements Sink<State> {
+        private TopKHeap heap;
+        private final int valueIndex;
+        private final int[] projectIndexes;
+        private final boolean desc;
+        private final LongAccumulator published;
+
+        private State(TopKHeap heap, int valueIndex, int[] projectIndexes, boolean desc, LongAccumulator published) {
+            this.heap = heap;
+            this.valueIndex = valueIndex;
+            this.projectIndexes = projectIndexes;
+            this.desc = desc;
+            this.published = published;
+        }
+
+        @Override
+        public void push(RowBatch batch, boolean[] alive) {
+            ColumnVector values = batch.column(valueIndex);
+            boolean withRows = projectIndexes.length > 0;
+            // INT64 keys are taken from the long buffer so they never round through double
+            boolean int64 = values.longs != null;
+            for (int i = 0; i < batch.size(); i++) {
+                if (!alive[i] || values.nulls[i]) {
+                    continue;
+                }
+                long key = int64 ? TopKHeap.key(values.longs[i], desc) : TopKHeap.key(values.getDouble(i), desc);
+                if (heap.accepts(key)) {
+                    heap.offer(key, withRows ? row(batch, i) : null);
+                }
+            }
+            if (heap.isFull()) {
+                published.accumulate(heap.threshold());
+            }
+        }
+
+        private String[] row(RowBatch batch, int row) {
+            String[] out = new String[projectIndexes.length];
+            for (int c = 0; c < projectIndexes.length; c++) {
+                out[c] = batch.column(projectIndexes[c]).getString(row);
+            }
+            return out;
+        }
+
+        @Override
+        public State merge(State other) {
+            heap = heap.merge(other.heap);
+            return this;
+        }
+    }
+}
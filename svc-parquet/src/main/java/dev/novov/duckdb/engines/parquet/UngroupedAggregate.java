@@ -0,0 +1,296 @@
+package dev.novov.duckdb.engines.parquet;
+
+import dev.novov.duckdb.bench.api.AggFn;
+import dev.novov.duckdb.engines.parquet.kernels.Kernels;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveComparator;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Ungrouped aggregate, {@code SELECT fn(column) ... [WHERE filter]}. Row groups the filter covers entirely (or not
+ * at all, see {@link StatisticsEvaluator}) are answered from footer statistics when the aggregate allows it: row
+ * count for {@code COUNT(*)}, row count minus null count for {@code COUNT(col)} and min/max for {@code MIN}/{@code MAX}
+ * on non-binary columns, except {@code MAX} on DOUBLE/FLOAT. Only the remaining row groups are decoded.
+ */
+final class UngroupedAggregate implements SinkFactory<UngroupedAggregate.State> {
+    private final AggFn fn;
+    private final String columnName;
+    private final PrimitiveType column;
+    private final BoundFilter where;
+    private final List<String> columns;
+
+    /** {@code column} may be {@code null} for {@code COUNT(*)}; {@code where} is the plan's filter, if any. */
+    UngroupedAggregate(MessageType schema, AggFn fn, String column, BoundFilter where) {
+        this.fn = fn;
+        this.columnName = column;
+        this.column = column == null ? null : ParquetScanner.resolveColumn(schema, column);
+        this.where = where;
+        if (column != null) {
+            this.columns = List.of(column);
+        } else if (where == null) {
+            // COUNT(*) still needs one column to count rows when it has to scan
+            this.columns = List.of(schema.getFields().get(0).getName());
+        } else {
+            this.columns = List.of();
+        }
+    }
+
+    AggFn fn() {
+        return fn;
+    }
+
+    /** Aggregated column, {@code null} for {@code COUNT(*)}. */
+    String column() {
+        return columnName;
+    }
+
+    @Override
+    public List<String> columns() {
+        return columns;
+    }
+
+    @Override
+    public State newSink(ToIntFunction<String> columnIndex) {
+        return new State(fn, column, where, columnName == null ? -1 : columnIndex.applyAsInt(columnName));
+    }
+
+    @Override
+    public boolean answerable(BlockMetaData block) {
+        StatisticsEvaluator.Coverage coverage = where == null
+                ? StatisticsEvaluator.Coverage.ALL
+                : StatisticsEvaluator.evaluate(where, block);
+        if (coverage != StatisticsEvaluator.Coverage.ALL) {
+            return coverage == StatisticsEvaluator.Coverage.NONE;
+        }
+        if (column == null) {
+            return true;
+        }
+        Statistics<?> stats = StatisticsEvaluator.statistics(block, column.getName());
+        return switch (fn) {
+            case COUNT -> stats != null && stats.isNumNullsSet();
+            case MIN, MAX -> stats != null && stats.isNumNullsSet()
+                    && (stats.getNumNulls() == block.getRowCount() || StatisticsEvaluator.hasUsableMinMax(stats))
+                    // a NaN is the largest double but writers may leave it out of max, so MAX has to scan
+                    && !(fn == AggFn.MAX && isFloating())
+                    && column.getPrimitiveTypeName() != PrimitiveType.PrimitiveTypeName.BINARY
+                    && column.getPrimitiveTypeName() != PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY
+                    && column.getPrimitiveTypeName() != PrimitiveType.PrimitiveTypeName.INT96;
+            case SUM, AVG, MEDIAN, QUANTILE, APPROX_QUANTILE -> false;
+        };
+    }
+
+    private boolean isFloating() {
+        return column.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.DOUBLE
+                || column.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.FLOAT;
+    }
+
+    @Override
+    public long finish(State result, ExecutionContext context) {
+        result.requireResult();
+        return 1L;
+    }
+
+    /** Running aggregate of one worker; also takes the row groups answered from statistics. */
+    static final class State implements Sink<State> {
+        private final AggFn fn;
+        private final PrimitiveType column;
+        private final BoundFilter where;
+        private final int valueIndex;
+        private final PrimitiveComparator<Object> comparator;
+        /** INT32/INT64 values order as signed numbers, so MIN/MAX can use the array kernels. */
+        private final boolean signedInteger;
+        private boolean[] mask = new boolean[RowBatch.DEFAULT_CAPACITY];
+        long count;
+        double sum;
+        Object extreme;
+
+        private State(AggFn fn, PrimitiveType column, BoundFilter where, int valueIndex) {
+            this.fn = fn;
+            this.column = column;
+            this.where = where;
+            this.valueIndex = valueIndex;
+            this.comparator = column == null ? null : column.comparator();
+            this.signedInteger = column != null
+                    && !(column.getLogicalTypeAnnotation() instanceof LogicalTypeAnnotation.IntLogicalTypeAnnotation ints
+                    && !ints.isSigned());
+        }
+
+        @Override
+        public void absorb(BlockMetaData block) {
+            if (where != null && StatisticsEvaluator.evaluate(where, block) == StatisticsEvaluator.Coverage.NONE) {
+                return;
+            }
+            if (column == null) {
+                count += block.getRowCount();
+                return;
+            }
+            Statistics<?> stats = StatisticsEvaluator.statistics(block, column.getName());
+            long nonNull = block.getRowCount() - stats.getNumNulls();
+            count += nonNull;
+            if ((fn == AggFn.MIN || fn == AggFn.MAX) && nonNull > 0) {
+                offer(fn == AggFn.MIN ? stats.genericGetMin() : stats.genericGetMax());
+            }
+        }
+
+        @Override
+        public void push(RowBatch batch, boolean[] alive) {
+            int n = batch.size();
+            if (valueIndex < 0) {
+                count += Kernels.count(alive, n);
+                return;
+            }
+            if (mask.length < batch.capacity()) {
+                mask = new boolean[batch.capacity()];
+            }
+            ColumnVector values = batch.column(valueIndex);
+            Kernels.andNot(alive, values.nulls, mask, n);
+            switch (fn) {
+                case COUNT -> count += Kernels.count(mask, n);
+                case SUM, AVG -> acceptSum(values, n);
+                case MIN, MAX -> acceptExtreme(values, n);
+            }
+        }
+
+        private void acceptSum(ColumnVector values, int n) {
+            count += Kernels.count(mask, n);
+            switch (values.type) {
+                case INT64 -> sum += Kernels.sum(values.longs, mask, n);
+                case INT32, BOOLEAN -> sum += Kernels.sum(values.ints, mask, n);
+                case DOUBLE, FLOAT -> sum += Kernels.sum(values.doubles, mask, n);
+                default -> {
+                    for (int i = 0; i < n; i++) {
+                        if (mask[i]) {
+                            sum += values.getDouble(i);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void acceptExtreme(ColumnVector values, int n) {
+            boolean kernels = switch (values.type) {
+                case INT64, INT32 -> signedInteger;
+                case DOUBLE -> true;
+                default -> false;
+            };
+            if (kernels && acceptExtremeWithKernels(values, n)) {
+                return;
+            }
+            int sign = fn == AggFn.MIN ? -1 : 1;
+            int best = -1;
+            switch (values.type) {
+                case INT64 -> {
+                    for (int i = 0; i < n; i++) {
+                        if (mask[i] && (best < 0 || sign * comparator.compare(values.longs[i], values.longs[best]) > 0)) {
+                            best = i;
+                        }
+                    }
+                    if (best >= 0) offer(values.longs[best]);
+                }
+                case INT32 -> {
+                    for (int i = 0; i < n; i++) {
+                        if (mask[i] && (best < 0 || sign * comparator.compare(values.ints[i], values.ints[best]) > 0)) {
+                            best = i;
+                        }
+                    }
+                    if (best >= 0) offer(values.ints[best]);
+                }
+                case BOOLEAN -> {
+                    for (int i = 0; i < n; i++) {
+                        if (mask[i] && (best < 0 || sign * Integer.compare(values.ints[i], values.ints[best]) > 0)) {
+                            best = i;
+                        }
+                    }
+                    if (best >= 0) offer(values.ints[best] != 0);
+                }
+                case DOUBLE, FLOAT -> {
+                    for (int i = 0; i < n; i++) {
+                        if (mask[i] && (best < 0 || sign * Double.compare(values.doubles[i], values.doubles[best]) > 0)) {
+                            best = i;
+                        }
+                    }
+                    if (best >= 0) offer(values.type == PrimitiveType.PrimitiveTypeName.FLOAT
+                            ? (Object) (float) values.doubles[best] : (Object) values.doubles[best]);
+                }
+                default -> {
+                    Binary bestValue = null;
+                    for (int i = 0; i < n; i++) {
+                        if (!mask[i]) continue;
+                        Binary value = binary(values, i);
+                        if (bestValue == null || sign * comparator.compare(value, bestValue) > 0) {
+                            bestValue = value;
+                        }
+                    }
+                    if (bestValue != null) offer(bestValue.copy());
+                }
+            }
+        }
+
+        /**
+         * MIN/MAX through the array kernels; {@code false} when the batch needs the comparator loop instead, which is
+         * the case for a double MIN over a NaN (NaN sorts last under {@code Double.compare}, unlike {@code Math.min}).
+         */
+        private boolean acceptExtremeWithKernels(ColumnVector values, int n) {
+            if (Kernels.count(mask, n) == 0) {
+                return true;
+            }
+            boolean min = fn == AggFn.MIN;
+            switch (values.type) {
+                case INT64 -> offer(min ? Kernels.min(values.longs, mask, n) : Kernels.max(values.longs, mask, n));
+                case INT32 -> offer(min ? Kernels.min(values.ints, mask, n) : Kernels.max(values.ints, mask, n));
+                default -> {
+                    double value = min ? Kernels.min(values.doubles, mask, n) : Kernels.max(values.doubles, mask, n);
+                    if (min && Double.isNaN(value)) {
+                        return false;
+                    }
+                    offer(value);
+                }
+            }
+            return true;
+        }
+
+        private static Binary binary(ColumnVector values, int row) {
+            int id = values.dictIds[row];
+            if (id >= 0) {
+                return Binary.fromConstantByteArray(values.dictionary[id]);
+            }
+            return Binary.fromConstantByteArray(values.bytes, values.offsets[row], values.lengths[row]);
+        }
+
+        private void offer(Object candidate) {
+            if (extreme == null) {
+                extreme = candidate;
+                return;
+            }
+            int cmp = comparator.compare(candidate, extreme);
+            if (fn == AggFn.MIN ? cmp < 0 : cmp > 0) {
+                extreme = candidate;
+            }
+        }
+
+        @Override
+        public State merge(State other) {
+            count += other.count;
+            sum += other.sum;
+            if (other.extreme != null) {
+                offer(other.extreme);
+            }
+            return this;
+        }
+
+        /** Forces the final value, like the output row of the SQL engine. */
+        void requireResult() {
+            double avg = fn == AggFn.AVG && count > 0 ? sum / count : 0d;
+            if (Double.isInfinite(avg)) {
+                throw new IllegalStateException("Average overflow");
+            }
+        }
+    }
+}
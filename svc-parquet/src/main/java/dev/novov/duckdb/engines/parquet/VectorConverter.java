@@ -0,0 +1,74 @@
+package dev.novov.duckdb.engines.parquet;
+
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.PrimitiveConverter;
+
+/**
+ * Writes values delivered by a {@code ColumnReader} into a {@link ColumnVector} at the current {@link #row}.
+ * Dictionary support is always on so that binary columns keep the dictionary id instead of a decoded value.
+ */
+final class VectorConverter extends PrimitiveConverter {
+    private final ColumnVector vector;
+    private Dictionary dictionary;
+    int row;
+
+    VectorConverter(ColumnVector vector) {
+        this.vector = vector;
+    }
+
+    @Override
+    public boolean hasDictionarySupport() {
+        return true;
+    }
+
+    @Override
+    public void setDictionary(Dictionary dictionary) {
+        this.dictionary = dictionary;
+        if (vector.isBinary()) {
+            vector.setDictionary(dictionary);
+        }
+    }
+
+    @Override
+    public void addValueFromDictionary(int dictionaryId) {
+        switch (vector.type) {
+            case INT64 -> vector.longs[row] = dictionary.decodeToLong(dictionaryId);
+            case INT32 -> vector.ints[row] = dictionary.decodeToInt(dictionaryId);
+            case DOUBLE -> vector.doubles[row] = dictionary.decodeToDouble(dictionaryId);
+            case FLOAT -> vector.doubles[row] = dictionary.decodeToFloat(dictionaryId);
+            case BOOLEAN -> vector.ints[row] = dictionary.decodeToBoolean(dictionaryId) ? 1 : 0;
+            default -> vector.dictIds[row] = dictionaryId;
+        }
+    }
+
+    @Override
+    public void addBinary(Binary value) {
+        vector.appendBytes(row, value);
+    }
+
+    @Override
+    public void addBoolean(boolean value) {
+        vector.ints[row] = value ? 1 : 0;
+    }
+
+    @Override
+    public void addDouble(double value) {
+        vector.doubles[row] = value;
+    }
+
+    @Override
+    public void addFloat(float value) {
+        vector.doubles[row] = value;
+    }
+
+    @Override
+    public void addInt(int value) {
+        vector.ints[row] = value;
+    }
+
+    @Override
+    public void addLong(long value) {
+        vector.longs[row] = value;
+    }
+}
@@ -0,0 +1,128 @@
+package dev.novov.duckdb.engines.parquet.kernels;
+
+/**
+ * Primitive array kernels for the filter and aggregate operators. Every kernel works on the first {@code n} elements
+ * of its arrays; masks are {@code boolean[]} match flags as produced by the filter kernels.
+ * <p>
+ * The SIMD implementation on {@code jdk.incubator.vector} is used when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}, and the plain loops otherwise; {@code -Dparquet.kernels=scalar} forces
+ * the latter. Both give identical results except for the rounding of double sums, which the SIMD form adds up
+ * lane-wise.
+ */
+public final class Kernels {
+    private static final ScalarKernels IMPL = select();
+
+    private Kernels() {
+    }
+
+    private static ScalarKernels select() {
+        boolean vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        if (!vectorModule || "scalar".equals(System.getProperty("parquet.kernels"))) {
+            return new ScalarKernels();
+        }
+        return new VectorKernels();
+    }
+
+    /** {@code "scalar"} or {@code "vector(<bits>-bit)"}, for run headers. */
+    public static String implementation() {
+        return IMPL.name();
+    }
+
+    public static long sum(long[] values, int n) {
+        return IMPL.sum(values, n);
+    }
+
+    public static long sum(int[] values, int n) {
+        return IMPL.sum(values, n);
+    }
+
+    public static double sum(double[] values, int n) {
+        return IMPL.sum(values, n);
+    }
+
+    /** Sum of the values whose {@code mask} flag is set. */
+    public static long sum(long[] values, boolean[] mask, int n) {
+        return IMPL.sum(values, mask, n);
+    }
+
+    public static long sum(int[] values, boolean[] mask, int n) {
+        return IMPL.sum(values, mask, n);
+    }
+
+    public static double sum(double[] values, boolean[] mask, int n) {
+        return IMPL.sum(values, mask, n);
+    }
+
+    /** Number of set flags. */
+    public static int count(boolean[] mask, int n) {
+        return IMPL.count(mask, n);
+    }
+
+    /** Minimum of the masked values, {@link Long#MAX_VALUE} when none is set. */
+    public static long min(long[] values, boolean[] mask, int n) {
+        return IMPL.min(values, mask, n);
+    }
+
+    /** Maximum of the masked values, {@link Long#MIN_VALUE} when none is set. */
+    public static long max(long[] values, boolean[] mask, int n) {
+        return IMPL.max(values, mask, n);
+    }
+
+    public static int min(int[] values, boolean[] mask, int n) {
+        return IMPL.min(values, mask, n);
+    }
+
+    public static int max(int[] values, boolean[] mask, int n) {
+        return IMPL.max(values, mask, n);
+    }
+
+    /** {@link Math#min(double, double)} semantics: a NaN wins, and {@code -0.0} is below {@code 0.0}. */
+    public static double min(double[] values, boolean[] mask, int n) {
+        return IMPL.min(values, mask, n);
+    }
+
+    public static double max(double[] values, boolean[] mask, int n) {
+        return IMPL.max(values, mask, n);
+    }
+
+    /** {@code out[i] = !nulls[i] && lower <= values[i] <= upper}. */
+    public static void range(long[] values, boolean[] nulls, long lower, long upper, boolean[] out, int n) {
+        IMPL.range(values, nulls, lower, upper, out, n);
+    }
+
+    public static void range(int[] values, boolean[] nulls, int lower, int upper, boolean[] out, int n) {
+        IMPL.range(values, nulls, lower, upper, out, n);
+    }
+
+    public static void range(double[] values, boolean[] nulls, double lower, double upper, boolean[] out, int n) {
+        IMPL.range(values, nulls, lower, upper, out, n);
+    }
+
+    /** {@code out[i] = !nulls[i] && values[i] == value}, e.g. on dictionary ids. */
+    public static void equal(int[] values, boolean[] nulls, int value, boolean[] out, int n) {
+        IMPL.equal(values, nulls, value, out, n);
+    }
+
+    /** {@code target[i] &= other[i]}. */
+    public static void and(boolean[] target, boolean[] other, int n) {
+        IMPL.and(target, other, n);
+    }
+
+    /** {@code target[i] |= other[i]}. */
+    public static void or(boolean[] target, boolean[] other, int n) {
+        IMPL.or(target, other, n);
+    }
+
+    /** {@code out[i] = mask[i] && !excluded[i]}; {@code out} may be {@code mask}. */
+    public static void andNot(boolean[] mask, boolean[] excluded, boolean[] out, int n) {
+        IMPL.andNot(mask, excluded, out, n);
+    }
+
+    /**
+     * Selection vector: writes the positions of the set flags, in order, to the front of {@code selection}, which
+     * must hold {@code n} entries, and returns how many there are.
+     */
+    public static int select(boolean[] mask, int n, int[] selection) {
+        return IMPL.select(mask, n, selection);
+    }
+}
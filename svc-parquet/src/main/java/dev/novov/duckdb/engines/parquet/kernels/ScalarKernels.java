@@ -0,0 +1,184 @@
+package dev.novov.duckdb.engines.parquet.kernels;
+
+/**
+ * Plain-loop form of every kernel: the fallback when the JVM runs without {@code jdk.incubator.vector} and the
+ * baseline the benchmarks measure {@link VectorKernels} against.
+ */
+class ScalarKernels {
+
+    String name() {
+        return "scalar";
+    }
+
+    long sum(long[] values, int n) {
+        long sum = 0L;
+        for (int i = 0; i < n; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    long sum(int[] values, int n) {
+        long sum = 0L;
+        for (int i = 0; i < n; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    double sum(double[] values, int n) {
+        double sum = 0d;
+        for (int i = 0; i < n; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    long sum(long[] values, boolean[] mask, int n) {
+        long sum = 0L;
+        for (int i = 0; i < n; i++) {
+            sum += mask[i] ? values[i] : 0L;
+        }
+        return sum;
+    }
+
+    long sum(int[] values, boolean[] mask, int n) {
+        long sum = 0L;
+        for (int i = 0; i < n; i++) {
+            sum += mask[i] ? values[i] : 0;
+        }
+        return sum;
+    }
+
+    double sum(double[] values, boolean[] mask, int n) {
+        double sum = 0d;
+        for (int i = 0; i < n; i++) {
+            if (mask[i]) {
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+
+    int count(boolean[] mask, int n) {
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            count += mask[i] ? 1 : 0;
+        }
+        return count;
+    }
+
+    long min(long[] values, boolean[] mask, int n) {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            if (mask[i]) {
+                min = Math.min(min, values[i]);
+            }
+        }
+        return min;
+    }
+
+    long max(long[] values, boolean[] mask, int n) {
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            if (mask[i]) {
+                max = Math.max(max, values[i]);
+            }
+        }
+        return max;
+    }
+
+    int min(int[] values, boolean[] mask, int n) {
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            if (mask[i]) {
+                min = Math.min(min, values[i]);
+            }
+        }
+        return min;
+    }
+
+    int max(int[] values, boolean[] mask, int n) {
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            if (mask[i]) {
+                max = Math.max(max, values[i]);
+            }
+        }
+        return max;
+    }
+
+    double min(double[] values, boolean[] mask, int n) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            if (mask[i]) {
+                min = Math.min(min, values[i]);
+            }
+        }
+        return min;
+    }
+
+    double max(double[] values, boolean[] mask, int n) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            if (mask[i]) {
+                max = Math.max(max, values[i]);
+            }
+        }
+        return max;
+    }
+
+    void range(long[] values, boolean[] nulls, long lower, long upper, boolean[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            long v = values[i];
+            out[i] = !nulls[i] & v >= lower & v <= upper;
+        }
+    }
+
+    void range(int[] values, boolean[] nulls, int lower, int upper, boolean[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            int v = values[i];
+            out[i] = !nulls[i] & v >= lower & v <= upper;
+        }
+    }
+
+    void range(double[] values, boolean[] nulls, double lower, double upper, boolean[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            double v = values[i];
+            out[i] = !nulls[i] & v >= lower & v <= upper;
+        }
+    }
+
+    void equal(int[] values, boolean[] nulls, int value, boolean[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            out[i] = !nulls[i] & values[i] == value;
+        }
+    }
+
+    void and(boolean[] target, boolean[] other, int n) {
+        for (int i = 0; i < n; i++) {
+            target[i] &= other[i];
+        }
+    }
+
+    void or(boolean[] target, boolean[] other, int n) {
+        for (int i = 0; i < n; i++) {
+            target[i] |= other[i];
+        }
+    }
+
+    void andNot(boolean[] mask, boolean[] excluded, boolean[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            out[i] = mask[i] & !excluded[i];
+        }
+    }
+
+    int select(boolean[] mask, int n, int[] selection) {
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            selection[count] = i;
+            count += mask[i] ? 1 : 0;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,353 @@
+package dev.novov.duckdb.engines.parquet.kernels;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernels on the preferred vector shape of the CPU. Every loop handles whole vectors and finishes the remaining
+ * {@code n % lanes} elements with a scalar tail. Masks come from the {@code boolean[]} arrays the
+ * operators already pass around, so a vector kernel is a drop-in replacement for its scalar form.
+ * <p>
+ * Masked MIN/MAX blend the unselected lanes to the identity and then take a plain lane-wise min/max: the masked
+ * {@code lanewise(MIN, v, m)} form crashes C2 on AVX-512 in JDK 21.0.1.
+ * <p>
+ * Only loaded when the {@code jdk.incubator.vector} module is resolved (see {@link Kernels}).
+ */
+final class VectorKernels extends ScalarKernels {
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    /** Ints at half the width, so that one vector widens into exactly one vector of {@link #LONGS}. */
+    private static final VectorSpecies<Integer> HALF_INTS =
+            IntVector.SPECIES_PREFERRED.withShape(VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+
+    @Override
+    String name() {
+        return "vector(" + LONGS.vectorBitSize() + "-bit)";
+    }
+
+    @Override
+    long sum(long[] values, int n) {
+        LongVector acc = LongVector.zero(LONGS);
+        int i = 0;
+        for (int bound = LONGS.loopBound(n); i < bound; i += LONGS.length()) {
+            acc = acc.add(LongVector.fromArray(LONGS, values, i));
+        }
+        long sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < n; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    @Override
+    long sum(int[] values, int n) {
+        LongVector acc = LongVector.zero(LONGS);
+        int i = 0;
+        for (int bound = HALF_INTS.loopBound(n); i < bound; i += HALF_INTS.length()) {
+            acc = acc.add(IntVector.fromArray(HALF_INTS, values, i).castShape(LONGS, 0));
+        }
+        long sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < n; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    /** Sums lane-wise, so the result may differ in the last bits from a sequential loop. */
+    @Override
+    double sum(double[] values, int n) {
+        DoubleVector acc = DoubleVector.zero(DOUBLES);
+        int i = 0;
+        for (int bound = DOUBLES.loopBound(n); i < bound; i += DOUBLES.length()) {
+            acc = acc.add(DoubleVector.fromArray(DOUBLES, values, i));
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < n; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    @Override
+    long sum(long[] values, boolean[] mask, int n) {
+        LongVector acc = LongVector.zero(LONGS);
+        int i = 0;
+        for (int bound = LONGS.loopBound(n); i < bound; i += LONGS.length()) {
+            acc = acc.add(LongVector.fromArray(LONGS, values, i), VectorMask.fromArray(LONGS, mask, i));
+        }
+        long sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < n; i++) {
+            sum += mask[i] ? values[i] : 0L;
+        }
+        return sum;
+    }
+
+    @Override
+    long sum(int[] values, boolean[] mask, int n) {
+        LongVector acc = LongVector.zero(LONGS);
+        int i = 0;
+        for (int bound = HALF_INTS.loopBound(n); i < bound; i += HALF_INTS.length()) {
+            LongVector v = (LongVector) IntVector.fromArray(HALF_INTS, values, i).castShape(LONGS, 0);
+            acc = acc.add(v, VectorMask.fromArray(LONGS, mask, i));
+        }
+        long sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < n; i++) {
+            sum += mask[i] ? values[i] : 0;
+        }
+        return sum;
+    }
+
+    /** Lane-wise like {@link #sum(double[], int)}. */
+    @Override
+    double sum(double[] values, boolean[] mask, int n) {
+        DoubleVector acc = DoubleVector.zero(DOUBLES);
+        int i = 0;
+        for (int bound = DOUBLES.loopBound(n); i < bound; i += DOUBLES.length()) {
+            acc = acc.add(DoubleVector.fromArray(DOUBLES, values, i), VectorMask.fromArray(DOUBLES, mask, i));
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < n; i++) {
+            if (mask[i]) {
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    int count(boolean[] mask, int n) {
+        int count = 0;
+        int i = 0;
+        for (int bound = BYTES.loopBound(n); i < bound; i += BYTES.length()) {
+            count += VectorMask.fromArray(BYTES, mask, i).trueCount();
+        }
+        for (; i < n; i++) {
+            count += mask[i] ? 1 : 0;
+        }
+        return count;
+    }
+
+    @Override
+    long min(long[] values, boolean[] mask, int n) {
+        LongVector identity = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+        LongVector acc = identity;
+        int i = 0;
+        for (int bound = LONGS.loopBound(n); i < bound; i += LONGS.length()) {
+            acc = acc.min(identity.blend(LongVector.fromArray(LONGS, values, i), VectorMask.fromArray(LONGS, mask, i)));
+        }
+        long min = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < n; i++) {
+            if (mask[i]) {
+                min = Math.min(min, values[i]);
+            }
+        }
+        return min;
+    }
+
+    @Override
+    long max(long[] values, boolean[] mask, int n) {
+        LongVector identity = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+        LongVector acc = identity;
+        int i = 0;
+        for (int bound = LONGS.loopBound(n); i < bound; i += LONGS.length()) {
+            acc = acc.max(identity.blend(LongVector.fromArray(LONGS, values, i), VectorMask.fromArray(LONGS, mask, i)));
+        }
+        long max = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < n; i++) {
+            if (mask[i]) {
+                max = Math.max(max, values[i]);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    int min(int[] values, boolean[] mask, int n) {
+        IntVector identity = IntVector.broadcast(INTS, Integer.MAX_VALUE);
+        IntVector acc = identity;
+        int i = 0;
+        for (int bound = INTS.loopBound(n); i < bound; i += INTS.length()) {
+            acc = acc.min(identity.blend(IntVector.fromArray(INTS, values, i), VectorMask.fromArray(INTS, mask, i)));
+        }
+        int min = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < n; i++) {
+            if (mask[i]) {
+                min = Math.min(min, values[i]);
+            }
+        }
+        return min;
+    }
+
+    @Override
+    int max(int[] values, boolean[] mask, int n) {
+        IntVector identity = IntVector.broadcast(INTS, Integer.MIN_VALUE);
+        IntVector acc = identity;
+        int i = 0;
+        for (int bound = INTS.loopBound(n); i < bound; i += INTS.length()) {
+            acc = acc.max(identity.blend(IntVector.fromArray(INTS, values, i), VectorMask.fromArray(INTS, mask, i)));
+        }
+        int max = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < n; i++) {
+            if (mask[i]) {
+                max = Math.max(max, values[i]);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    double min(double[] values, boolean[] mask, int n) {
+        DoubleVector identity = DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY);
+        DoubleVector acc = identity;
+        int i = 0;
+        for (int bound = DOUBLES.loopBound(n); i < bound; i += DOUBLES.length()) {
+            acc = acc.min(identity.blend(DoubleVector.fromArray(DOUBLES, values, i), VectorMask.fromArray(DOUBLES, mask, i)));
+        }
+        double min = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < n; i++) {
+            if (mask[i]) {
+                min = Math.min(min, values[i]);
+            }
+        }
+        return min;
+    }
+
+    @Override
+    double max(double[] values, boolean[] mask, int n) {
+        DoubleVector identity = DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY);
+        DoubleVector acc = identity;
+        int i = 0;
+        for (int bound = DOUBLES.loopBound(n); i < bound; i += DOUBLES.length()) {
+            acc = acc.max(identity.blend(DoubleVector.fromArray(DOUBLES, values, i), VectorMask.fromArray(DOUBLES, mask, i)));
+        }
+        double max = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < n; i++) {
+            if (mask[i]) {
+                max = Math.max(max, values[i]);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    void range(long[] values, boolean[] nulls, long lower, long upper, boolean[] out, int n) {
+        int i = 0;
+        for (int bound = LONGS.loopBound(n); i < bound; i += LONGS.length()) {
+            LongVector v = LongVector.fromArray(LONGS, values, i);
+            v.compare(VectorOperators.GE, lower)
+                    .and(v.compare(VectorOperators.LE, upper))
+                    .andNot(VectorMask.fromArray(LONGS, nulls, i))
+                    .intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            long v = values[i];
+            out[i] = !nulls[i] & v >= lower & v <= upper;
+        }
+    }
+
+    @Override
+    void range(int[] values, boolean[] nulls, int lower, int upper, boolean[] out, int n) {
+        int i = 0;
+        for (int bound = INTS.loopBound(n); i < bound; i += INTS.length()) {
+            IntVector v = IntVector.fromArray(INTS, values, i);
+            v.compare(VectorOperators.GE, lower)
+                    .and(v.compare(VectorOperators.LE, upper))
+                    .andNot(VectorMask.fromArray(INTS, nulls, i))
+                    .intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            int v = values[i];
+            out[i] = !nulls[i] & v >= lower & v <= upper;
+        }
+    }
+
+    @Override
+    void range(double[] values, boolean[] nulls, double lower, double upper, boolean[] out, int n) {
+        int i = 0;
+        for (int bound = DOUBLES.loopBound(n); i < bound; i += DOUBLES.length()) {
+            DoubleVector v = DoubleVector.fromArray(DOUBLES, values, i);
+            v.compare(VectorOperators.GE, lower)
+                    .and(v.compare(VectorOperators.LE, upper))
+                    .andNot(VectorMask.fromArray(DOUBLES, nulls, i))
+                    .intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            double v = values[i];
+            out[i] = !nulls[i] & v >= lower & v <= upper;
+        }
+    }
+
+    @Override
+    void equal(int[] values, boolean[] nulls, int value, boolean[] out, int n) {
+        int i = 0;
+        for (int bound = INTS.loopBound(n); i < bound; i += INTS.length()) {
+            IntVector.fromArray(INTS, values, i)
+                    .compare(VectorOperators.EQ, value)
+                    .andNot(VectorMask.fromArray(INTS, nulls, i))
+                    .intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = !nulls[i] & values[i] == value;
+        }
+    }
+
+    @Override
+    void and(boolean[] target, boolean[] other, int n) {
+        int i = 0;
+        for (int bound = BYTES.loopBound(n); i < bound; i += BYTES.length()) {
+            VectorMask.fromArray(BYTES, target, i).and(VectorMask.fromArray(BYTES, other, i)).intoArray(target, i);
+        }
+        for (; i < n; i++) {
+            target[i] &= other[i];
+        }
+    }
+
+    @Override
+    void or(boolean[] target, boolean[] other, int n) {
+        int i = 0;
+        for (int bound = BYTES.loopBound(n); i < bound; i += BYTES.length()) {
+            VectorMask.fromArray(BYTES, target, i).or(VectorMask.fromArray(BYTES, other, i)).intoArray(target, i);
+        }
+        for (; i < n; i++) {
+            target[i] |= other[i];
+        }
+    }
+
+    @Override
+    void andNot(boolean[] mask, boolean[] excluded, boolean[] out, int n) {
+        int i = 0;
+        for (int bound = BYTES.loopBound(n); i < bound; i += BYTES.length()) {
+            VectorMask.fromArray(BYTES, mask, i).andNot(VectorMask.fromArray(BYTES, excluded, i)).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = mask[i] & !excluded[i];
+        }
+    }
+
+    /** Turns each vector of flags into a bit set and writes the positions of its set bits. */
+    @Override
+    int select(boolean[] mask, int n, int[] selection) {
+        int count = 0;
+        int i = 0;
+        for (int bound = BYTES.loopBound(n); i < bound; i += BYTES.length()) {
+            long bits = VectorMask.fromArray(BYTES, mask, i).toLong();
+            while (bits != 0L) {
+                selection[count++] = i + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        for (; i < n; i++) {
+            selection[count] = i;
+            count += mask[i] ? 1 : 0;
+        }
+        return count;
+    }
+}